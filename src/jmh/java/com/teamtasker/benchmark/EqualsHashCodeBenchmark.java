@@ -0,0 +1,82 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// equals/hashCode sit under every Set<User>/Map<User, ...> lookup on the entities
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EqualsHashCodeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private User user;
+    private User sameUser;
+    private Team team;
+    private Team sameTeam;
+    private Set<User> users;
+    private Set<Team> teams;
+    private User absentUser;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(42);
+        sameUser = Fixtures.user(42);
+        team = Fixtures.team(42, user);
+        sameTeam = Fixtures.team(42, user);
+
+        users = new HashSet<>();
+        teams = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            User member = Fixtures.user(i);
+            users.add(member);
+            teams.add(Fixtures.team(i, member));
+        }
+        absentUser = Fixtures.user(size + 1);
+    }
+
+    @Benchmark
+    public int userHashCode() {
+        return user.hashCode();
+    }
+
+    @Benchmark
+    public boolean userEquals() {
+        return user.equals(sameUser);
+    }
+
+    @Benchmark
+    public int teamHashCode() {
+        return team.hashCode();
+    }
+
+    @Benchmark
+    public boolean teamEquals() {
+        return team.equals(sameTeam);
+    }
+
+    @Benchmark
+    public boolean userSetContainsHit() {
+        return users.contains(sameUser);
+    }
+
+    @Benchmark
+    public boolean userSetContainsMiss() {
+        return users.contains(absentUser);
+    }
+
+    @Benchmark
+    public boolean teamSetContainsHit() {
+        return teams.contains(sameTeam);
+    }
+}
@@ -0,0 +1,56 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.TeamMembership;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.entity.User;
+
+// Detached entities with ids assigned, shaped the way TeamService sees them after getTeamById
+final class Fixtures {
+
+    // one in ten members is a manager
+    static final int MANAGER_EVERY = 10;
+
+    private Fixtures() {}
+
+    static User user(int id) {
+        User user = new User("First" + id, "Last" + id, "user" + id + "@test.com", "user" + id, "password", Role.USER);
+        user.setId(id);
+        return user;
+    }
+
+    static Team team(int id, User owner) {
+        Team team = new Team("team" + id, "Team " + id, owner);
+        team.setId(id);
+        return team;
+    }
+
+    // team owned by user 0 with `size` members in total
+    static Team teamWithMembers(int size) {
+        Team team = team(1, user(0));
+        for (int i = 1; i < size; i++) {
+            User member = user(i);
+            if (i % MANAGER_EVERY == 0) {
+                team.addManager(member);
+            } else {
+                team.addMember(member);
+            }
+        }
+        return team;
+    }
+
+    // user belonging to `size` teams, owning the first and managing every tenth
+    static User userWithTeams(int size) {
+        User user = user(0);
+        for (int i = 0; i < size; i++) {
+            Team team = team(i, i == 0 ? user : user(-1));
+            TeamRole role = i == 0 ? TeamRole.OWNER : i % MANAGER_EVERY == 0 ? TeamRole.MANAGER : TeamRole.MEMBER;
+            if (role == TeamRole.OWNER) {
+                user.getOwnedTeams().add(team);
+            }
+            user.getMemberships().add(new TeamMembership(team, user, role));
+        }
+        return user;
+    }
+}
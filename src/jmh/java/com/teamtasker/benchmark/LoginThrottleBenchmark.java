@@ -0,0 +1,66 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.throttle.LoginThrottle;
+import com.teamtasker.throttle.LoginThrottleProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Login throttle decisions per second, 4 threads. 100k login attempts/s cost (100_000 / score) of the cores the run
+// had - e.g. a score of 2M ops/s on one core means 5% of it. "stuffing" is a credential-stuffing mix: a million
+// usernames from a few hundred addresses, most refused by address; "organic" is mostly one-off usernames from many
+// addresses, which at these rates saturate the sketch counters and must still be let through without a bucket.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoginThrottleBenchmark {
+
+    private static final int KEYS = 1 << 20;
+
+    @Param({"organic", "stuffing"})
+    private String traffic;
+
+    private LoginThrottle throttle;
+    private String[] usernames;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        throttle = new LoginThrottle(new LoginThrottleProperties());
+        SplittableRandom random = new SplittableRandom(42);
+        int addressCount = traffic.equals("stuffing") ? 300 : 200_000;
+        usernames = new String[KEYS];
+        addresses = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            usernames[i] = "user" + random.nextInt(1_000_000);
+            int address = random.nextInt(addressCount);
+            addresses[i] = "10." + (address >> 16) + "." + ((address >> 8) & 0xFF) + "." + (address & 0xFF);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalSeed.next();
+    }
+
+    @Benchmark
+    public LoginThrottle.Decision tryAcquire(Cursor cursor) {
+        int i = cursor.next++ & (KEYS - 1);
+        return throttle.tryAcquire(addresses[i], usernames[i]);
+    }
+
+    // spreads the threads over the key arrays
+    private static final class ThreadLocalSeed {
+        private static int seed;
+
+        static synchronized int next() {
+            seed += KEYS / 4;
+            return seed;
+        }
+    }
+}
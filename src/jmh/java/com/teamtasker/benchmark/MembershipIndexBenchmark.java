@@ -0,0 +1,155 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.membership.MembershipIndex;
+import com.teamtasker.membership.MembershipIndexProperties;
+import com.teamtasker.repository.MembershipIndexRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// The in-memory side of the membership queries at 1M users and 50k teams of 20 (plus one team of 50k): the set
+// operations TeamService and callers use instead of SQL, and the copy-on-write cost of a membership change.
+// MembershipIndexSqlBenchmark (src/test, needs Docker) runs the same questions against PostgreSQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MembershipIndexBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int TEAMS = 50_000;
+    private static final int TEAM_SIZE = 20;
+    private static final int BIG_TEAM = 1;
+    private static final int BIG_TEAM_SIZE = 50_000;
+
+    private MembershipIndex index;
+    private int[] sampleUsers;
+    private int[] sampleTeams;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new MembershipIndex(new SyntheticRepository(), new NoTransactions(), new MembershipIndexProperties(),
+                new SimpleMeterRegistry());
+        index.rebuild();
+        // users and teams that are actually in the graph, so the queries have something to intersect
+        SplittableRandom random = new SplittableRandom(7);
+        sampleUsers = new int[1024];
+        sampleTeams = new int[1024];
+        for (int i = 0; i < sampleUsers.length; i++) {
+            sampleTeams[i] = 2 + random.nextInt(TEAMS);
+            sampleUsers[i] = index.members(sampleTeams[i]).first();
+        }
+    }
+
+    @Benchmark
+    public int[] usersNotInBigTeamFirstPage() {
+        return index.usersNotInTeam(BIG_TEAM, 0, 21);
+    }
+
+    @Benchmark
+    public int[] usersNotInBigTeamPage500() {
+        return index.usersNotInTeam(BIG_TEAM, 500 * 20, 21);
+    }
+
+    @Benchmark
+    public long usersNotInBigTeamCount() {
+        return index.countUsersNotInTeam(BIG_TEAM);
+    }
+
+    @Benchmark
+    public RoaringBitmap sharedTeams() {
+        int i = next++ & 1023;
+        return index.sharedTeams(sampleUsers[i], sampleUsers[(i + 1) & 1023]);
+    }
+
+    @Benchmark
+    public RoaringBitmap membersNotIn() {
+        int i = next++ & 1023;
+        return index.membersNotIn(sampleTeams[i], BIG_TEAM);
+    }
+
+    @Benchmark
+    public RoaringBitmap membersOfAnyTenTeams() {
+        int i = next++ & 1023;
+        return index.membersOfAny(sampleTeams[i], sampleTeams[(i + 1) & 1023], sampleTeams[(i + 2) & 1023],
+                sampleTeams[(i + 3) & 1023], sampleTeams[(i + 4) & 1023], sampleTeams[(i + 5) & 1023],
+                sampleTeams[(i + 6) & 1023], sampleTeams[(i + 7) & 1023], sampleTeams[(i + 8) & 1023],
+                sampleTeams[(i + 9) & 1023]);
+    }
+
+    // one member added to and removed from a team, as the two committed events would - every change copies the
+    // roster bitmap it touches
+    @Benchmark
+    public void addAndRemoveMember() {
+        int i = next++ & 1023;
+        churn(sampleTeams[i], USERS - i);
+    }
+
+    @Benchmark
+    public void addAndRemoveBigTeamMember() {
+        churn(BIG_TEAM, USERS - (next++ & 1023));
+    }
+
+    private void churn(int teamId, int userId) {
+        index.onTeamEvent(new TeamEvent.MemberAdded(teamId, userId, 1, Instant.EPOCH));
+        index.onTeamEvent(new TeamEvent.MemberRemoved(teamId, userId, TeamRole.MEMBER, 1, Instant.EPOCH));
+    }
+
+    // the rows the database would stream: users 1..1M, every 20th of them in the big team, random small teams
+    private static final class SyntheticRepository extends MembershipIndexRepository {
+
+        SyntheticRepository() {
+            super(null);
+        }
+
+        @Override
+        public void forEachUser(IntConsumer consumer) {
+            for (int userId = 1; userId <= USERS; userId++) {
+                consumer.accept(userId);
+            }
+        }
+
+        @Override
+        public void forEachMembership(MembershipConsumer consumer) {
+            for (int i = 1; i <= BIG_TEAM_SIZE; i++) {
+                consumer.accept(BIG_TEAM, i * (USERS / BIG_TEAM_SIZE), i == 1 ? TeamRole.OWNER : TeamRole.MEMBER);
+            }
+            SplittableRandom random = new SplittableRandom(42);
+            for (int teamId = 2; teamId < 2 + TEAMS; teamId++) {
+                for (int k = 0; k < TEAM_SIZE; k++) {
+                    consumer.accept(teamId, 1 + random.nextInt(USERS), k == 0 ? TeamRole.OWNER : TeamRole.MEMBER);
+                }
+            }
+        }
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private Team team;
+    private User owner;
+    private User manager;
+    private User regularMember;
+    private User outsider;
+
+    @Setup
+    public void setUp() {
+        team = Fixtures.teamWithMembers(size);
+        owner = team.getOwner();
+        manager = Fixtures.user(Fixtures.MANAGER_EVERY);
+        regularMember = Fixtures.user(1);
+        outsider = Fixtures.user(size + 1);
+    }
+
+    @Benchmark
+    public boolean hasManagementRightsOwner() {
+        return team.hasManagementRights(owner);
+    }
+
+    @Benchmark
+    public boolean hasManagementRightsManager() {
+        return team.hasManagementRights(manager);
+    }
+
+    // falls through every check - the common case for a plain member
+    @Benchmark
+    public boolean hasManagementRightsRegularMember() {
+        return team.hasManagementRights(regularMember);
+    }
+
+    @Benchmark
+    public boolean isMemberOutsider() {
+        return team.isMember(outsider);
+    }
+
+    @Benchmark
+    public Set<User> getRegularMembers() {
+        return team.getRegularMembers();
+    }
+
+    @Benchmark
+    public Set<User> getManagers() {
+        return team.getManagers();
+    }
+}
@@ -0,0 +1,47 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.fragment.FragmentCache;
+import com.teamtasker.fragment.TeamFragments;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+// Roster render cost with and without the fragment cache - the cached case is a hit on every call after the first
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamFragmentsBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private TeamFragments teamFragments;
+    private Team team;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        teamFragments = new TeamFragments(templateEngine, new FragmentCache(64_000_000, new SimpleMeterRegistry()),
+                "", cached);
+        team = Fixtures.teamWithMembers(size);
+    }
+
+    @Benchmark
+    public String roster() {
+        return teamFragments.roster(team);
+    }
+}
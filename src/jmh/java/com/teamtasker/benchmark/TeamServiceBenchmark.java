@@ -0,0 +1,55 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.repository.TeamRepository;
+import com.teamtasker.service.TeamService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// In-memory filtering in TeamService with the repository stubbed out, so only the Java side is measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamServiceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    // "" = no filter, "user1" = prefix shared by ~11% of members, "nomatch" = filters everything out
+    @Param({"", "user1", "nomatch"})
+    private String searchTerm;
+
+    private TeamService teamService;
+    private Integer teamId;
+
+    @Setup
+    public void setUp() {
+        Team team = Fixtures.teamWithMembers(size);
+        teamId = team.getId();
+        teamService = new TeamService(stubRepository(team), null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<User> getRemovableMembers() {
+        return teamService.getRemovableMembers(teamId, searchTerm);
+    }
+
+    private static TeamRepository stubRepository(Team team) {
+        return (TeamRepository) Proxy.newProxyInstance(TeamRepository.class.getClassLoader(),
+                new Class<?>[]{TeamRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findWithMembersById")) {
+                        return Optional.of(team);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,37 @@
+package com.teamtasker.benchmark;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.userWithTeams(size);
+    }
+
+    @Benchmark
+    public Set<Team> getTeamsWithManagementRights() {
+        return user.getTeamsWithManagementRights();
+    }
+
+    @Benchmark
+    public Set<Team> getRegularMemberTeams() {
+        return user.getRegularMemberTeams();
+    }
+}
@@ -0,0 +1,63 @@
+package com.teamtasker.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps every sample per endpoint - fine for load-test sized runs and gives exact percentiles
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, key -> new Samples());
+        endpointSamples.add(nanos);
+        if (!success) {
+            endpointSamples.errors.increment();
+        }
+    }
+
+    String report(double elapsedSeconds) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-22s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        samples.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            long[] sorted = entry.getValue().sorted();
+            report.append(String.format("%-22s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), sorted.length, sorted.length / elapsedSeconds, entry.getValue().errors.sum(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+        });
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
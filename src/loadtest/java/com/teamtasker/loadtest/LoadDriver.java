@@ -0,0 +1,139 @@
+package com.teamtasker.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop driver: each virtual user logs in once, then issues weighted requests back to back until the deadline
+class LoadDriver {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    LoadDriver(String baseUrl, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+    }
+
+    String run() throws InterruptedException {
+        long deadline = System.nanoTime() + options.duration().toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                // a tenth of the sessions act as admin so management pages (search, bulk add) are reachable
+                boolean admin = i % 10 == 0;
+                executor.submit(() -> runSession(admin, deadline));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return recorder.report(elapsedSeconds);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    private void runSession(boolean admin, long deadline) {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            String username = admin ? "admin" : "lt_user" + (1 + random.nextInt(options.users()));
+            String csrf = login(client, username, "password123");
+            while (System.nanoTime() < deadline) {
+                int teamId = 1 + random.nextInt(options.teams());
+                int roll = random.nextInt(100);
+                if (admin && roll < 40) {
+                    get(client, "member search", "/teams/" + teamId + "/member/add?searchTerm=user" + random.nextInt(100));
+                } else if (admin && roll < 50) {
+                    bulkAdd(client, csrf, teamId, random);
+                } else if (roll < 30) {
+                    get(client, "/teams", "/teams?page=" + random.nextInt(5));
+                } else if (roll < 60) {
+                    get(client, "/teams/my-teams", "/teams/my-teams");
+                } else {
+                    get(client, "/teams/{id}", "/teams/" + teamId);
+                }
+            }
+        } catch (IOException e) {
+            recorder.record("session aborted", 0, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // returns the post-login CSRF token (Spring Security rotates it on authentication)
+    private String login(HttpClient client, String username, String password) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        String loginPage = client.send(request("/auth/login").build(), HttpResponse.BodyHandlers.ofString()).body();
+        HttpResponse<Void> response = client.send(request("/auth/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(form("username", username, "password", password, "_csrf", csrf(loginPage)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        recorder.record("login", System.nanoTime() - start, response.statusCode() == 302 && !location.contains("/auth/login"));
+        return csrf(client.send(request("/").build(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private void get(HttpClient client, String endpoint, String path) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request(path).build(), HttpResponse.BodyHandlers.discarding());
+        recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+    }
+
+    private void bulkAdd(HttpClient client, String csrf, int teamId, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        List<String> fields = new ArrayList<>(List.of("_csrf", csrf));
+        for (int i = 0; i < 5; i++) {
+            fields.add("usernames");
+            fields.add("lt_user" + (1 + random.nextInt(options.users())));
+        }
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request("/teams/" + teamId + "/members/add")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(form(fields.toArray(String[]::new)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        recorder.record("bulk add", System.nanoTime() - start, response.statusCode() == 302);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private static HttpRequest.BodyPublisher form(String... keyValues) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (!body.isEmpty()) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(keyValues[i], StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(keyValues[i + 1], StandardCharsets.UTF_8));
+        }
+        return HttpRequest.BodyPublishers.ofString(body.toString());
+    }
+
+    private static String csrf(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+}
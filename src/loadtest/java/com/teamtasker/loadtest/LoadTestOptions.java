@@ -0,0 +1,34 @@
+package com.teamtasker.loadtest;
+
+import java.time.Duration;
+
+// Parsed from --key=value arguments, e.g. --users=100000 --teams=10000 --concurrency=200 --duration=120s
+record LoadTestOptions(String baseUrl, int users, int teams, int concurrency, Duration duration, Duration warmup) {
+
+    static LoadTestOptions parse(String[] args) {
+        String baseUrl = null;
+        int users = 10_000;
+        int teams = 1_000;
+        int concurrency = 50;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(15);
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            String value = keyValue.length > 1 ? keyValue[1] : "";
+            switch (keyValue[0]) {
+                case "base-url" -> baseUrl = value;
+                case "users" -> users = Integer.parseInt(value);
+                case "teams" -> teams = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "duration" -> duration = Duration.parse("PT" + value.toUpperCase());
+                case "warmup" -> warmup = Duration.parse("PT" + value.toUpperCase());
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return new LoadTestOptions(baseUrl, users, teams, concurrency, duration, warmup);
+    }
+
+    LoadTestOptions withDuration(Duration newDuration) {
+        return new LoadTestOptions(baseUrl, users, teams, concurrency, newDuration, warmup);
+    }
+}
@@ -0,0 +1,52 @@
+package com.teamtasker.loadtest;
+
+import com.teamtasker.TeamTaskerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Map;
+
+// Entry point for `mvn -Ploadtest verify -Dloadtest.args="..."`.
+// Without --base-url it starts PostgreSQL in a container, boots the app on a random port with the "loadtest" profile
+// (which seeds --users / --teams through LoadTestDataSeeder) and drives it in-process.
+// With --base-url it drives an already running instance, which must have been started with the same profile + sizes.
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.baseUrl() != null) {
+            drive(options.baseUrl(), options);
+            return;
+        }
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")) {
+            postgres.start();
+            SpringApplication application = new SpringApplication(TeamTaskerApplication.class);
+            application.setAdditionalProfiles("loadtest");
+            application.setDefaultProperties(Map.of(
+                    "server.port", "0",
+                    "spring.datasource.url", postgres.getJdbcUrl(),
+                    "spring.datasource.username", postgres.getUsername(),
+                    "spring.datasource.password", postgres.getPassword(),
+                    "spring.jpa.show-sql", "false",
+                    "teamtasker.loadtest.users", String.valueOf(options.users()),
+                    "teamtasker.loadtest.teams", String.valueOf(options.teams())
+            ));
+            try (ConfigurableApplicationContext context = application.run()) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                drive("http://localhost:" + port, options);
+            }
+        }
+    }
+
+    private static void drive(String baseUrl, LoadTestOptions options) throws InterruptedException {
+        if (!options.warmup().isZero()) {
+            System.out.println("Warming up for " + options.warmup().toSeconds() + "s ...");
+            new LoadDriver(baseUrl, options.withDuration(options.warmup())).run();
+        }
+        System.out.printf("Driving %s with %d sessions for %ds (%,d users, %,d teams)%n",
+                baseUrl, options.concurrency(), options.duration().toSeconds(), options.users(), options.teams());
+        System.out.println(new LoadDriver(baseUrl, options).run());
+    }
+}
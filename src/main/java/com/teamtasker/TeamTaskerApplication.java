@@ -1,9 +1,12 @@
 package com.teamtasker;
 
+import com.teamtasker.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TeamTaskerApplication {
 
 	public static void main(String[] args) {
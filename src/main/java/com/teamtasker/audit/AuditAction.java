@@ -0,0 +1,7 @@
+package com.teamtasker.audit;
+
+public enum AuditAction {
+    USER_ROLE_CHANGED,
+    USER_DELETED,
+    TEAM_DELETED
+}
@@ -0,0 +1,22 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuditConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditWriter auditWriter(AuditLogRepository auditLogRepository, MeterRegistry meterRegistry,
+                                   @Value("${teamtasker.audit.buffer-capacity:8192}") int bufferCapacity,
+                                   @Value("${teamtasker.audit.batch-size:500}") int batchSize,
+                                   @Value("${teamtasker.audit.flush-interval-ms:200}") long flushIntervalMillis) {
+        AuditWriter writer = new AuditWriter(new AuditRingBuffer(bufferCapacity), auditLogRepository, batchSize,
+                flushIntervalMillis, meterRegistry);
+        writer.start();
+        return writer;
+    }
+}
@@ -0,0 +1,54 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.repository.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/audit")
+public class AuditController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Autowired
+    public AuditController(AuditLogRepository auditLogRepository) {
+        this.auditLogRepository = auditLogRepository;
+    }
+
+    // keyset paging - pass the previous page's nextCursor as "after"; a cursor that does not parse is a 400
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditPage> audit(@RequestParam(required = false) String targetType,
+                           @RequestParam(required = false) Integer targetId,
+                           @RequestParam(required = false) Integer actorId,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(defaultValue = "50") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        AuditPage.Cursor cursor = null;
+        if (after != null) {
+            try {
+                cursor = AuditPage.Cursor.parse(after);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        String type = targetType != null ? targetType.toUpperCase() : null;
+
+        // one extra row tells whether there is a next page
+        List<AuditEntry> entries = auditLogRepository.findPage(type, targetId, actorId, cursor, limit + 1);
+        if (entries.size() <= limit) {
+            return ResponseEntity.ok(new AuditPage(entries, null));
+        }
+        List<AuditEntry> page = entries.subList(0, limit);
+        return ResponseEntity.ok(new AuditPage(List.copyOf(page), AuditPage.Cursor.of(page.get(limit - 1)).toString()));
+    }
+}
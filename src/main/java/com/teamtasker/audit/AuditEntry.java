@@ -0,0 +1,11 @@
+package com.teamtasker.audit;
+
+import java.time.LocalDateTime;
+
+// id is null until the entry has been written
+public record AuditEntry(Long id, LocalDateTime occurredAt, Integer actorId, String actorName, AuditAction action,
+                         String targetType, Integer targetId, String details) {
+
+    public static final String TARGET_USER = "USER";
+    public static final String TARGET_TEAM = "TEAM";
+}
@@ -0,0 +1,35 @@
+package com.teamtasker.audit;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// One keyset page, newest first. nextCursor is null on the last page.
+public record AuditPage(List<AuditEntry> entries, String nextCursor) {
+
+    // position of the last entry on a page, (occurred_at, id) matches the keyset order
+    public record Cursor(LocalDateTime occurredAt, long id) {
+
+        public static Cursor parse(String value) {
+            int separator = value.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid audit cursor: " + value);
+            }
+            try {
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid audit cursor: " + value, e);
+            }
+        }
+
+        public static Cursor of(AuditEntry entry) {
+            return new Cursor(entry.occurredAt(), entry.id());
+        }
+
+        @Override
+        public String toString() {
+            return occurredAt + "_" + id;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Turns committed admin actions into audit entries. Runs on the request thread right after commit, so the logged-in
+// user is still available for actor_name; the actual write happens on the AuditWriter thread.
+@Component
+public class AuditRecorder {
+
+    private final AuditWriter auditWriter;
+
+    @Autowired
+    public AuditRecorder(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTeamEvent(TeamEvent event) {
+        if (event instanceof TeamEvent.TeamDeleted deleted) {
+            auditWriter.append(new AuditEntry(null, toLocal(deleted), deleted.actorId(), currentUsername(),
+                    AuditAction.TEAM_DELETED, AuditEntry.TARGET_TEAM, deleted.teamId(), "name=" + deleted.name()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserEvent(UserEvent event) {
+        switch (event) {
+            case UserEvent.UserRoleChanged changed -> auditWriter.append(new AuditEntry(null, toLocal(changed),
+                    changed.actorId(), currentUsername(), AuditAction.USER_ROLE_CHANGED, AuditEntry.TARGET_USER,
+                    changed.userId(), changed.previousRole() + " -> " + changed.newRole()));
+            case UserEvent.UserDeleted deleted -> auditWriter.append(new AuditEntry(null, toLocal(deleted),
+                    deleted.actorId(), currentUsername(), AuditAction.USER_DELETED, AuditEntry.TARGET_USER,
+                    deleted.userId(), "username=" + deleted.username()));
+            // sign-ups and profile edits are not admin actions and stay out of the audit log
+            case UserEvent.UserRegistered registered -> {
+            }
+            case UserEvent.UserProfileUpdated updated -> {
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private static LocalDateTime toLocal(TeamEvent event) {
+        return LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime toLocal(UserEvent event) {
+        return LocalDateTime.ofInstant(event.occurredAt(), ZoneId.systemDefault());
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
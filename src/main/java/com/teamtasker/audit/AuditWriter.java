@@ -0,0 +1,105 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Background writer for the audit ring buffer. Request threads only append; this thread drains whatever has piled up
+// since the last flush and inserts it as one JDBC batch. A failed batch is retried (the buffer absorbs new entries
+// meanwhile) so an outage delays the trail instead of punching holes into it.
+public class AuditWriter implements Runnable, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AuditRingBuffer buffer;
+    private final AuditLogRepository auditLogRepository;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failures;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AuditWriter(AuditRingBuffer buffer, AuditLogRepository auditLogRepository, int batchSize,
+                       long flushIntervalMillis, MeterRegistry meterRegistry) {
+        this.buffer = buffer;
+        this.auditLogRepository = auditLogRepository;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.written = Counter.builder("teamtasker.audit.written").register(meterRegistry);
+        this.dropped = Counter.builder("teamtasker.audit.dropped").register(meterRegistry);
+        this.failures = Counter.builder("teamtasker.audit.write.failures").register(meterRegistry);
+        Gauge.builder("teamtasker.audit.buffered", buffer, AuditRingBuffer::size).register(meterRegistry);
+        this.thread = Thread.ofPlatform().daemon().name("audit-writer").unstarted(this);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    // called on request threads - never blocks
+    public void append(AuditEntry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+            log.error("Audit buffer full, entry lost: {}", entry);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+        // shutdown - flush what is left
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEntry> batch) {
+        while (true) {
+            try {
+                auditLogRepository.insertAll(batch);
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                failures.increment();
+                if (!running) {
+                    log.error("Audit write failed during shutdown, {} entries lost", batch.size(), e);
+                    return;
+                }
+                log.warn("Audit write of {} entries failed, retrying", batch.size(), e);
+                LockSupport.parkNanos(RETRY_DELAY_NANOS);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
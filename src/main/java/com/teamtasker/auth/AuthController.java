@@ -4,8 +4,11 @@ import com.teamtasker.entity.Role;
 import com.teamtasker.entity.User;
 import com.teamtasker.exception.UserNotFoundException;
 import com.teamtasker.service.UserService;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,9 +20,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
+@Observed(name = "teamtasker.controller")
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
 
     @Autowired
@@ -77,8 +83,7 @@ public class AuthController {
     @GetMapping("/test-403")
     @PreAuthorize("hasRole('ADMIN')")
     public String test403(Authentication authentication) {
-        System.out.println("User: " + authentication.getName());
-        System.out.println("Authorities: " + authentication.getAuthorities());
+        log.info("User: {}, Authorities: {}", authentication.getName(), authentication.getAuthorities());
         return "dashboard";
     }
 
@@ -0,0 +1,28 @@
+package com.teamtasker.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+// Failures are counted in CustomAuthFailureHandler
+@Component
+public class AuthenticationMetricsListener {
+
+    private final Counter successCounter;
+
+    @Autowired
+    public AuthenticationMetricsListener(MeterRegistry meterRegistry) {
+        this.successCounter = Counter.builder("teamtasker.auth.attempts")
+                .description("Form login attempts")
+                .tag("result", "success")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successCounter.increment();
+    }
+}
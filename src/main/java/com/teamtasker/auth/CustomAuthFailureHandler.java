@@ -1,8 +1,11 @@
 package com.teamtasker.auth;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
@@ -12,10 +15,21 @@ import java.io.IOException;
 @Component
 public class CustomAuthFailureHandler implements AuthenticationFailureHandler {
 
+    private final Counter failureCounter;
+
+    @Autowired
+    public CustomAuthFailureHandler(MeterRegistry meterRegistry) {
+        this.failureCounter = Counter.builder("teamtasker.auth.attempts")
+                .description("Form login attempts")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
     @Override
     public void onAuthenticationFailure(HttpServletRequest request,
                                         HttpServletResponse response,
                                         AuthenticationException exception) throws IOException, ServletException {
+        failureCounter.increment();
         request.getSession(true).setAttribute("error_message", "Invalid username or password");
         response.sendRedirect("/auth/login");
     }
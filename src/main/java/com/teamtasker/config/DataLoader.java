@@ -3,13 +3,20 @@ package com.teamtasker.config;
 import com.teamtasker.entity.Role;
 import com.teamtasker.entity.User;
 import com.teamtasker.service.UserService;
-import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+// Seeds the default accounts once the application is ready, off the startup path - the lookups and BCrypt hashes used
+// to run inside context refresh and delayed readiness on every start. Logins for these accounts fail until it is done.
 @Component
 public class DataLoader {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
     private final UserService userService;
 
     @Autowired
@@ -17,7 +24,17 @@ public class DataLoader {
         this.userService = userService;
     }
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("data-loader").start(() -> {
+            try {
+                loadInitialData();
+            } catch (RuntimeException e) {
+                log.error("Initial data load failed", e);
+            }
+        });
+    }
+
     public void loadInitialData() {
         createDefaultAdmin();
         createTestUsers();
@@ -27,12 +44,9 @@ public class DataLoader {
         if (!userService.isUsernameTaken("admin")) {
             User admin = new User("Admin", "User", "admin@test.com", "admin", "password123");
             userService.registerAdmin(admin);
-            System.out.println("✅ Default admin user created:");
-            System.out.println("   Username: admin");
-            System.out.println("   Password: password123");
-            System.out.println("   Role: ADMIN");
+            log.info("Default admin user created - Username: admin, Password: password123, Role: ADMIN");
         } else {
-            System.out.println("ℹ️ Admin user already exists");
+            log.info("Admin user already exists");
         }
     }
 
@@ -41,20 +55,14 @@ public class DataLoader {
         if (!userService.isUsernameTaken("testuser")) {
             User testUser = new User("Test", "User", "test@test.com", "testuser", "password123");
             userService.registerUser(testUser);
-            System.out.println("✅ Test user created:");
-            System.out.println("   Username: testuser");
-            System.out.println("   Password: password123");
-            System.out.println("   Role: USER");
+            log.info("Test user created - Username: testuser, Password: password123, Role: USER");
         }
 
         // Create a test manager user
         if (!userService.isUsernameTaken("manager")) {
             User manager = new User("Manager", "User", "manager@test.com", "manager", "password123");
             userService.registerManager(manager);
-            System.out.println("✅ Test manager created:");
-            System.out.println("   Username: manager");
-            System.out.println("   Password: password123");
-            System.out.println("   Role: MANAGER");
+            log.info("Test manager created - Username: manager, Password: password123, Role: MANAGER");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.teamtasker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Seeds N users and M teams for load testing (profile "loadtest"). Team sizes follow a power law, so a few teams
+// are very large and most are small. Deterministic for a given seed; skipped if the users already exist.
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    public static final String USERNAME_PREFIX = "lt_user";
+    public static final String PASSWORD = "password123";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${teamtasker.loadtest.users:10000}")
+    private int userCount;
+
+    @Value("${teamtasker.loadtest.teams:1000}")
+    private int teamCount;
+
+    @Value("${teamtasker.loadtest.mean-team-size:12}")
+    private int meanTeamSize;
+
+    @Value("${teamtasker.loadtest.max-team-size:5000}")
+    private int maxTeamSize;
+
+    @Value("${teamtasker.loadtest.seed:42}")
+    private long seed;
+
+    @Autowired
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'", Integer.class);
+        if (existing != null && existing >= userCount) {
+            log.info("Load test data already present ({} users)", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        List<Integer> userIds = seedUsers();
+        int memberships = seedTeams(userIds, random);
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Seeded {} users, {} teams, {} memberships in {} ms",
+                userIds.size(), teamCount, memberships, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    private List<Integer> seedUsers() {
+        // one hash for everyone - BCrypt per user would dominate seeding time
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, username, password, role) " +
+                        "SELECT 'Load' || i, 'Tester' || i, '" + USERNAME_PREFIX + "' || i || '@test.com', " +
+                        "'" + USERNAME_PREFIX + "' || i, ?, 'USER' FROM generate_series(1, ?) i",
+                passwordHash, userCount);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%' ORDER BY id",
+                Integer.class);
+    }
+
+    private int seedTeams(List<Integer> userIds, Random random) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> teams = new ArrayList<>(teamCount);
+        for (int i = 1; i <= teamCount; i++) {
+            int ownerId = userIds.get(random.nextInt(userIds.size()));
+            teams.add(new Object[]{"lt_team" + i, "Load test team " + i, now, ownerId, random.nextInt(10) != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO teams (name, description, created_at, owner_id, is_active) VALUES (?, ?, ?, ?, ?)",
+                teams);
+
+        List<Integer> teamIds = jdbcTemplate.queryForList("SELECT id FROM teams WHERE name LIKE 'lt_team%' ORDER BY id",
+                Integer.class);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int total = 0;
+        for (int i = 0; i < teamIds.size(); i++) {
+            Integer teamId = teamIds.get(i);
+            Integer ownerId = (Integer) teams.get(i)[3];
+            Set<Integer> members = new HashSet<>();
+            members.add(ownerId);
+            batch.add(new Object[]{teamId, ownerId, "OWNER", now});
+
+            int size = Math.min(Math.min(teamSize(random), maxTeamSize), userIds.size());
+            while (members.size() < size) {
+                Integer userId = userIds.get(random.nextInt(userIds.size()));
+                if (members.add(userId)) {
+                    batch.add(new Object[]{teamId, userId, random.nextInt(10) == 0 ? "MANAGER" : "MEMBER", now});
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    total += flushMemberships(batch);
+                }
+            }
+        }
+        return total + flushMemberships(batch);
+    }
+
+    // Pareto with alpha 2 scaled to the requested mean
+    private int teamSize(Random random) {
+        double pareto = 1 / Math.sqrt(1 - random.nextDouble());
+        return Math.max(2, (int) Math.round(pareto * meanTeamSize / 2));
+    }
+
+    private int flushMemberships(List<Object[]> batch) {
+        int size = batch.size();
+        jdbcTemplate.batchUpdate("INSERT INTO team_memberships (team_id, user_id, role, joined_at) VALUES (?, ?, ?, ?)",
+                batch);
+        batch.clear();
+        return size;
+    }
+}
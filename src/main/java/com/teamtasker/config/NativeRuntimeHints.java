@@ -0,0 +1,66 @@
+package com.teamtasker.config;
+
+import com.teamtasker.auth.CustomUserDetails;
+import com.teamtasker.entity.OutboxEvent;
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.TeamMembership;
+import com.teamtasker.entity.TeamMembershipId;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.entity.User;
+import com.teamtasker.event.TeamEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import org.thymeleaf.expression.Temporals;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+// Reflection / resource metadata for the native image (mvn -Pnative package) that Spring AOT cannot infer: entities
+// and view types are read reflectively by Hibernate, Thymeleaf's SpEL and Jackson rather than through bean definitions.
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Hibernate uses field access and the no-arg constructors, templates call the getters
+    static final List<Class<?>> ENTITIES = List.of(
+            User.class, Team.class, TeamMembership.class, TeamMembershipId.class, OutboxEvent.class);
+
+    static final List<Class<?>> ENUMS = List.of(Role.class, TeamRole.class);
+
+    // handed to templates: the principal (current user), paged listings, #temporals in teams/fragments
+    static final List<Class<?>> VIEW_TYPES = List.of(
+            CustomUserDetails.class, PageImpl.class, SliceImpl.class, Temporals.class);
+
+    static final List<Class<?>> JDBC_PROXIES = List.of(
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ENTITIES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+        ENUMS.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.PUBLIC_FIELDS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+        VIEW_TYPES.forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        // OutboxWriter serialises every TeamEvent record to JSON
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                TeamEvent.class.getPermittedSubclasses());
+
+        // QueryStatsDataSource counts statements through JDK proxies of the JDBC interfaces
+        JDBC_PROXIES.forEach(type -> hints.proxies().registerJdkProxy(type));
+
+        hints.resources()
+                .registerPattern("templates/**")
+                .registerPattern("static/**")
+                .registerPattern("db/migration/*.sql");
+    }
+}
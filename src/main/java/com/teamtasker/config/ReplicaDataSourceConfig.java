@@ -0,0 +1,86 @@
+package com.teamtasker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only active when teamtasker.datasource.replica.urls is set, otherwise Boot's single datasource is used as before
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "teamtasker.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    // Bound to spring.datasource.hikari.* the way Boot binds its own pool, so replicas being configured does not drop
+    // the primary's pool size, timeouts and the rest
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    // Pool settings shared by every replica, under their own prefix since replicas are usually sized differently
+    @Bean
+    @ConfigurationProperties("teamtasker.datasource.replica.hikari")
+    public HikariConfig replicaHikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             @Qualifier("replicaHikariConfig")
+                                                             HikariConfig replicaHikariConfig,
+                                                             ReplicaProperties replicaProperties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            replicas.add(replicaPool(i, replicaHikariConfig, primaryProperties, replicaProperties));
+        }
+
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.getMaxLag());
+        routingDataSource.startLagChecks(replicaProperties.getCheckInterval());
+        return routingDataSource;
+    }
+
+    // Lazy proxy defers the physical connection until the first statement, after @Transactional(readOnly) is bound
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    static HikariDataSource replicaPool(int index, HikariConfig replicaHikariConfig,
+                                        DataSourceProperties primaryProperties, ReplicaProperties replicaProperties) {
+        HikariDataSource replica = new HikariDataSource();
+        replicaHikariConfig.copyStateTo(replica);
+        replica.setJdbcUrl(replicaProperties.getUrls().get(index));
+        replica.setDriverClassName(primaryProperties.determineDriverClassName());
+        if (replicaProperties.getUsername() != null) {
+            replica.setUsername(replicaProperties.getUsername());
+            replica.setPassword(replicaProperties.getPassword());
+        } else {
+            replica.setUsername(primaryProperties.determineUsername());
+            replica.setPassword(primaryProperties.determinePassword());
+        }
+        replica.setPoolName("replica-" + index);
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
@@ -0,0 +1,65 @@
+package com.teamtasker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "teamtasker.datasource.replica")
+public class ReplicaProperties {
+
+    // JDBC urls of the read replicas - empty means everything goes to the primary
+    private List<String> urls = new ArrayList<>();
+
+    // Credentials default to spring.datasource.* when not set
+    private String username;
+    private String password;
+
+    // Replicas further behind the primary than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+}
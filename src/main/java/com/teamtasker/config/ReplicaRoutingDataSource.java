@@ -0,0 +1,151 @@
+package com.teamtasker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is known before a connection is picked.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // 0 when caught up (or when pointed at a primary), otherwise seconds since the last replayed transaction
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Routing
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Replica replica = nextHealthyReplica();
+            if (replica != null) {
+                try {
+                    return source.open(replica.dataSource);
+                } catch (SQLException e) {
+                    // fall back to the primary and leave the replica out until the next lag check clears it
+                    replica.healthy = false;
+                    log.warn("Replica connection failed, falling back to primary: {}", e.getMessage());
+                }
+            }
+        }
+        return source.open(primary);
+    }
+
+    Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Lag Monitoring
+
+    public void startLagChecks(Duration interval) {
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicaLag, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                healthy = !rs.wasNull() && lagSeconds * 1000 <= maxLag.toMillis();
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replicas.indexOf(replica), healthy ? "in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public boolean hasHealthyReplica() {
+        return replicas.stream().anyMatch(replica -> replica.healthy);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        closePool(primary);
+        for (Replica replica : replicas) {
+            closePool(replica.dataSource);
+        }
+    }
+
+    private void closePool(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
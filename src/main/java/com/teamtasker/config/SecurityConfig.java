@@ -2,7 +2,10 @@ package com.teamtasker.config;
 
 import com.teamtasker.auth.CustomAuthFailureHandler;
 import com.teamtasker.auth.CustomLogoutSuccessHandler;
+import com.teamtasker.auth.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +15,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableMethodSecurity
@@ -23,15 +30,22 @@ public class SecurityConfig {
     @Autowired
     private CustomLogoutSuccessHandler customLogoutSuccessHandler;
 
+    // Prometheus scrapes without a session, so the metrics endpoint is open to these networks (CIDR) and to admins
+    @Value("${teamtasker.metrics.scrape-addresses:127.0.0.1/32,::1/128}")
+    private List<String> scrapeAddresses;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/login", "/auth/register", "/css/**", "/js/**", "/error", "/error/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/liveness", "/actuator/health/readiness")
+                        .permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeAccess())
                         .anyRequest()
                         .authenticated()
                 )
@@ -57,4 +71,14 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private WebExpressionAuthorizationManager scrapeAccess() {
+        String expression = scrapeAddresses.stream()
+                .map(address -> "hasIpAddress('" + address.trim() + "') or ")
+                .collect(Collectors.joining()) + "hasRole('ADMIN')";
+        return new WebExpressionAuthorizationManager(expression);
+    }
 }
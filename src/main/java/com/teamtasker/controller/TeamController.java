@@ -1,48 +1,83 @@
 package com.teamtasker.controller;
 
 import com.teamtasker.auth.CustomUserDetails;
+import com.teamtasker.entity.Role;
 import com.teamtasker.entity.Team;
 import com.teamtasker.entity.User;
+import com.teamtasker.fragment.TeamFragments;
+import com.teamtasker.metrics.QueryBudget;
+import com.teamtasker.repository.TeamVersionRepository.TeamVersion;
 import com.teamtasker.service.TeamService;
 import com.teamtasker.service.UserService;
+import com.teamtasker.sse.TeamUpdateRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @Controller
+@Observed(name = "teamtasker.controller")
 @RequestMapping("/teams")
 public class TeamController {
 
     private final TeamService teamService;
     private final UserService userService;
+    private final TeamUpdateRegistry teamUpdateRegistry;
+    private final TeamFragments teamFragments;
 
     @Autowired
-    public TeamController(TeamService teamService, UserService userService) {
+    public TeamController(TeamService teamService, UserService userService, TeamUpdateRegistry teamUpdateRegistry,
+                          TeamFragments teamFragments) {
         this.teamService = teamService;
         this.userService = userService;
+        this.teamUpdateRegistry = teamUpdateRegistry;
+        this.teamFragments = teamFragments;
     }
 
     //------------------------------------------------------------------------------------------------------------------
     // Team Listing
 
+    // catalog version + page + count; a revalidation that still matches stops after the first
+    @QueryBudget(max = 3)
     @GetMapping
     public String listTeams(@RequestParam(defaultValue = "0") int page,
                             @RequestParam(defaultValue = "10") int size,
                             @RequestParam(defaultValue = "active") String filter,
                             Model model,
-                            Authentication authentication) {
+                            Authentication authentication,
+                            WebRequest webRequest,
+                            HttpServletResponse response) {
 
         User currUser = getCurrentUser(authentication);
+        // read before the page so the ETag can only ever be older than the content it is sent with
+        TeamVersion catalogVersion = teamService.getCatalogVersion();
+        String listing = Integer.toHexString(Objects.hash(filter.toLowerCase(), page, size));
+        String etag = "teams-v" + catalogVersion.version() + "-" + listing + "-" + viewerTag(currUser, webRequest);
+        if (model.asMap().isEmpty() && checkNotModified(webRequest, response, etag, catalogVersion)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size);
 
         Page<Team> teams = switch (filter.toLowerCase()) {
@@ -52,11 +87,15 @@ public class TeamController {
         };
 
         model.addAttribute("teams", teams);
+        // pre-rendered rows keyed by team id, for th:utext
+        model.addAttribute("teamCards", teamFragments.cards(teams));
         model.addAttribute("currentUser", currUser);
         model.addAttribute("currentFilter", filter);
         return "teams/list";
     }
 
+    // one query per list
+    @QueryBudget(max = 4)
     @GetMapping("/my-teams")
     public String listMyTeams(@RequestParam(defaultValue = "active") String filter,
                               Model model,
@@ -110,7 +149,7 @@ public class TeamController {
         return "teams/create";
     }
 
-    @GetMapping("/create")
+    @PostMapping("/create")
     public String createTeam(@Valid @ModelAttribute("team") Team team,
                              BindingResult result,
                              Authentication authentication,
@@ -149,22 +188,52 @@ public class TeamController {
     //------------------------------------------------------------------------------------------------------------------
     // View + Edit Team
 
+    // team with owner + roster in one fetch, preceded by an access check and a version lookup only when the browser
+    // revalidates
+    @QueryBudget(max = 3)
     @GetMapping("/{teamId}")
-    public String viewTeam(@PathVariable Integer teamId, Model model, Authentication authentication) {
+    public String viewTeam(@PathVariable Integer teamId, Model model, Authentication authentication,
+                           WebRequest webRequest, HttpServletResponse response) {
         User currUser = getCurrentUser(authentication);
+        // flash messages from a redirect must always be rendered, so those responses are never answered with a 304
+        boolean cacheable = model.asMap().isEmpty();
+        // access first: a 304 or its validators would tell anyone that the team exists and when it last changed
+        if (cacheable && isRevalidation(webRequest)
+                && (currUser.getRole() == Role.ADMIN || teamService.isUserAssociatedWithTeam(teamId, currUser))) {
+            Optional<TeamVersion> version = teamService.getTeamVersion(teamId);
+            if (version.isPresent() && checkNotModified(webRequest, response,
+                    teamEtag(teamId, version.get().version(), currUser, webRequest), version.get())) {
+                return null;
+            }
+        }
+
         Team team = teamService.getTeamById(teamId);
         if (!teamService.hasViewAccess(team, currUser)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             model.addAttribute("user_error_message", "You don't have access to this team");
             return "error/403";
         }
+        // validators from the loaded team; when no version row answered above this may still be a 304
+        if (cacheable) {
+            TeamVersion version = new TeamVersion(team.getVersion(),
+                    Objects.requireNonNullElse(team.getUpdatedAt(), team.getCreatedAt()));
+            if (checkNotModified(webRequest, response, teamEtag(teamId, team.getVersion(), currUser, webRequest),
+                    version)) {
+                return null;
+            }
+        }
 
         model.addAttribute("team", team);
+        // shared markup from the fragment cache; the page adds the per-user controls around it
+        model.addAttribute("teamSummary", teamFragments.summary(team));
+        model.addAttribute("teamRoster", teamFragments.roster(team));
         model.addAttribute("currentUser", currUser);
         model.addAttribute("hasManagementAccess", teamService.hasManagementAccess(team, currUser));
         model.addAttribute("isOwner", team.isOwner(currUser));
         return "teams/view";
     }
 
+    @QueryBudget(max = 1)
     @GetMapping("/{teamId}/edit")
     public String editTeam(@PathVariable Integer teamId, Model model, Authentication authentication) {
         User currUser = getCurrentUser(authentication);
@@ -233,9 +302,30 @@ public class TeamController {
         return "redirect:/teams/" + teamId;
     }
 
+    //------------------------------------------------------------------------------------------------------------------
+    // Live Updates
+
+    // SSE stream of membership / activation changes for the team page - access check is a single EXISTS
+    @QueryBudget(max = 1)
+    @GetMapping(value = "/{teamId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> teamEvents(@PathVariable Integer teamId, Authentication authentication) {
+        User currUser = getCurrentUser(authentication);
+        boolean admin = currUser.getRole() == Role.ADMIN;
+        if (!admin && !teamService.isUserAssociatedWithTeam(teamId, currUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SseEmitter emitter = teamUpdateRegistry.open(teamId, currUser.getId(), admin);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     //------------------------------------------------------------------------------------------------------------------
     // Member Management
 
+    // team + one slice of candidates
+    @QueryBudget(max = 2)
     @GetMapping("/{teamId}/member/add")
     public String showAddMemberForm(@PathVariable Integer teamId,
                                     @RequestParam(required = false) String searchTerm,
@@ -251,12 +341,13 @@ public class TeamController {
             return "error/403";
         }
 
+        // picker only pages forwards/backwards, so skip the count query
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> availableUsers;
+        Slice<User> availableUsers;
         if  (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            availableUsers = teamService.searchUsersNotInTeam(teamId, searchTerm, pageable);
+            availableUsers = teamService.searchUsersNotInTeamSlice(teamId, searchTerm, pageable);
         } else {
-            availableUsers = teamService.getUsersNotInTeam(teamId, pageable);
+            availableUsers = teamService.getUsersNotInTeamSlice(teamId, pageable);
         }
 
         model.addAttribute("team", team);
@@ -305,4 +396,30 @@ public class TeamController {
         CustomUserDetails customUserDetails = (CustomUserDetails) authentication.getPrincipal();
         return customUserDetails.getUser();
     }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Conditional GET
+
+    private static boolean isRevalidation(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // Also writes ETag / Last-Modified onto a 200. Pages are per viewer (role-dependent controls, the session's CSRF
+    // token in every form), so only the browser may keep them and it has to revalidate each time.
+    private static boolean checkNotModified(WebRequest webRequest, HttpServletResponse response, String etag,
+                                            TeamVersion version) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        long lastModified = version.modifiedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return webRequest.checkNotModified("W/\"" + etag + "\"", lastModified);
+    }
+
+    private static String teamEtag(Integer teamId, long version, User viewer, WebRequest webRequest) {
+        return "team-" + teamId + "-v" + version + "-" + viewerTag(viewer, webRequest);
+    }
+
+    // a new login gets a new session and CSRF token, so cached pages from the previous one must not match
+    private static String viewerTag(User viewer, WebRequest webRequest) {
+        return Integer.toHexString(Objects.hash(viewer.getId(), viewer.getRole(), webRequest.getSessionId()));
+    }
 }
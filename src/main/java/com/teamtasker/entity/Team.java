@@ -6,9 +6,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "teams")
@@ -38,29 +44,19 @@ public class Team {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    // Team managers - users with CRUD permission for this team
+    // All team members keyed by user - owner, managers and regular members are told apart by role
     @JsonIgnore
-    @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(
-            name = "team_managers",
-            joinColumns = @JoinColumn(name = "team_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
-    )
-    private Set<User> managers = new HashSet<>();
-
-    // All team members (managers and regular members)
-    @JsonIgnore
-    @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(
-            name = "team_members",
-            joinColumns = @JoinColumn(name = "team_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
-    )
-    private Set<User> members = new HashSet<>();
+    @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @MapKeyJoinColumn(name = "user_id")
+    private Map<User, TeamMembership> memberships = new HashMap<>();
 
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Bumped in the database by TeamVersionRepository on every team / roster change - read-only here
+    @Column(insertable = false, updatable = false)
+    private long version;
+
     //------------------------------------------------------------------------------------------------------------------
 
     public Team() {
@@ -83,11 +79,12 @@ public class Team {
     // Query Methods
 
     public boolean containsMember(User user) {
-        return this.members.contains(user);
+        return this.memberships.containsKey(user);
     }
 
     public boolean containsManager(User user) {
-        return this.managers.contains(user);
+        TeamMembership membership = this.memberships.get(user);
+        return membership != null && membership.getRole().hasManagementRights();
     }
 
     public boolean isOwner(User user) {
@@ -106,6 +103,43 @@ public class Team {
         return isOwner(user) || isManager(user) || user.getRole() == Role.ADMIN;
     }
 
+    //------------------------------------------------------------------------------------------------------------------
+    // Membership Changes
+
+    public void addMember(User user) {
+        this.memberships.putIfAbsent(user, new TeamMembership(this, user, TeamRole.MEMBER));
+    }
+
+    public void addManager(User user) {
+        addMember(user);
+        promoteToManager(user);
+    }
+
+    public void removeMember(User user) {
+        this.memberships.remove(user);
+    }
+
+    public void promoteToManager(User user) {
+        setRole(user, TeamRole.MANAGER);
+    }
+
+    public void demoteFromManager(User user) {
+        setRole(user, TeamRole.MEMBER);
+    }
+
+    public TeamRole getRoleOf(User user) {
+        TeamMembership membership = this.memberships.get(user);
+        return membership != null ? membership.getRole() : null;
+    }
+
+    // single-row role change on the existing membership
+    private void setRole(User user, TeamRole role) {
+        TeamMembership membership = this.memberships.get(user);
+        if (membership != null) {
+            membership.setRole(role);
+        }
+    }
+
     //------------------------------------------------------------------------------------------------------------------
     // Getters and Setters
 
@@ -149,36 +183,135 @@ public class Team {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public User getOwner() {
         return owner;
     }
 
+    // previous owner (if any) stays on as a manager
     public void setOwner(User owner) {
+        if (this.owner != null) {
+            setRole(this.owner, TeamRole.MANAGER);
+        }
         this.owner = owner;
-        this.managers.add(owner);
-        this.members.add(owner);
+        addMember(owner);
+        setRole(owner, TeamRole.OWNER);
     }
 
+    public Map<User, TeamMembership> getMemberships() {
+        return memberships;
+    }
+
+    // live view: adding a user promotes them (adding them first if needed), removing one demotes them to member
     public Set<User> getManagers() {
-        return managers;
+        return new MembershipView(TeamRole::hasManagementRights, this::addManager, this::demoteFromManager);
     }
 
     public void setManagers(Set<User> managers) {
-        this.managers = managers;
+        this.memberships.values().stream()
+                .filter(membership -> membership.getRole() == TeamRole.MANAGER && !managers.contains(membership.getUser()))
+                .forEach(membership -> membership.setRole(TeamRole.MEMBER));
+        managers.stream().filter(manager -> !manager.equals(owner)).forEach(this::addManager);
     }
 
+    // live view: adding a user adds a MEMBER row, removing one drops their row
     public Set<User> getMembers() {
-        return members;
+        return new MembershipView(role -> true, this::addMember, this::removeMember);
     }
 
     public void setMembers(Set<User> members) {
-        this.members = members;
+        this.memberships.keySet().removeIf(user -> !members.contains(user) && !user.equals(owner));
+        members.forEach(this::addMember);
     }
 
     public Set<User> getRegularMembers() {
-        Set<User> regularMembers = new HashSet<>(members);
-        regularMembers.removeAll(managers);
-        return regularMembers;
+        return usersWith(role -> role == TeamRole.MEMBER);
+    }
+
+    private Set<User> usersWith(Predicate<TeamRole> rolePredicate) {
+        return memberships.values().stream()
+                .filter(membership -> rolePredicate.test(membership.getRole()))
+                .map(TeamMembership::getUser)
+                .collect(Collectors.toSet());
+    }
+
+    // Set of users over the membership map - reads filter rows by role, writes go through the membership mutators
+    // above, and the owner only leaves through a change of ownership
+    private class MembershipView extends AbstractSet<User> {
+
+        private final Predicate<TeamRole> rolePredicate;
+        private final Consumer<User> add;
+        private final Consumer<User> remove;
+
+        MembershipView(Predicate<TeamRole> rolePredicate, Consumer<User> add, Consumer<User> remove) {
+            this.rolePredicate = rolePredicate;
+            this.add = add;
+            this.remove = remove;
+        }
+
+        @Override
+        public Iterator<User> iterator() {
+            Iterator<User> users = usersWith(rolePredicate).iterator();
+            return new Iterator<>() {
+                private User last;
+
+                @Override
+                public boolean hasNext() {
+                    return users.hasNext();
+                }
+
+                @Override
+                public User next() {
+                    return last = users.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    MembershipView.this.remove(last);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return (int) memberships.values().stream()
+                    .filter(membership -> rolePredicate.test(membership.getRole()))
+                    .count();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            TeamMembership membership = memberships.get(o);
+            return membership != null && rolePredicate.test(membership.getRole());
+        }
+
+        @Override
+        public boolean add(User user) {
+            if (contains(user)) {
+                return false;
+            }
+            add.accept(user);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            if (o.equals(owner)) {
+                throw new IllegalArgumentException("The team owner cannot be removed, transfer ownership first");
+            }
+            remove.accept((User) o);
+            return true;
+        }
     }
 
     public Boolean getIsActive() {
@@ -194,9 +327,8 @@ public class Team {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Team team = (Team) o;
-        return Objects.equals(id, team.id) && Objects.equals(name, team.name);
+        if (!(o instanceof Team team)) return false;
+        return Objects.equals(id, team.getId()) && Objects.equals(name, team.getName());
     }
 
     @Override
@@ -211,8 +343,8 @@ public class Team {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", owner=" + (owner != null ? owner.getUsername() : "null") +
-                ", managersCount=" + managers.size() +
-                ", membersCount=" + members.size() +
+                ", managersCount=" + getManagers().size() +
+                ", membersCount=" + memberships.size() +
                 ", isActive=" + isActive +
                 ", createdAt=" + createdAt +
                 '}';
@@ -0,0 +1,94 @@
+package com.teamtasker.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// One row per (team, user) - replaces the old team_members / team_managers join tables
+@Entity
+@Table(name = "team_memberships")
+public class TeamMembership {
+
+    @EmbeddedId
+    private TeamMembershipId id = new TeamMembershipId();
+
+    @MapsId("teamId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    private Team team;
+
+    @MapsId("userId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TeamRole role;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    protected TeamMembership() {}
+
+    public TeamMembership(Team team, User user, TeamRole role) {
+        this.team = team;
+        this.user = user;
+        this.role = role;
+        this.joinedAt = LocalDateTime.now();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public TeamMembershipId getId() {
+        return id;
+    }
+
+    public Team getTeam() {
+        return team;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public TeamRole getRole() {
+        return role;
+    }
+
+    public void setRole(TeamRole role) {
+        this.role = role;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TeamMembership that)) return false;
+        return Objects.equals(team, that.team) && Objects.equals(user, that.user);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(team, user);
+    }
+
+    @Override
+    public String toString() {
+        return "TeamMembership{" +
+                "teamId=" + id.getTeamId() +
+                ", userId=" + id.getUserId() +
+                ", role=" + role +
+                ", joinedAt=" + joinedAt +
+                '}';
+    }
+}
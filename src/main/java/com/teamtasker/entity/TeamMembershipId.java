@@ -0,0 +1,52 @@
+package com.teamtasker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class TeamMembershipId implements Serializable {
+
+    @Column(name = "team_id")
+    private Integer teamId;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    public TeamMembershipId() {}
+
+    public TeamMembershipId(Integer teamId, Integer userId) {
+        this.teamId = teamId;
+        this.userId = userId;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters
+
+    public Integer getTeamId() {
+        return teamId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TeamMembershipId that = (TeamMembershipId) o;
+        return Objects.equals(teamId, that.teamId) && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(teamId, userId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.teamtasker.entity;
+
+public enum TeamRole {
+    OWNER,    // Team owner - one per team, always has management rights
+    MANAGER,    // Team manager - CRUD permission for this team
+    MEMBER;    // Regular team member
+
+    public boolean hasManagementRights() {
+        return this != MEMBER;
+    }
+}
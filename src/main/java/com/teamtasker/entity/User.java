@@ -9,6 +9,7 @@ import jakarta.validation.constraints.Size;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
@@ -54,15 +55,10 @@ public class User {
     @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
     private Set<Team> ownedTeams = new HashSet<>();
 
-    // Teams where this user is a manager
+    // Teams this user belongs to, with their role in each (managed teams are the non-MEMBER roles)
     @JsonIgnore
-    @ManyToMany(mappedBy = "managers", fetch = FetchType.LAZY)
-    private Set<Team> managedTeams = new HashSet<>();
-
-    // Teams where this user is a member (including managed teams)
-    @JsonIgnore
-    @ManyToMany(mappedBy = "members", fetch = FetchType.LAZY)
-    private Set<Team> memberTeams = new HashSet<>();
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
+    private Set<TeamMembership> memberships = new HashSet<>();
 
     //------------------------------------------------------------------------------------------------------------------
 
@@ -93,11 +89,12 @@ public class User {
     }
 
     public boolean isManagerOf(Team team) {
-        return managedTeams.contains(team);
+        return memberships.stream().anyMatch(membership -> membership.getTeam().equals(team)
+                && membership.getRole().hasManagementRights());
     }
 
     public boolean isMemberOf(Team team) {
-        return memberTeams.contains(team);
+        return memberships.stream().anyMatch(membership -> membership.getTeam().equals(team));
     }
 
     public boolean hasManagementRightsFor(Team team) {
@@ -175,33 +172,56 @@ public class User {
         this.ownedTeams = ownedTeams;
     }
 
+    public Set<TeamMembership> getMemberships() {
+        return memberships;
+    }
+
     public Set<Team> getManagedTeams() {
-        return managedTeams;
+        return memberships.stream()
+                .filter(membership -> membership.getRole().hasManagementRights())
+                .map(TeamMembership::getTeam)
+                .collect(Collectors.toSet());
     }
 
+    // writes through to the managers of each team, the owning side; an owner keeps the OWNER role in their teams
     public void setManagedTeams(Set<Team> managedTeams) {
-        this.managedTeams = managedTeams;
+        getManagedTeams().stream()
+                .filter(team -> !managedTeams.contains(team) && !team.isOwner(this))
+                .forEach(team -> team.getManagers().remove(this));
+        managedTeams.forEach(team -> team.getManagers().add(this));
+        managedTeams.forEach(this::linkMembership);
     }
 
     public Set<Team> getMemberTeams() {
-        return memberTeams;
+        return memberships.stream().map(TeamMembership::getTeam).collect(Collectors.toSet());
     }
 
+    // writes through to the members of each team, the owning side; an owner stays a member of their teams
     public void setMemberTeams(Set<Team> memberTeams) {
-        this.memberTeams = memberTeams;
+        getMemberTeams().stream()
+                .filter(team -> !memberTeams.contains(team) && !team.isOwner(this))
+                .forEach(team -> team.getMembers().remove(this));
+        memberships.removeIf(membership -> !membership.getTeam().isMember(this));
+        memberTeams.forEach(team -> team.getMembers().add(this));
+        memberTeams.forEach(this::linkMembership);
     }
 
     public Set<Team> getTeamsWithManagementRights() {
         Set<Team> managementTeams = new HashSet<>(ownedTeams);
-        managementTeams.addAll(managedTeams);
+        managementTeams.addAll(getManagedTeams());
         return managementTeams;
     }
 
     public Set<Team> getRegularMemberTeams() {
-        Set<Team> regularTeams = new HashSet<>(memberTeams);
-        regularTeams.removeAll(ownedTeams);
-        regularTeams.removeAll(managedTeams);
-        return regularTeams;
+        return memberships.stream()
+                .filter(membership -> membership.getRole() == TeamRole.MEMBER)
+                .map(TeamMembership::getTeam)
+                .collect(Collectors.toSet());
+    }
+
+    // mirrors a membership the team side just created, so the getters above see it without a reload
+    private void linkMembership(Team team) {
+        memberships.add(team.getMemberships().get(this));
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -209,9 +229,8 @@ public class User {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        User user = (User) o;
-        return Objects.equals(id, user.id) && Objects.equals(username, user.username);
+        if (!(o instanceof User user)) return false;
+        return Objects.equals(id, user.getId()) && Objects.equals(username, user.getUsername());
     }
 
     @Override
@@ -0,0 +1,51 @@
+package com.teamtasker.event;
+
+import com.teamtasker.entity.TeamRole;
+
+import java.time.Instant;
+
+// Published by TeamService inside the mutating transaction and handed to subscribers only after it commits
+// (TeamEventDispatcher). Ids only - entities are detached by the time subscribers run.
+public sealed interface TeamEvent {
+
+    Integer teamId();
+
+    // user who made the change
+    Integer actorId();
+
+    Instant occurredAt();
+
+    record TeamCreated(Integer teamId, String name, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record TeamUpdated(Integer teamId, String name, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record TeamDeleted(Integer teamId, String name, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record TeamDeactivated(Integer teamId, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record TeamReactivated(Integer teamId, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record MemberAdded(Integer teamId, Integer userId, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    // role the user had on the team - managers can be removed too
+    record MemberRemoved(Integer teamId, Integer userId, TeamRole role, Integer actorId, Instant occurredAt)
+            implements TeamEvent {
+    }
+
+    record ManagerPromoted(Integer teamId, Integer userId, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    record ManagerDemoted(Integer teamId, Integer userId, Integer actorId, Instant occurredAt) implements TeamEvent {
+    }
+
+    // the previous owner stays on the team as a manager
+    record OwnershipTransferred(Integer teamId, Integer previousOwnerId, Integer newOwnerId, Integer actorId,
+                                Instant occurredAt) implements TeamEvent {
+    }
+}
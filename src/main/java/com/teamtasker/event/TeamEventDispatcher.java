@@ -0,0 +1,130 @@
+package com.teamtasker.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Fans committed TeamEvents out to the subscribers off the request thread. Every subscriber has a bounded queue drained
+// in batches by its own thread; when a queue is full the event is dropped for that subscriber (and counted) instead of
+// blocking the committing request.
+@Component
+public class TeamEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamEventDispatcher.class);
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    @Autowired
+    public TeamEventDispatcher(ObjectProvider<TeamEventSubscriber> subscribers, MeterRegistry meterRegistry,
+                               @Value("${teamtasker.events.queue-capacity:10000}") int queueCapacity,
+                               @Value("${teamtasker.events.batch-size:256}") int batchSize) {
+        subscribers.orderedStream().forEach(subscriber -> lanes.add(
+                new Lane(subscriber, queueCapacity, batchSize, meterRegistry)));
+        lanes.forEach(Lane::start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTeamEvent(TeamEvent event) {
+        for (Lane lane : lanes) {
+            lane.offer(event);
+        }
+    }
+
+    // delivers what is already queued, then stops the lane threads
+    @PreDestroy
+    public void close() {
+        lanes.forEach(Lane::close);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Lane - one queue + thread per subscriber
+
+    private static final class Lane implements Runnable {
+
+        private final TeamEventSubscriber subscriber;
+        private final BlockingQueue<TeamEvent> queue;
+        private final int batchSize;
+        private final Counter dropped;
+        private final Counter failed;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        Lane(TeamEventSubscriber subscriber, int queueCapacity, int batchSize, MeterRegistry meterRegistry) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.batchSize = batchSize;
+            this.dropped = Counter.builder("teamtasker.events.dropped")
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+            this.failed = Counter.builder("teamtasker.events.failed")
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+            Gauge.builder("teamtasker.events.queued", queue, BlockingQueue::size)
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+            this.thread = Thread.ofPlatform().daemon().name("team-events-" + subscriber.name()).unstarted(this);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void offer(TeamEvent event) {
+            if (!queue.offer(event)) {
+                dropped.increment();
+                log.warn("Event queue for {} is full, dropped {}", subscriber.name(), event);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<TeamEvent> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    TeamEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    subscriber.onEvents(List.copyOf(batch));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    failed.increment(batch.size());
+                    log.error("Subscriber {} failed on a batch of {} events", subscriber.name(), batch.size(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        void close() {
+            running = false;
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.teamtasker.event;
+
+import java.util.List;
+
+// Implemented by beans that react to committed team changes. Each subscriber gets its own queue and thread, so a slow
+// one only delays itself; batches keep the order events were committed in.
+public interface TeamEventSubscriber {
+
+    void onEvents(List<TeamEvent> events);
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,30 @@
+package com.teamtasker.event;
+
+import com.teamtasker.entity.Role;
+
+import java.time.Instant;
+
+// Changes to user accounts, published by UserService like TeamEvent. actorId is null when no user is logged in
+// (e.g. startup seeding).
+public sealed interface UserEvent {
+
+    Integer userId();
+
+    Integer actorId();
+
+    Instant occurredAt();
+
+    record UserRegistered(Integer userId, Role role, Integer actorId, Instant occurredAt) implements UserEvent {
+    }
+
+    record UserRoleChanged(Integer userId, Role previousRole, Role newRole, Integer actorId, Instant occurredAt)
+            implements UserEvent {
+    }
+
+    // name / email edits - team pages show member names, so these invalidate them
+    record UserProfileUpdated(Integer userId, Integer actorId, Instant occurredAt) implements UserEvent {
+    }
+
+    record UserDeleted(Integer userId, String username, Integer actorId, Instant occurredAt) implements UserEvent {
+    }
+}
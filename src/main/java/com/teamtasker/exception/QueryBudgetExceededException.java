@@ -0,0 +1,21 @@
+package com.teamtasker.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private final int budget;
+    private final int statements;
+
+    public QueryBudgetExceededException(String handler, int budget, int statements) {
+        super("Query budget exceeded. Handler: " + handler + "; Budget: " + budget + "; Statements: " + statements);
+        this.budget = budget;
+        this.statements = statements;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+}
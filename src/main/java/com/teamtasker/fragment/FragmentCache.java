@@ -0,0 +1,80 @@
+package com.teamtasker.fragment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// LRU of rendered markup bounded by total characters rather than entry count - one roster of a 5000 member team
+// weighs as much as hundreds of small ones. Keys carry the version of what they render, so entries are never
+// invalidated, only superseded and aged out. Rendering happens outside the lock; two threads missing on the same key
+// at once both render and the second put wins, which is harmless for identical markup.
+public class FragmentCache {
+
+    private final long maxChars;
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long chars;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FragmentCache(long maxChars, MeterRegistry meterRegistry) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+        }
+        this.maxChars = maxChars;
+        FunctionCounter.builder("teamtasker.fragments.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("teamtasker.fragments.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("teamtasker.fragments.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("teamtasker.fragments.chars", this, FragmentCache::chars).register(meterRegistry);
+    }
+
+    public String get(String key, Supplier<String> renderer) {
+        synchronized (this) {
+            String markup = entries.get(key);
+            if (markup != null) {
+                hits.increment();
+                return markup;
+            }
+        }
+        misses.increment();
+        String markup = renderer.get();
+        put(key, markup);
+        return markup;
+    }
+
+    public synchronized long chars() {
+        return chars;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    // a fragment larger than the whole budget is returned to the caller but never stored
+    private synchronized void put(String key, String markup) {
+        if (markup.length() > maxChars) {
+            return;
+        }
+        String previous = entries.put(key, markup);
+        chars += markup.length() - (previous != null ? previous.length() : 0);
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (chars > maxChars) {
+            Map.Entry<String, String> entry = eldest.next();
+            chars -= entry.getValue().length();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+}
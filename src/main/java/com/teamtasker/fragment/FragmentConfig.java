@@ -0,0 +1,17 @@
+package com.teamtasker.fragment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FragmentConfig {
+
+    // 8M chars is ~16 MB of heap, a few thousand large rosters
+    @Bean
+    public FragmentCache fragmentCache(@Value("${teamtasker.fragments.max-chars:8000000}") long maxChars,
+                                       MeterRegistry meterRegistry) {
+        return new FragmentCache(maxChars, meterRegistry);
+    }
+}
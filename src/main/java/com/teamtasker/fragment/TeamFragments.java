@@ -0,0 +1,102 @@
+package com.teamtasker.fragment;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.TeamMembership;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Pre-rendered, viewer-independent pieces of the team pages (templates/teams/fragments.html), cached by team id and
+// version. Teams handed in must have what the fragment reads initialised: owner for cards, roster for summary/roster.
+@Component
+public class TeamFragments {
+
+    static final String TEMPLATE = "teams/fragments";
+
+    private static final Comparator<TeamMembership> ROSTER_ORDER = Comparator
+            .comparing(TeamMembership::getRole)
+            .thenComparing(membership -> membership.getUser().getUsername());
+
+    private final ITemplateEngine templateEngine;
+    private final FragmentCache cache;
+    private final String basePath;
+    private final boolean enabled;
+
+    @Autowired
+    public TeamFragments(ITemplateEngine templateEngine, FragmentCache cache,
+                         @Value("${server.servlet.context-path:}") String basePath,
+                         @Value("${teamtasker.fragments.enabled:true}") boolean enabled) {
+        this.templateEngine = templateEngine;
+        this.cache = cache;
+        this.basePath = basePath;
+        this.enabled = enabled;
+    }
+
+    public String summary(Team team) {
+        return cached("summary", team, () -> renderSummary(team));
+    }
+
+    public String roster(Team team) {
+        return cached("roster", team, () -> renderRoster(team));
+    }
+
+    // keyed by team id, in the order of the given teams
+    public Map<Integer, String> cards(Iterable<Team> teams) {
+        Map<Integer, String> cards = new LinkedHashMap<>();
+        for (Team team : teams) {
+            cards.put(team.getId(), cached("card", team, () -> renderCard(team)));
+        }
+        return cards;
+    }
+
+    // All three fragments past the cache, for the startup warm-up - a cache hit would leave the template engine cold.
+    // Returns the number of characters rendered.
+    public int renderUncached(Team team) {
+        return renderSummary(team).length() + renderRoster(team).length() + renderCard(team).length();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private String cached(String fragment, Team team, Supplier<String> renderer) {
+        if (!enabled) {
+            return renderer.get();
+        }
+        return cache.get(fragment + ":" + team.getId() + ":" + team.getVersion(), renderer);
+    }
+
+    private String renderSummary(Team team) {
+        List<TeamMembership> roster = roster(team.getMemberships().values());
+        long managerCount = roster.stream()
+                .filter(membership -> membership.getRole().hasManagementRights())
+                .count();
+        return render("summary", Map.of("team", team, "memberCount", roster.size(), "managerCount", managerCount));
+    }
+
+    private String renderRoster(Team team) {
+        return render("roster", Map.of("roster", roster(team.getMemberships().values())));
+    }
+
+    private String renderCard(Team team) {
+        return render("card", Map.of("team", team, "basePath", basePath));
+    }
+
+    private String render(String fragment, Map<String, Object> variables) {
+        return templateEngine.process(TEMPLATE, Set.of(fragment), new Context(Locale.ROOT, variables));
+    }
+
+    private static List<TeamMembership> roster(Collection<TeamMembership> memberships) {
+        return memberships.stream().sorted(ROSTER_ORDER).toList();
+    }
+}
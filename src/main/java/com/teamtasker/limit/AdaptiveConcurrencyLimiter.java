@@ -0,0 +1,80 @@
+package com.teamtasker.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admits a request while fewer than its priority's share of the current limit are in flight, otherwise refuses it
+// right away - nothing queues here, the queue this protects is the one in front of the connection pool. Every
+// completed request feeds its latency back into the limit.
+public class AdaptiveConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getTolerance(), properties.getSmoothing(),
+                properties.getLongWindow());
+        shares.put(Priority.CACHED_READ, 1.0);
+        shares.put(Priority.STANDARD, properties.getStandardShare());
+        shares.put(Priority.EXPENSIVE, properties.getExpensiveShare());
+
+        Gauge.builder("teamtasker.concurrency.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive limit on concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("teamtasker.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("teamtasker.concurrency.rejected")
+                    .description("Requests refused with 503 by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    // null when the request has to be shed
+    public Permit tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit.getLimit() * shares.get(priority)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public final class Permit {
+
+        private final int inflightAtStart;
+        private final long startNanos = System.nanoTime();
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        public void release() {
+            inflight.decrementAndGet();
+            limit.update(System.nanoTime() - startNanos, inflightAtStart);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.teamtasker.limit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// In front of TeamController and AuthController, ahead of Spring Security so a shed request costs neither a session
+// lookup nor a query. Refused requests get a plain 503 with Retry-After, no view rendering.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern TEAM_PAGE = Pattern.compile("/teams/\\d+");
+    private static final Pattern TEAM_EVENTS = Pattern.compile("/teams/\\d+/events");
+    private static final Pattern MEMBER_PICKER = Pattern.compile("/teams/\\d+/member/add");
+    private static final Pattern BULK_ADD = Pattern.compile("/teams/\\d+/members/add");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority(request));
+        if (permit == null) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many requests in progress, please retry shortly");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+
+    // live update streams hold no connection while open and would pin a permit for their whole lifetime
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return TEAM_EVENTS.matcher(path(request)).matches();
+    }
+
+    static Priority priority(HttpServletRequest request) {
+        String path = path(request);
+        boolean get = "GET".equals(request.getMethod());
+        if (MEMBER_PICKER.matcher(path).matches() || BULK_ADD.matcher(path).matches()) {
+            return Priority.EXPENSIVE;
+        }
+        if (get && (path.equals("/teams") || path.equals("/auth/login") || TEAM_PAGE.matcher(path).matches())) {
+            return Priority.CACHED_READ;
+        }
+        return Priority.STANDARD;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
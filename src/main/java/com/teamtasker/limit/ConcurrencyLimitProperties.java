@@ -0,0 +1,112 @@
+package com.teamtasker.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    // Bounds of the adaptive limit on concurrent requests to /teams/** and /auth/**
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+
+    // Recent latency may be this much over the long-term average before the limit starts to shrink
+    private double tolerance = 1.5;
+    // Weight of each new limit estimate, and how many requests the long-term latency average spans
+    private double smoothing = 0.2;
+    private int longWindow = 600;
+
+    // Share of the limit each priority may fill: searches and bulk adds are shed first, cached pages last
+    private double standardShare = 0.9;
+    private double expensiveShare = 0.5;
+
+    // Sent with the 503 as Retry-After
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    public double getStandardShare() {
+        return standardShare;
+    }
+
+    public void setStandardShare(double standardShare) {
+        this.standardShare = standardShare;
+    }
+
+    public double getExpensiveShare() {
+        return expensiveShare;
+    }
+
+    public void setExpensiveShare(double expensiveShare) {
+        this.expensiveShare = expensiveShare;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.teamtasker.limit;
+
+// Gradient concurrency limit, after Netflix concurrency-limits' Gradient2. The limit follows the ratio between the
+// long-term and the recent request latency: while requests are about as fast as usual it grows by a queue allowance
+// of sqrt(limit), once they slow down - waiting for JDBC connections - it shrinks in proportion, at most halving per
+// estimate. No fixed latency target, so it adapts to whatever the pool and the database can do right now.
+class GradientLimit {
+
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    private long samples;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    // one completed request: its latency and how many requests were in flight when it was admitted
+    synchronized int update(long rttNanos, int inflight) {
+        samples++;
+        shortRtt = average(shortRtt, rttNanos, SHORT_WINDOW);
+        longRtt = average(longRtt, rttNanos, longWindow);
+
+        // after a long overload the long-term average has crept up with it - pull it back towards the recent
+        // latency so the recovery is not mistaken for headroom
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // too little load to learn anything about the limit from this request
+        if (inflight < limit / 2) {
+            return getLimit();
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimate * smoothing));
+        return getLimit();
+    }
+
+    // plain mean until the window is full, exponential moving average after
+    private double average(double current, long sample, int window) {
+        double weight = samples < window ? 1.0 / samples : 2.0 / (window + 1);
+        return current + (sample - current) * weight;
+    }
+}
@@ -0,0 +1,15 @@
+package com.teamtasker.limit;
+
+// What a request costs the database, cheapest first. Cheaper requests may fill more of the concurrency limit, so
+// under overload the expensive ones are shed first and cached pages keep being served longest.
+public enum Priority {
+
+    // team listing and team view - fragment cache, 304 on revalidation - and the login page
+    CACHED_READ,
+
+    // forms, my-teams, the single-row writes, logins
+    STANDARD,
+
+    // the member picker (anti-join, LIKE search) and bulk member adds (one transaction per username)
+    EXPENSIVE
+}
@@ -0,0 +1,412 @@
+package com.teamtasker.membership;
+
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.MembershipIndexRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// The membership graph as compressed bitmaps of ids: per team the users on it and the users with management rights
+// (owner and managers), per user the teams they are on, and every user id. Set questions - teams two users share,
+// members of one team but not another, users not in a team - become bitmap intersections, unions and differences in
+// memory instead of entity sets or anti-joins.
+//
+// Loaded at startup (and every rebuild-interval) in one snapshot, then kept current from committed team and user
+// events. Bitmaps are copy-on-write: a change replaces the affected bitmap under the lock, a published bitmap is
+// never modified again, so queries read without locking. Until the first load has finished isReady() is false and
+// callers use their SQL path.
+public class MembershipIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MembershipIndex.class);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    private static final int SMALL_RATIO = 64;
+
+    private final MembershipIndexRepository membershipIndexRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MembershipIndexProperties properties;
+    private final Timer rebuilds;
+    private final Object rebuildLock = new Object();
+
+    private volatile Graph graph = new Graph(new RoaringBitmap(), Map.of(), Map.of(), Map.of());
+    private volatile boolean ready;
+    private volatile long sizeInBytes;
+    // events committed while a rebuild is loading, replayed onto the loaded graph; guarded by this
+    private List<Object> pending;
+    private ScheduledExecutorService rebuilder;
+
+    public MembershipIndex(MembershipIndexRepository membershipIndexRepository,
+                           PlatformTransactionManager transactionManager, MembershipIndexProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.membershipIndexRepository = membershipIndexRepository;
+        // Both reads see the same snapshot. Not read-only on purpose: that would route the load to a replica, which
+        // can be behind the events replayed on top of it.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.properties = properties;
+        this.rebuilds = Timer.builder("teamtasker.membership.index.rebuild")
+                .description("Full loads of the membership index from the database")
+                .register(meterRegistry);
+        Gauge.builder("teamtasker.membership.index.size", this, index -> index.sizeInBytes)
+                .description("Serialized size of the membership bitmaps at the last rebuild")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "membership-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRebuildInterval().toMillis();
+        if (interval > 0) {
+            rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            rebuilder.execute(this::rebuildQuietly);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Membership index rebuild failed, {}",
+                    ready ? "keeping the current one" : "queries stay on SQL", e);
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Graph loaded;
+            try {
+                loaded = transactionTemplate.execute(status -> load());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // set operations are absolute (add, remove, drop), so replaying events the snapshot already
+                // contains changes nothing
+                pending.forEach(event -> apply(loaded, event));
+                pending = null;
+                graph = loaded;
+                ready = true;
+            }
+            sizeInBytes = loaded.sizeInBytes();
+            long nanos = System.nanoTime() - start;
+            rebuilds.record(nanos, TimeUnit.NANOSECONDS);
+            log.info("Membership index loaded: {} users, {} teams, {} KB in {} ms", loaded.users.getCardinality(),
+                    loaded.members.size(), sizeInBytes / 1024, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    private Graph load() {
+        RoaringBitmap users = new RoaringBitmap();
+        Map<Integer, RoaringBitmap> members = new HashMap<>();
+        Map<Integer, RoaringBitmap> managers = new HashMap<>();
+        Map<Integer, RoaringBitmap> teams = new HashMap<>();
+        membershipIndexRepository.forEachUser(users::add);
+        membershipIndexRepository.forEachMembership((teamId, userId, role) -> {
+            members.computeIfAbsent(teamId, id -> new RoaringBitmap()).add(userId);
+            if (role != TeamRole.MEMBER) {
+                managers.computeIfAbsent(teamId, id -> new RoaringBitmap()).add(userId);
+            }
+            teams.computeIfAbsent(userId, id -> new RoaringBitmap()).add(teamId);
+        });
+        return new Graph(compact(users), compact(members), compact(managers), compact(teams));
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Queries - every returned bitmap is a new one the caller may modify
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isMember(int teamId, int userId) {
+        return get(graph.members, teamId).contains(userId);
+    }
+
+    public boolean isManager(int teamId, int userId) {
+        return get(graph.managers, teamId).contains(userId);
+    }
+
+    public RoaringBitmap members(int teamId) {
+        return get(graph.members, teamId).clone();
+    }
+
+    public RoaringBitmap managers(int teamId) {
+        return get(graph.managers, teamId).clone();
+    }
+
+    public RoaringBitmap teamsOf(int userId) {
+        return get(graph.teams, userId).clone();
+    }
+
+    // teams both users are on
+    public RoaringBitmap sharedTeams(int userId, int otherUserId) {
+        Graph current = graph;
+        return RoaringBitmap.and(get(current.teams, userId), get(current.teams, otherUserId));
+    }
+
+    // users on every one of the teams
+    public RoaringBitmap membersOfAll(int... teamIds) {
+        return FastAggregation.and(bitmaps(graph.members, teamIds));
+    }
+
+    // users on at least one of the teams. Rosters are small and sparse: or-ing them in place one by one keeps them
+    // as sorted id arrays, and measured several times faster than FastAggregation.or / naive_or on them.
+    public RoaringBitmap membersOfAny(int... teamIds) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (RoaringBitmap members : bitmaps(graph.members, teamIds)) {
+            union.or(members);
+        }
+        return union;
+    }
+
+    // users on the first team but not on the second
+    public RoaringBitmap membersNotIn(int teamId, int otherTeamId) {
+        Graph current = graph;
+        RoaringBitmap team = get(current.members, teamId);
+        RoaringBitmap other = get(current.members, otherTeamId);
+        if ((long) team.getCardinality() * SMALL_RATIO >= other.getCardinality()) {
+            return RoaringBitmap.andNot(team, other);
+        }
+        // a roster much smaller than the other one: probing each member beats merging the other's id arrays
+        RoaringBitmap result = new RoaringBitmap();
+        team.forEach((int userId) -> {
+            if (!other.contains(userId)) {
+                result.add(userId);
+            }
+        });
+        return result;
+    }
+
+    // every user who could still be added to the team
+    public RoaringBitmap usersNotInTeam(int teamId) {
+        Graph current = graph;
+        return RoaringBitmap.andNot(current.users, get(current.members, teamId));
+    }
+
+    public long countUsersNotInTeam(int teamId) {
+        Graph current = graph;
+        return RoaringBitmap.andNotCardinality(current.users, get(current.members, teamId));
+    }
+
+    // Users not in the team in id order, from position offset, at most limit of them. Walks the user ids skipping
+    // members rather than building the difference, so the first pages - what the member picker asks for - cost a
+    // few lookups however many users there are.
+    public int[] usersNotInTeam(int teamId, long offset, int limit) {
+        Graph current = graph;
+        RoaringBitmap members = get(current.members, teamId);
+        int[] page = new int[Math.max(limit, 0)];
+        int size = 0;
+        long skipped = 0;
+        IntIterator users = current.users.getIntIterator();
+        while (size < page.length && users.hasNext()) {
+            int userId = users.next();
+            if (members.contains(userId)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page[size++] = userId;
+            }
+        }
+        return size == page.length ? page : Arrays.copyOf(page, size);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Event listeners
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTeamEvent(TeamEvent event) {
+        update(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserEvent(UserEvent event) {
+        update(event);
+    }
+
+    private void update(Object event) {
+        if (pending != null) {
+            pending.add(event);
+        }
+        apply(graph, event);
+    }
+
+    private static void apply(Graph graph, Object event) {
+        switch (event) {
+            // TeamService publishes the owner as the actor of a new team
+            case TeamEvent.TeamCreated created -> {
+                graph.join(created.teamId(), created.actorId());
+                add(graph.managers, created.teamId(), created.actorId());
+            }
+            case TeamEvent.TeamDeleted deleted -> graph.dropTeam(deleted.teamId());
+            case TeamEvent.MemberAdded added -> graph.join(added.teamId(), added.userId());
+            case TeamEvent.MemberRemoved removed -> graph.leave(removed.teamId(), removed.userId());
+            case TeamEvent.ManagerPromoted promoted -> add(graph.managers, promoted.teamId(), promoted.userId());
+            case TeamEvent.ManagerDemoted demoted -> remove(graph.managers, demoted.teamId(), demoted.userId());
+            // the previous owner stays a manager
+            case TeamEvent.OwnershipTransferred transferred ->
+                    add(graph.managers, transferred.teamId(), transferred.newOwnerId());
+            case UserEvent.UserRegistered registered -> graph.users = with(graph.users, registered.userId());
+            case UserEvent.UserDeleted deleted -> graph.dropUser(deleted.userId());
+            default -> {
+                // renames, (de)activation, role and profile changes leave the graph as it is
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    private static RoaringBitmap get(Map<Integer, RoaringBitmap> bitmaps, int key) {
+        return bitmaps.getOrDefault(key, EMPTY);
+    }
+
+    private static RoaringBitmap[] bitmaps(Map<Integer, RoaringBitmap> bitmaps, int[] keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one team is required");
+        }
+        return Arrays.stream(keys).mapToObj(key -> get(bitmaps, key)).toArray(RoaringBitmap[]::new);
+    }
+
+    private static void add(Map<Integer, RoaringBitmap> bitmaps, int key, int value) {
+        bitmaps.compute(key, (k, current) -> current == null ? RoaringBitmap.bitmapOf(value) : with(current, value));
+    }
+
+    private static void remove(Map<Integer, RoaringBitmap> bitmaps, int key, int value) {
+        bitmaps.computeIfPresent(key, (k, current) -> {
+            if (!current.contains(value)) {
+                return current;
+            }
+            RoaringBitmap copy = current.clone();
+            copy.remove(value);
+            return copy.isEmpty() ? null : copy;
+        });
+    }
+
+    private static RoaringBitmap with(RoaringBitmap bitmap, int value) {
+        if (bitmap.contains(value)) {
+            return bitmap;
+        }
+        RoaringBitmap copy = bitmap.clone();
+        copy.add(value);
+        return copy;
+    }
+
+    private static RoaringBitmap compact(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        bitmap.trim();
+        return bitmap;
+    }
+
+    private static Map<Integer, RoaringBitmap> compact(Map<Integer, RoaringBitmap> bitmaps) {
+        bitmaps.values().forEach(MembershipIndex::compact);
+        return bitmaps;
+    }
+
+    @Override
+    public void close() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    // team -> users on it, team -> owner and managers, user -> teams; changed only under the index lock
+    private static final class Graph {
+
+        private volatile RoaringBitmap users;
+        private final Map<Integer, RoaringBitmap> members;
+        private final Map<Integer, RoaringBitmap> managers;
+        private final Map<Integer, RoaringBitmap> teams;
+
+        private Graph(RoaringBitmap users, Map<Integer, RoaringBitmap> members, Map<Integer, RoaringBitmap> managers,
+                      Map<Integer, RoaringBitmap> teams) {
+            this.users = users;
+            this.members = new ConcurrentHashMap<>(members);
+            this.managers = new ConcurrentHashMap<>(managers);
+            this.teams = new ConcurrentHashMap<>(teams);
+        }
+
+        private void join(int teamId, int userId) {
+            add(members, teamId, userId);
+            add(teams, userId, teamId);
+        }
+
+        private void leave(int teamId, int userId) {
+            remove(members, teamId, userId);
+            remove(managers, teamId, userId);
+            remove(teams, userId, teamId);
+        }
+
+        private void dropTeam(int teamId) {
+            RoaringBitmap roster = members.remove(teamId);
+            managers.remove(teamId);
+            if (roster != null) {
+                roster.forEach((int userId) -> remove(teams, userId, teamId));
+            }
+        }
+
+        // memberships go with the user (ON DELETE CASCADE); owners cannot be deleted while they own a team
+        private void dropUser(int userId) {
+            RoaringBitmap userTeams = teams.remove(userId);
+            if (userTeams != null) {
+                userTeams.forEach((int teamId) -> {
+                    remove(members, teamId, userId);
+                    remove(managers, teamId, userId);
+                });
+            }
+            RoaringBitmap remaining = users.clone();
+            remaining.remove(userId);
+            users = remaining;
+        }
+
+        private long sizeInBytes() {
+            long size = users.getLongSizeInBytes();
+            for (Map<Integer, RoaringBitmap> bitmaps : List.of(members, managers, teams)) {
+                for (RoaringBitmap bitmap : bitmaps.values()) {
+                    size += bitmap.getLongSizeInBytes();
+                }
+            }
+            return size;
+        }
+    }
+}
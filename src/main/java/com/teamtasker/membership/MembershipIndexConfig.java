@@ -0,0 +1,22 @@
+package com.teamtasker.membership;
+
+import com.teamtasker.repository.MembershipIndexRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// Always registered - TeamService asks it for isReady() - but with teamtasker.membership-index.enabled=false it never
+// loads, so everything stays on SQL.
+@Configuration
+@EnableConfigurationProperties(MembershipIndexProperties.class)
+public class MembershipIndexConfig {
+
+    @Bean(destroyMethod = "close")
+    public MembershipIndex membershipIndex(MembershipIndexRepository membershipIndexRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           MembershipIndexProperties properties, MeterRegistry meterRegistry) {
+        return new MembershipIndex(membershipIndexRepository, transactionManager, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.teamtasker.membership;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.membership-index")
+public class MembershipIndexProperties {
+
+    // Off: the index is never loaded and every membership query goes to the database
+    private boolean enabled = true;
+
+    // Full reload from the database on top of the event updates - picks up changes made by other instances or
+    // directly in SQL. 0 loads once at startup only.
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,45 @@
+package com.teamtasker.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeQueryHeaders;
+    private final boolean enforceQueryBudgets;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${teamtasker.query-budget.headers:false}") boolean exposeQueryHeaders,
+                         @Value("${teamtasker.query-budget.enforce:false}") boolean enforceQueryBudgets) {
+        this.meterRegistry = meterRegistry;
+        this.exposeQueryHeaders = exposeQueryHeaders;
+        this.enforceQueryBudgets = enforceQueryBudgets;
+    }
+
+    // wraps the DataSource the application uses - Boot's pool, or the replica routing proxy - and only that one, so
+    // a statement is never counted twice
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new QueryStatsDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(meterRegistry, exposeQueryHeaders, enforceQueryBudgets));
+    }
+}
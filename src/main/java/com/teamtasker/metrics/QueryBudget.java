@@ -0,0 +1,13 @@
+package com.teamtasker.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum SQL statements a controller handler may issue per request, checked by QueryBudgetInterceptor
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int max();
+}
@@ -0,0 +1,87 @@
+package com.teamtasker.metrics;
+
+import com.teamtasker.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+// Counts SQL statements and DB time per request. With open-in-view off every query has run by postHandle, so the
+// numbers are final before the view renders and can still go out as headers / fail the request.
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeaders;
+    private final boolean enforce;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry, boolean exposeHeaders, boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeaders = exposeHeaders;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats.begin();
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        QueryStats stats = QueryStats.current();
+        if (exposeHeaders) {
+            response.setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+            response.setHeader(QUERY_TIME_HEADER, String.format("%.2f", stats.getMillis()));
+        }
+
+        if (handler instanceof HandlerMethod handlerMethod) {
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (budget != null && stats.getStatements() > budget.max()) {
+                String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+                if (enforce) {
+                    throw new QueryBudgetExceededException(name, budget.max(), stats.getStatements());
+                }
+                log.warn("{} issued {} SQL statements (budget {}) in {} ms",
+                        name, stats.getStatements(), budget.max(), String.format("%.2f", stats.getMillis()));
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        QueryStats stats = QueryStats.current();
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = route != null ? route.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("teamtasker.http.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("teamtasker.http.sql.time")
+                .description("JDBC execution time per HTTP request")
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        log.debug("{} {} -> {} SQL statements in {} ms", request.getMethod(), uri, stats.getStatements(),
+                String.format("%.2f", stats.getMillis()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.teamtasker.metrics;
+
+// SQL statements and JDBC time accumulated on the current thread since the last begin().
+// Filled by QueryStatsDataSource, reset and read per request by QueryBudgetInterceptor.
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private int statements;
+    private long nanos;
+
+    private QueryStats() {}
+
+    public static QueryStats begin() {
+        QueryStats stats = CURRENT.get();
+        stats.statements = 0;
+        stats.nanos = 0;
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
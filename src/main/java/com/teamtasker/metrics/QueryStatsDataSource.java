@@ -0,0 +1,75 @@
+package com.teamtasker.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wraps the application's DataSource so every statement executed on its connections lands in QueryStats - JPA
+// queries and JdbcTemplate lookups (team versions, statistics, search) alike, since budgets are about round trips to
+// the database, not about which API issued them.
+public class QueryStatsDataSource extends DelegatingDataSource {
+
+    public QueryStatsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), QueryStatsDataSource::connectionCall);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), QueryStatsDataSource::connectionCall);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private static Object connectionCall(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (result instanceof Statement
+                && (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))) {
+            return proxy(method.getReturnType(), result, QueryStatsDataSource::statementCall);
+        }
+        return result;
+    }
+
+    private static Object statementCall(Object target, Method method, Object[] args) throws Throwable {
+        if (!method.getName().startsWith("execute")) {
+            return invoke(target, method, args);
+        }
+        long start = System.nanoTime();
+        try {
+            return invoke(target, method, args);
+        } finally {
+            QueryStats.current().record(System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> call.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(QueryStatsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
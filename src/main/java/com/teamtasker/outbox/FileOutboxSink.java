@@ -0,0 +1,57 @@
+package com.teamtasker.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.teamtasker.entity.OutboxEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Appends one JSON line per message; the batch is flushed before the relay deletes its rows
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void send(List<OutboxEvent> events) throws IOException {
+        for (OutboxEvent event : events) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", event.getId());
+            line.put("aggregateType", event.getAggregateType());
+            line.put("aggregateId", event.getAggregateId());
+            line.put("eventType", event.getEventType());
+            line.put("createdAt", event.getCreatedAt());
+            line.put("payload", new RawValue(event.getPayload()));
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.teamtasker.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "teamtasker.outbox.sink", havingValue = "file")
+    public FileOutboxSink fileOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileOutboxSink(properties.getFile(), objectMapper);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "teamtasker.outbox.relay", havingValue = "true")
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   PlatformTransactionManager transactionManager, ObjectProvider<OutboxSink> sinks,
+                                   OutboxProperties properties, MeterRegistry meterRegistry) {
+        // relayed rows are deleted, so relaying into nowhere would lose them - refuse to start instead
+        OutboxSink sink = sinks.getIfUnique(() -> {
+            throw new IllegalStateException("teamtasker.outbox.relay=true needs exactly one durable OutboxSink: " +
+                    "set teamtasker.outbox.sink=file or provide an OutboxSink bean");
+        });
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, new TransactionTemplate(transactionManager), sink,
+                properties.getBatchSize(), properties.getSendTimeout(), meterRegistry);
+        relay.start(properties.getPollInterval().toMillis());
+        return relay;
+    }
+}
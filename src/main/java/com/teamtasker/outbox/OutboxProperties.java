@@ -0,0 +1,78 @@
+package com.teamtasker.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.outbox")
+public class OutboxProperties {
+
+    public enum Sink { FILE }
+
+    // Rows are always written. The relay deletes what it hands to the sink, so it is off until a durable sink is
+    // configured - either sink=file or an OutboxSink bean of the application's own (a broker client)
+    private boolean relay = false;
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // A send taking longer is abandoned and the batch rolled back, so a slow sink does not hold a pooled connection
+    // and the batch's row locks
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // FILE appends JSON lines, a stand-in for a broker
+    private Sink sink;
+    private Path file = Path.of(System.getProperty("java.io.tmpdir"), "teamtasker-outbox.jsonl");
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public boolean isRelay() {
+        return relay;
+    }
+
+    public void setRelay(boolean relay) {
+        this.relay = relay;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public Sink getSink() {
+        return sink;
+    }
+
+    public void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+}
@@ -0,0 +1,127 @@
+package com.teamtasker.outbox;
+
+import com.teamtasker.entity.OutboxEvent;
+import com.teamtasker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Moves outbox rows to the sink. Each batch is locked (SKIP LOCKED), sent and deleted in one transaction, so a crash
+// between send and commit re-sends the batch rather than losing it; other relays skip the locked rows meanwhile.
+// The send is bounded by sendTimeout, since the transaction holds a pooled connection and the row locks throughout.
+public class OutboxRelay implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Counter relayed;
+    private final Timer sends;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledExecutorService poller;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                       OutboxSink sink, int batchSize, Duration sendTimeout, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.relayed = Counter.builder("teamtasker.outbox.relayed").register(meterRegistry);
+        this.sends = Timer.builder("teamtasker.outbox.send").register(meterRegistry);
+    }
+
+    public void start(long pollIntervalMillis) {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // relays full batches back to back until the table is (nearly) empty
+    public int drain() {
+        int total = 0;
+        try {
+            int count;
+            do {
+                count = relayBatch();
+                total += count;
+            } while (count == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed after {} messages, retrying next poll", total, e);
+        }
+        return total;
+    }
+
+    public int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            send(batch);
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        relayed.increment(count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        sender.shutdown();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    // Runs the sink on its own thread so it can be given up on. An abandoned send is left to finish rather than
+    // interrupted - an interrupted channel write closes FileOutboxSink's file for good - so a sink that was only slow
+    // may see the batch again next poll, which at-least-once delivery allows.
+    private void send(List<OutboxEvent> batch) {
+        long start = System.nanoTime();
+        Future<?> sent = sender.submit(() -> {
+            sink.send(batch);
+            return null;
+        });
+        try {
+            sent.get(sendTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Outbox sink took longer than " + sendTimeout + " for " + batch.size() +
+                    " messages", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Outbox sink rejected " + batch.size() + " messages", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted sending " + batch.size() + " outbox messages", e);
+        } finally {
+            sends.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
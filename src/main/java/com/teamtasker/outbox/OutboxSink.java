@@ -0,0 +1,11 @@
+package com.teamtasker.outbox;
+
+import com.teamtasker.entity.OutboxEvent;
+
+import java.util.List;
+
+// Where the relay hands messages off. Throwing keeps the batch in the table for the next poll (at-least-once).
+public interface OutboxSink {
+
+    void send(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,38 @@
+package com.teamtasker.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.entity.OutboxEvent;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Runs synchronously inside TeamService's transaction, so the outbox row commits or rolls back with the team change
+@Component
+public class OutboxWriter {
+
+    static final String TEAM_AGGREGATE = "team";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onTeamEvent(TeamEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event, e);
+        }
+        String eventType = event.getClass().getSimpleName();
+        outboxEventRepository.save(new OutboxEvent(TEAM_AGGREGATE, event.teamId(), eventType, payload));
+    }
+}
@@ -0,0 +1,28 @@
+package com.teamtasker.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Service call that allocated more than teamtasker.profiling.allocation-threshold on its own thread - attributes the
+// allocation pressure the JVM's sampled allocation events only show per stack to a service method.
+@Name("com.teamtasker.AllocationHotSpot")
+@Label("Allocation Hot Spot")
+@Category({"TeamTasker", "Service"})
+@Description("Service call allocating more than the configured threshold")
+@StackTrace(false)
+public class AllocationHotSpotEvent extends jdk.jfr.Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,138 @@
+package com.teamtasker.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Owns the JFR recordings: one on-demand recording started / stopped by an admin, and an always-on ring buffer that
+// is dumped when latency breaches the threshold (see LatencyBreachMonitor).
+public class JfrRecorder implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecorder.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ProfilingProperties properties;
+
+    private Recording ringBuffer;
+    private Recording onDemand;
+
+    public JfrRecorder(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized void startRingBuffer() {
+        if (ringBuffer != null) {
+            return;
+        }
+        try {
+            ringBuffer = newRecording("default", "teamtasker-ring-buffer");
+            ringBuffer.setToDisk(true);
+            ringBuffer.setMaxAge(properties.getRingBufferMaxAge());
+            ringBuffer.setMaxSize(properties.getRingBufferMaxSize().toBytes());
+            ringBuffer.start();
+            log.info("JFR ring buffer started (max age {}, max size {})",
+                    properties.getRingBufferMaxAge(), properties.getRingBufferMaxSize());
+        } catch (IOException | ParseException e) {
+            log.warn("Could not start JFR ring buffer", e);
+            ringBuffer = null;
+        }
+    }
+
+    // false when a recording is already running
+    public synchronized boolean start(Duration maxDuration) throws IOException, ParseException {
+        if (isRecording()) {
+            return false;
+        }
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        Duration limit = properties.getMaxRecordingDuration();
+        onDemand = newRecording("profile", "teamtasker-on-demand");
+        onDemand.setDuration(maxDuration != null && maxDuration.compareTo(limit) < 0 ? maxDuration : limit);
+        onDemand.start();
+        log.info("JFR recording started (max duration {})", onDemand.getDuration());
+        return true;
+    }
+
+    // Stops the on-demand recording and returns it as a temp file the caller owns, or null when there is none
+    public synchronized Path stop() throws IOException {
+        if (onDemand == null) {
+            return null;
+        }
+        try {
+            if (onDemand.getState() == RecordingState.RUNNING) {
+                onDemand.stop();
+            }
+            Path file = Files.createTempFile("teamtasker-recording-", ".jfr");
+            onDemand.dump(file);
+            log.info("JFR recording stopped, {} bytes", Files.size(file));
+            return file;
+        } finally {
+            onDemand.close();
+            onDemand = null;
+        }
+    }
+
+    public synchronized boolean isRecording() {
+        return onDemand != null && onDemand.getState() == RecordingState.RUNNING;
+    }
+
+    // Copy of the ring buffer as a temp file the caller owns, or null when the ring buffer is off
+    public synchronized Path snapshotRingBuffer() throws IOException {
+        if (ringBuffer == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("teamtasker-ring-buffer-", ".jfr");
+        ringBuffer.dump(file);
+        return file;
+    }
+
+    // Dumps the ring buffer into the dump directory, where it stays for later analysis
+    public synchronized Path dumpRingBuffer(String reason) throws IOException {
+        if (ringBuffer == null) {
+            return null;
+        }
+        Files.createDirectories(properties.getDumpDirectory());
+        Path file = properties.getDumpDirectory()
+                .resolve("ring-buffer-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + reason + ".jfr");
+        ringBuffer.dump(file);
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (onDemand != null) {
+            onDemand.close();
+            onDemand = null;
+        }
+        if (ringBuffer != null) {
+            ringBuffer.close();
+            ringBuffer = null;
+        }
+    }
+
+    private Recording newRecording(String configuration, String name) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(configuration));
+        recording.setName(name);
+
+        recording.enable(ServiceCallEvent.class).withThreshold(properties.getSlowCallThreshold());
+        recording.enable(AllocationHotSpotEvent.class);
+
+        // lock contention - monitors, j.u.c. locks and virtual threads pinned to their carrier
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(10)).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(10)).withStackTrace();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        return recording;
+    }
+}
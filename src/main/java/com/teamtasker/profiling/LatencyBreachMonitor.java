@@ -0,0 +1,109 @@
+package com.teamtasker.profiling;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts HTTP requests slower than the latency threshold per check interval. More than 1% of them over the threshold
+// means p99 is over it, and the JFR ring buffer is dumped so the slow window can be looked at afterwards.
+public class LatencyBreachMonitor implements ObservationHandler<ServerRequestObservationContext>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyBreachMonitor.class);
+
+    private final JfrRecorder recorder;
+    private final ProfilingProperties properties;
+    private final long thresholdNanos;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder slowRequests = new LongAdder();
+
+    private volatile long lastDumpNanos;
+    private volatile boolean dumped;
+    private ScheduledExecutorService checker;
+
+    public LatencyBreachMonitor(JfrRecorder recorder, ProfilingProperties properties) {
+        this.recorder = recorder;
+        this.properties = properties;
+        this.thresholdNanos = properties.getLatencyThreshold().toNanos();
+    }
+
+    public void start() {
+        long interval = properties.getCheckInterval().toMillis();
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-latency-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        context.put(LatencyBreachMonitor.class, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        Long start = context.get(LatencyBreachMonitor.class);
+        if (start != null) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+
+    void record(long nanos) {
+        requests.increment();
+        if (nanos > thresholdNanos) {
+            slowRequests.increment();
+        }
+    }
+
+    // Returns the dump file when this interval breached the threshold and the ring buffer was dumped
+    Path check() {
+        long total = requests.sumThenReset();
+        long slow = slowRequests.sumThenReset();
+        if (total < properties.getMinSamples() || slow * 100 <= total) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (dumped && now - lastDumpNanos < properties.getDumpCooldown().toNanos()) {
+            log.warn("p99 latency over {} ({} of {} requests), ring buffer dump skipped (cooldown)",
+                    properties.getLatencyThreshold(), slow, total);
+            return null;
+        }
+        try {
+            Path file = recorder.dumpRingBuffer("p99-breach");
+            if (file != null) {
+                dumped = true;
+                lastDumpNanos = now;
+                log.warn("p99 latency over {} ({} of {} requests), JFR ring buffer dumped to {}",
+                        properties.getLatencyThreshold(), slow, total, file);
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to dump JFR ring buffer", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+}
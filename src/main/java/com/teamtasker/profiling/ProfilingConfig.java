@@ -0,0 +1,33 @@
+package com.teamtasker.profiling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig {
+
+    @Bean(destroyMethod = "close")
+    public JfrRecorder jfrRecorder(ProfilingProperties properties) {
+        JfrRecorder recorder = new JfrRecorder(properties);
+        if (properties.isRingBuffer()) {
+            recorder.startRingBuffer();
+        }
+        return recorder;
+    }
+
+    @Bean
+    public ServiceCallJfrHandler serviceCallJfrHandler(ProfilingProperties properties) {
+        return new ServiceCallJfrHandler(properties);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "teamtasker.profiling.ring-buffer", havingValue = "true", matchIfMissing = true)
+    public LatencyBreachMonitor latencyBreachMonitor(JfrRecorder recorder, ProfilingProperties properties) {
+        LatencyBreachMonitor monitor = new LatencyBreachMonitor(recorder, properties);
+        monitor.start();
+        return monitor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.teamtasker.profiling;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/admin/profiling")
+public class ProfilingController {
+
+    private final JfrRecorder recorder;
+    private final ProfilingProperties properties;
+
+    @Autowired
+    public ProfilingController(JfrRecorder recorder, ProfilingProperties properties) {
+        this.recorder = recorder;
+        this.properties = properties;
+    }
+
+    @PostMapping("/recording/start")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> startRecording(@RequestParam(required = false) Long maxSeconds)
+            throws IOException, ParseException {
+        if (maxSeconds != null && maxSeconds <= 0) {
+            return ResponseEntity.badRequest().body("maxSeconds must be positive");
+        }
+        // longer requests are capped rather than rejected, so "as long as allowed" needs no knowledge of the limit
+        Duration limit = properties.getMaxRecordingDuration();
+        Duration maxDuration = maxSeconds != null && maxSeconds < limit.toSeconds()
+                ? Duration.ofSeconds(maxSeconds)
+                : limit;
+        if (!recorder.start(maxDuration)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A recording is already running");
+        }
+        return ResponseEntity.accepted().body("Recording started, stops after " + maxDuration.toSeconds() + "s");
+    }
+
+    @PostMapping("/recording/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> stopRecording() throws IOException {
+        return download(recorder.stop(), "teamtasker-recording.jfr");
+    }
+
+    @GetMapping("/recording")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> recordingStatus() {
+        return ResponseEntity.ok(recorder.isRecording() ? "RUNNING" : "STOPPED");
+    }
+
+    @GetMapping("/ring-buffer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> ringBuffer() throws IOException {
+        return download(recorder.snapshotRingBuffer(), "teamtasker-ring-buffer.jfr");
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    // streams the temp file and deletes it afterwards
+    private ResponseEntity<StreamingResponseBody> download(Path file, String filename) throws IOException {
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .body(body);
+    }
+}
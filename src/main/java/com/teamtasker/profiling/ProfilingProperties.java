@@ -0,0 +1,123 @@
+package com.teamtasker.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.profiling")
+public class ProfilingProperties {
+
+    // Service calls slower than this are recorded as com.teamtasker.ServiceCall events
+    private Duration slowCallThreshold = Duration.ofMillis(100);
+
+    // A single service call allocating more than this is recorded as a com.teamtasker.AllocationHotSpot event
+    private DataSize allocationThreshold = DataSize.ofMegabytes(16);
+
+    // Always-on recording with the low overhead "default" settings, kept in memory / on disk as a ring buffer
+    private boolean ringBuffer = true;
+    private Duration ringBufferMaxAge = Duration.ofMinutes(10);
+    private DataSize ringBufferMaxSize = DataSize.ofMegabytes(64);
+
+    // The ring buffer is dumped when more than 1% of requests in a check interval are slower than this (p99 breach)
+    private Duration latencyThreshold = Duration.ofMillis(500);
+    private Duration checkInterval = Duration.ofSeconds(30);
+    private int minSamples = 100;
+    private Duration dumpCooldown = Duration.ofMinutes(10);
+    private Path dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "teamtasker-jfr");
+
+    // On-demand recordings stop on their own after this, even if nobody calls stop
+    private Duration maxRecordingDuration = Duration.ofMinutes(30);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public Duration getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    public void setSlowCallThreshold(Duration slowCallThreshold) {
+        this.slowCallThreshold = slowCallThreshold;
+    }
+
+    public DataSize getAllocationThreshold() {
+        return allocationThreshold;
+    }
+
+    public void setAllocationThreshold(DataSize allocationThreshold) {
+        this.allocationThreshold = allocationThreshold;
+    }
+
+    public boolean isRingBuffer() {
+        return ringBuffer;
+    }
+
+    public void setRingBuffer(boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    public Duration getRingBufferMaxAge() {
+        return ringBufferMaxAge;
+    }
+
+    public void setRingBufferMaxAge(Duration ringBufferMaxAge) {
+        this.ringBufferMaxAge = ringBufferMaxAge;
+    }
+
+    public DataSize getRingBufferMaxSize() {
+        return ringBufferMaxSize;
+    }
+
+    public void setRingBufferMaxSize(DataSize ringBufferMaxSize) {
+        this.ringBufferMaxSize = ringBufferMaxSize;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public Duration getDumpCooldown() {
+        return dumpCooldown;
+    }
+
+    public void setDumpCooldown(Duration dumpCooldown) {
+        this.dumpCooldown = dumpCooldown;
+    }
+
+    public Path getDumpDirectory() {
+        return dumpDirectory;
+    }
+
+    public void setDumpDirectory(Path dumpDirectory) {
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    public Duration getMaxRecordingDuration() {
+        return maxRecordingDuration;
+    }
+
+    public void setMaxRecordingDuration(Duration maxRecordingDuration) {
+        this.maxRecordingDuration = maxRecordingDuration;
+    }
+}
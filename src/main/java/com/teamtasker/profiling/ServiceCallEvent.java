@@ -0,0 +1,36 @@
+package com.teamtasker.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Duration of a TeamService / UserService call. Only committed above the recording's threshold, which JfrRecorder sets
+// from teamtasker.profiling.slow-call-threshold.
+@Name("com.teamtasker.ServiceCall")
+@Label("Slow Service Call")
+@Category({"TeamTasker", "Service"})
+@Description("TeamService / UserService call slower than the configured threshold")
+@Threshold("100 ms")
+@StackTrace(false)
+public class ServiceCallEvent extends jdk.jfr.Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Team Id")
+    String teamId;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,76 @@
+package com.teamtasker.profiling;
+
+import com.teamtasker.tracing.IdAttributesObservationFilter;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.aspectj.lang.Signature;
+
+import java.lang.management.ManagementFactory;
+
+// Turns @Observed TeamService / UserService calls into JFR events. Costs two nanoTime reads and two allocation counter
+// reads per call when no recording is running; event fields are only filled in when JFR is going to keep the event.
+public class ServiceCallJfrHandler implements ObservationHandler<ObservedAspect.ObservedAspectContext> {
+
+    private static final String SERVICE_OBSERVATION = "teamtasker.service";
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final boolean allocationTracking;
+    private final long allocationThreshold;
+
+    public ServiceCallJfrHandler(ProfilingProperties properties) {
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.allocationTracking = threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled();
+        this.allocationThreshold = properties.getAllocationThreshold().toBytes();
+    }
+
+    @Override
+    public void onStart(ObservedAspect.ObservedAspectContext context) {
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        context.put(ServiceCallEvent.class, event);
+        context.put(AllocationHotSpotEvent.class, allocatedBytes());
+    }
+
+    @Override
+    public void onStop(ObservedAspect.ObservedAspectContext context) {
+        ServiceCallEvent event = context.get(ServiceCallEvent.class);
+        Long allocatedAtStart = context.get(AllocationHotSpotEvent.class);
+        if (event == null || allocatedAtStart == null) {
+            return;
+        }
+        event.end();
+        long allocated = allocationTracking ? allocatedBytes() - allocatedAtStart : 0;
+        Signature signature = context.getProceedingJoinPoint().getSignature();
+
+        if (event.shouldCommit()) {
+            event.service = signature.getDeclaringType().getSimpleName();
+            event.method = signature.getName();
+            KeyValue teamId = context.getHighCardinalityKeyValue(IdAttributesObservationFilter.TEAM_ID);
+            event.teamId = teamId != null ? teamId.getValue() : null;
+            event.allocatedBytes = allocated;
+            event.failed = context.getError() != null;
+            event.commit();
+        }
+
+        if (allocated > allocationThreshold) {
+            AllocationHotSpotEvent hotSpot = new AllocationHotSpotEvent();
+            if (hotSpot.isEnabled()) {
+                hotSpot.service = signature.getDeclaringType().getSimpleName();
+                hotSpot.method = signature.getName();
+                hotSpot.allocatedBytes = allocated;
+                hotSpot.commit();
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ObservedAspect.ObservedAspectContext && SERVICE_OBSERVATION.equals(context.getName());
+    }
+
+    private long allocatedBytes() {
+        return allocationTracking ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
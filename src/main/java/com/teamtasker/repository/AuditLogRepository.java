@@ -0,0 +1,93 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.audit.AuditAction;
+import com.teamtasker.audit.AuditEntry;
+import com.teamtasker.audit.AuditPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Plain JDBC rather than an entity: the table is partitioned (composite key, no JPA identity) and only ever appended
+// to in batches and read in keyset pages.
+@Repository
+public class AuditLogRepository {
+
+    private static final String INSERT = "INSERT INTO audit_log " +
+            "(occurred_at, actor_id, actor_name, action, target_type, target_id, details) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<AuditEntry> ROW_MAPPER = (rs, rowNum) -> new AuditEntry(
+            rs.getLong("id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            (Integer) rs.getObject("actor_id"),
+            rs.getString("actor_name"),
+            AuditAction.valueOf(rs.getString("action")),
+            rs.getString("target_type"),
+            rs.getInt("target_id"),
+            rs.getString("details"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AuditLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditEntry> entries) {
+        entries.stream().map(entry -> YearMonth.from(entry.occurredAt())).distinct().forEach(this::ensurePartition);
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.occurredAt()));
+            ps.setObject(2, entry.actorId(), Types.INTEGER);
+            ps.setString(3, entry.actorName());
+            ps.setString(4, entry.action().name());
+            ps.setString(5, entry.targetType());
+            ps.setInt(6, entry.targetId());
+            ps.setString(7, entry.details());
+        });
+    }
+
+    // Newest first. targetType / targetId and actorId are optional filters, after is the cursor of the previous page.
+    public List<AuditEntry> findPage(String targetType, Integer targetId, Integer actorId, AuditPage.Cursor after,
+                                     int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM audit_log WHERE true");
+        List<Object> args = new ArrayList<>();
+        if (targetType != null && targetId != null) {
+            sql.append(" AND target_type = ? AND target_id = ?");
+            args.add(targetType);
+            args.add(targetId);
+        }
+        if (actorId != null) {
+            sql.append(" AND actor_id = ?");
+            args.add(actorId);
+        }
+        if (after != null) {
+            sql.append(" AND (occurred_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.occurredAt()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    // Monthly partition for the given month. Nodes racing on the 1st either see IF NOT EXISTS or fail the batch once,
+    // which AuditWriter retries.
+    public void ensurePartition(YearMonth month) {
+        if (partitions.contains(month)) {
+            return;
+        }
+        String name = "audit_log_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF audit_log " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        partitions.add(month);
+    }
+}
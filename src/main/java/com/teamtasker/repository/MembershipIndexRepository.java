@@ -0,0 +1,48 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.entity.TeamRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.function.IntConsumer;
+
+// Streams every user id and membership row into MembershipIndex when it rebuilds. Run both inside one transaction:
+// that gives them the same snapshot, and PostgreSQL only honours the fetch size - rows in batches instead of the
+// whole table in memory - with auto-commit off.
+@Repository
+public class MembershipIndexRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    @FunctionalInterface
+    public interface MembershipConsumer {
+        void accept(int teamId, int userId, TeamRole role);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MembershipIndexRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachUser(IntConsumer consumer) {
+        stream("SELECT id FROM users", rs -> consumer.accept(rs.getInt(1)));
+    }
+
+    public void forEachMembership(MembershipConsumer consumer) {
+        stream("SELECT team_id, user_id, role FROM team_memberships", rs ->
+                consumer.accept(rs.getInt(1), rs.getInt(2), TeamRole.valueOf(rs.getString(3))));
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+}
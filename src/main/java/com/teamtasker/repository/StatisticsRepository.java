@@ -0,0 +1,62 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.stats.Statistics;
+import com.teamtasker.stats.TeamCounts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Grouped counts for StatisticsCache: all application-wide aggregates in one statement, a user's memberships in
+// another - instead of a count query per role.
+@Repository
+public class StatisticsRepository {
+
+    private static final String AGGREGATES = """
+            SELECT 'user' AS kind, role AS bucket, COUNT(*) AS total FROM users GROUP BY role
+            UNION ALL
+            SELECT 'team', CASE WHEN is_active THEN 'active' ELSE 'inactive' END, COUNT(*) FROM teams
+            GROUP BY CASE WHEN is_active THEN 'active' ELSE 'inactive' END
+            UNION ALL
+            SELECT 'membership', role, COUNT(*) FROM team_memberships GROUP BY role
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public StatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Statistics loadStatistics() {
+        Map<Role, Long> users = new EnumMap<>(Role.class);
+        Map<TeamRole, Long> memberships = new EnumMap<>(TeamRole.class);
+        long[] teams = new long[2];
+        jdbcTemplate.query(AGGREGATES, rs -> {
+            String bucket = rs.getString("bucket");
+            long total = rs.getLong("total");
+            switch (rs.getString("kind")) {
+                case "user" -> users.put(Role.valueOf(bucket), total);
+                case "team" -> teams[bucket.equals("active") ? 0 : 1] = total;
+                case "membership" -> memberships.put(TeamRole.valueOf(bucket), total);
+                default -> throw new IllegalStateException("Unexpected aggregate: " + rs.getString("kind"));
+            }
+        });
+        return new Statistics(users, teams[0], teams[1], memberships);
+    }
+
+    public TeamCounts loadTeamCounts(int userId) {
+        return jdbcTemplate.query(
+                "SELECT role, COUNT(*) AS total FROM team_memberships WHERE user_id = ? GROUP BY role", rs -> {
+                    TeamCounts counts = TeamCounts.NONE;
+                    while (rs.next()) {
+                        counts = counts.plus(TeamRole.valueOf(rs.getString("role")), rs.getLong("total"));
+                    }
+                    return counts;
+                }, userId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.entity.TeamMembership;
+import com.teamtasker.entity.TeamMembershipId;
+import com.teamtasker.entity.TeamRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TeamMembershipRepository extends JpaRepository<TeamMembership, TeamMembershipId> {
+
+    @EntityGraph(attributePaths = "user")
+    Page<TeamMembership> findByTeamId(Integer teamId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    Page<TeamMembership> findByTeamIdAndRole(Integer teamId, TeamRole role, Pageable pageable);
+
+    long countByTeamId(Integer teamId);
+}
@@ -4,54 +4,86 @@ import com.teamtasker.entity.Team;
 import com.teamtasker.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team,Integer> {
     Optional<Team> findByName(String name);
-    Page<Team> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    // open-in-view is disabled, so anything handed to a view must arrive initialised
+    @EntityGraph(attributePaths = {"owner", "memberships", "memberships.user"})
+    Optional<Team> findWithMembersById(Integer id);
+
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Page<Team> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Team> findWithOwnerByIdIn(Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "owner")
     Page<Team> findByIsActiveTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
     Page<Team> findByIsActiveFalse(Pageable pageable);
 
+    @EntityGraph(attributePaths = "owner")
     List<Team> findByOwner(User owner);
+
+    @EntityGraph(attributePaths = "owner")
     List<Team> findByOwnerAndIsActiveTrue(User owner);
+
+    @EntityGraph(attributePaths = "owner")
     List<Team> findByOwnerAndIsActiveFalse(User owner);
 
-    List<Team> findByMembersContaining(User user);
-    List<Team> findByMembersContainingAndIsActiveTrue(User user);
-    List<Team> findByMembersContainingAndIsActiveFalse(User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user)")
+    List<Team> findByMembersContaining(@Param("user") User user);
 
-    List<Team> findByManagersContaining(User user);
-    List<Team> findByManagersContainingAndIsActiveTrue(User user);
-    List<Team> findByManagersContainingAndIsActiveFalse(User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user) AND t.isActive = true")
+    List<Team> findByMembersContainingAndIsActiveTrue(@Param("user") User user);
 
-    @Query("SELECT t FROM Team t WHERE t.owner = :user OR :user MEMBER OF t.managers")
-    List<Team> findTeamsWithManagementRights(@Param("user") User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user) AND t.isActive = false")
+    List<Team> findByMembersContainingAndIsActiveFalse(@Param("user") User user);
 
-    @Query("SELECT t FROM Team t WHERE (t.owner = :user OR :user MEMBER OF t.managers) AND t.isActive = true")
-    List<Team> findActiveTeamsWithManagementRights(@Param("user") User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER)")
+    List<Team> findByManagersContaining(@Param("user") User user);
 
-    @Query("SELECT t FROM Team t WHERE (t.owner = :user OR :user MEMBER OF t.managers) AND t.isActive = false")
-    List<Team> findInactiveTeamsWithManagementRights(@Param("user") User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER) AND t.isActive = true")
+    List<Team> findByManagersContainingAndIsActiveTrue(@Param("user") User user);
 
-    @Query("SELECT COUNT(t) FROM Team t WHERE t.owner = :user")
-    long countTeamsByOwner(@Param("user") User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER) AND t.isActive = false")
+    List<Team> findByManagersContainingAndIsActiveFalse(@Param("user") User user);
 
-    @Query("SELECT COUNT(t) FROM Team t WHERE :user MEMBER OF t.managers")
-    long countTeamsByManager(@Param("user") User user);
+    // owners always hold an OWNER membership, so management rights are a single membership lookup
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER)")
+    List<Team> findTeamsWithManagementRights(@Param("user") User user);
 
-    @Query("SELECT COUNT(t) FROM Team t WHERE :user MEMBER OF t.members")
-    long countTeamsByMember(@Param("user") User user);
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER) AND t.isActive = true")
+    List<Team> findActiveTeamsWithManagementRights(@Param("user") User user);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("SELECT t FROM Team t WHERE EXISTS (SELECT m FROM TeamMembership m WHERE m.team = t AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER) AND t.isActive = false")
+    List<Team> findInactiveTeamsWithManagementRights(@Param("user") User user);
 
-    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Team t WHERE t.id = :teamId AND (t.owner = :user OR :user MEMBER OF t.managers)")
+    @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM TeamMembership m WHERE m.team.id = :teamId AND m.user = :user AND m.role <> com.teamtasker.entity.TeamRole.MEMBER")
     boolean userHasManagementRights(@Param("teamId") Integer teamId, @Param("user") User user);
 
-    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Team t WHERE t.id = :teamId AND (t.owner = :user OR :user MEMBER OF t.members)")
+    @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM TeamMembership m WHERE m.team.id = :teamId AND m.user = :user")
     boolean isUserAssociatedWithTeam(@Param("teamId") Integer teamId, @Param("user") User user);
 }
@@ -0,0 +1,46 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.search.TeamSearchHit;
+import com.teamtasker.search.TeamSearchPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Plain JDBC: the query goes through the GIN index on the generated teams.search_vector column (V7) and ranks with
+// ts_rank, neither of which JPQL can express. Only ids and ranks come back - TeamService loads the page of teams.
+@Repository
+public class TeamSearchRepository {
+
+    // websearch_to_tsquery accepts user input as typed: quoted phrases, "or", -excluded, never a syntax error
+    private static final String MATCHES = "SELECT t.id, ts_rank(t.search_vector, q) AS rank " +
+            "FROM teams t, websearch_to_tsquery('english', ?) q WHERE t.search_vector @@ q";
+
+    private static final RowMapper<TeamSearchHit> ROW_MAPPER = (rs, rowNum) ->
+            new TeamSearchHit(rs.getInt("id"), rs.getFloat("rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TeamSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Best match first, ties newest first. after is the cursor of the previous page.
+    public List<TeamSearchHit> findPage(String query, TeamSearchPage.Cursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, rank FROM (").append(MATCHES).append(") hits");
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (after != null) {
+            sql.append(" WHERE (rank, id) < (?, ?)");
+            args.add(after.rank());
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY rank DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
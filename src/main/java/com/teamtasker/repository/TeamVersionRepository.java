@@ -0,0 +1,56 @@
+package com.teamtasker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Plain JDBC so the increments happen in the database: Team maps version read-only and a flushed entity can never
+// write back a stale value over a concurrent bump.
+@Repository
+public class TeamVersionRepository {
+
+    public record TeamVersion(long version, LocalDateTime modifiedAt) {}
+
+    private static final RowMapper<TeamVersion> ROW_MAPPER = (rs, rowNum) -> new TeamVersion(
+            rs.getLong("version"),
+            rs.getTimestamp("modified_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TeamVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<TeamVersion> findByTeamId(int teamId) {
+        return jdbcTemplate.query(
+                "SELECT version, COALESCE(updated_at, created_at) AS modified_at FROM teams WHERE id = ?",
+                ROW_MAPPER, teamId).stream().findFirst();
+    }
+
+    public TeamVersion findCatalogVersion() {
+        return jdbcTemplate.queryForObject(
+                "SELECT version, updated_at AS modified_at FROM team_catalog WHERE id = 1", ROW_MAPPER);
+    }
+
+    public void bumpTeam(int teamId, LocalDateTime now) {
+        jdbcTemplate.update("UPDATE teams SET version = version + 1, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(now), teamId);
+    }
+
+    // every team the user belongs to (owners included - they hold an OWNER membership)
+    public void bumpTeamsOfMember(int userId, LocalDateTime now) {
+        jdbcTemplate.update("UPDATE teams SET version = version + 1, updated_at = ? " +
+                "WHERE id IN (SELECT team_id FROM team_memberships WHERE user_id = ?)", Timestamp.valueOf(now), userId);
+    }
+
+    public void bumpCatalog(LocalDateTime now) {
+        jdbcTemplate.update("UPDATE team_catalog SET version = version + 1, updated_at = ? WHERE id = 1",
+                Timestamp.valueOf(now));
+    }
+}
@@ -4,11 +4,13 @@ import com.teamtasker.entity.Role;
 import com.teamtasker.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,18 +20,36 @@ public interface UserRepository extends JpaRepository<User,Integer> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Page<User> findByRole(Role role, Pageable pageable);
-    long countByRole(Role role);
 
-    @Query("SELECT u FROM User u WHERE u NOT IN (SELECT m FROM Team t JOIN t.members m WHERE t.id = :teamId)")
-    Page<User> findUsersNotInTeam(@Param("teamId") Integer teamId, Pageable pageable);
+    // NOT EXISTS plans as an anti-join on the team_memberships primary key and has no NOT IN null pitfalls
+    String NOT_IN_TEAM = "NOT EXISTS (SELECT 1 FROM TeamMembership m WHERE m.team.id = :teamId AND m.user = u)";
 
-    @Query("SELECT u FROM User u WHERE u NOT IN (SELECT m FROM Team t JOIN t.members m WHERE t.id = :teamId) AND (" +
+    String MATCHES_SEARCH_TERM = "(" +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+            "LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :searchTerm, '%')))";
+
+    @Query(value = "SELECT u FROM User u WHERE " + NOT_IN_TEAM,
+            countQuery = "SELECT COUNT(u) FROM User u WHERE " + NOT_IN_TEAM)
+    Page<User> findUsersNotInTeam(@Param("teamId") Integer teamId, Pageable pageable);
+
+    // Slice variants fetch one extra row instead of running a count
+    @Query("SELECT u FROM User u WHERE " + NOT_IN_TEAM)
+    Slice<User> findUsersNotInTeamSlice(@Param("teamId") Integer teamId, Pageable pageable);
+
+    // candidates from the membership index checked against the table, since the index on this instance does not see
+    // memberships committed on another one until its next rebuild
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND " + NOT_IN_TEAM)
+    List<User> findNotInTeamByIdIn(@Param("teamId") Integer teamId, @Param("ids") Collection<Integer> ids);
+
+    @Query(value = "SELECT u FROM User u WHERE " + NOT_IN_TEAM + " AND " + MATCHES_SEARCH_TERM,
+            countQuery = "SELECT COUNT(u) FROM User u WHERE " + NOT_IN_TEAM + " AND " + MATCHES_SEARCH_TERM)
     Page<User> searchUsersNotInTeam(@Param("teamId") Integer teamId, @Param("searchTerm") String searchTerm, Pageable pageable);
 
+    @Query("SELECT u FROM User u WHERE " + NOT_IN_TEAM + " AND " + MATCHES_SEARCH_TERM)
+    Slice<User> searchUsersNotInTeamSlice(@Param("teamId") Integer teamId, @Param("searchTerm") String searchTerm, Pageable pageable);
+
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -0,0 +1,5 @@
+package com.teamtasker.search;
+
+// One matching team id and its ts_rank; the teams themselves are loaded by id afterwards.
+public record TeamSearchHit(int id, float rank) {
+}
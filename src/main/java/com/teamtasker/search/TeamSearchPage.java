@@ -0,0 +1,34 @@
+package com.teamtasker.search;
+
+import com.teamtasker.entity.Team;
+
+import java.util.List;
+
+// One keyset page of search results, best match first. nextCursor is null on the last page.
+public record TeamSearchPage(List<Team> teams, String nextCursor) {
+
+    public static final TeamSearchPage EMPTY = new TeamSearchPage(List.of(), null);
+
+    // position of the last hit on a page, (rank, id) matches the keyset order. The rank is the float4 PostgreSQL
+    // returned, Float.toString round-trips it exactly so the next page starts right after it.
+    public record Cursor(float rank, int id) {
+
+        public static Cursor parse(String value) {
+            int separator = value.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid search cursor: " + value);
+            }
+            return new Cursor(Float.parseFloat(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        }
+
+        public static Cursor of(TeamSearchHit hit) {
+            return new Cursor(hit.rank(), hit.id());
+        }
+
+        @Override
+        public String toString() {
+            return rank + "_" + id;
+        }
+    }
+}
@@ -2,31 +2,74 @@ package com.teamtasker.service;
 
 import com.teamtasker.entity.Role;
 import com.teamtasker.entity.Team;
+import com.teamtasker.entity.TeamMembership;
+import com.teamtasker.entity.TeamRole;
 import com.teamtasker.entity.User;
+import com.teamtasker.event.TeamEvent;
 import com.teamtasker.exception.*;
+import com.teamtasker.membership.MembershipIndex;
+import com.teamtasker.repository.TeamMembershipRepository;
 import com.teamtasker.repository.TeamRepository;
+import com.teamtasker.repository.TeamSearchRepository;
+import com.teamtasker.repository.TeamVersionRepository;
+import com.teamtasker.repository.TeamVersionRepository.TeamVersion;
 import com.teamtasker.repository.UserRepository;
+import com.teamtasker.search.TeamSearchHit;
+import com.teamtasker.search.TeamSearchPage;
+import com.teamtasker.stats.Statistics;
+import com.teamtasker.stats.StatisticsCache;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Observed(name = "teamtasker.service")
 public class TeamService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final TeamMembershipRepository teamMembershipRepository;
+    private final TeamVersionRepository teamVersionRepository;
+    private final TeamSearchRepository teamSearchRepository;
+    private final MembershipIndex membershipIndex;
+    private final StatisticsCache statisticsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TeamService(TeamRepository teamRepository, UserRepository userRepository) {
+    public TeamService(TeamRepository teamRepository, UserRepository userRepository,
+                       TeamMembershipRepository teamMembershipRepository, TeamVersionRepository teamVersionRepository,
+                       TeamSearchRepository teamSearchRepository, MembershipIndex membershipIndex,
+                       StatisticsCache statisticsCache, ApplicationEventPublisher eventPublisher) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
+        this.teamMembershipRepository = teamMembershipRepository;
+        this.teamVersionRepository = teamVersionRepository;
+        this.teamSearchRepository = teamSearchRepository;
+        this.membershipIndex = membershipIndex;
+        this.statisticsCache = statisticsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -36,14 +79,19 @@ public class TeamService {
         if (isTeamNameTaken(teamName)) {
             throw new TeamAlreadyExistsException(teamName);
         }
-        Team team = new Team(teamName, description, owner);
-        return teamRepository.save(team);
+        Team team = teamRepository.save(new Team(teamName, description, owner));
+        eventPublisher.publishEvent(new TeamEvent.TeamCreated(team.getId(), team.getName(),
+                owner.getId(), Instant.now()));
+        return team;
     }
 
+    // loads owner + roster up front so callers outside a transaction (views, access checks) never hit lazy proxies
+    @Transactional(readOnly = true)
     public Team getTeamById(Integer teamId) {
-        return teamRepository.findById(teamId).orElseThrow(() -> new TeamNotFoundException("Team not found. TeamID: " + teamId));
+        return teamRepository.findWithMembersById(teamId).orElseThrow(() -> new TeamNotFoundException("Team not found. TeamID: " + teamId));
     }
 
+    @Transactional(readOnly = true)
     public Team getTeamByName(String teamName) {
         return teamRepository.findByName(teamName).orElseThrow(() -> new TeamNotFoundException("Team not found. Name: " + teamName));
     }
@@ -61,7 +109,9 @@ public class TeamService {
         if (newDescription != null) {
             team.setDescription(newDescription);
         }
-        return teamRepository.save(team);
+        team = teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.TeamUpdated(teamId, team.getName(), currUser.getId(), Instant.now()));
+        return team;
     }
 
     public void deleteTeam(Integer teamId, User currUser) {
@@ -70,20 +120,30 @@ public class TeamService {
             throw new TeamAccessException("Only team owners or admins can delete teams");
         }
         teamRepository.delete(team);
+        eventPublisher.publishEvent(new TeamEvent.TeamDeleted(teamId, team.getName(), currUser.getId(), Instant.now()));
     }
 
     public void deactivateTeam(Integer teamId, User currUser) {
         Team team = getTeamById(teamId);
         validateManagementAccess(team, currUser);
+        // a repeat is a no-op: the event would shift the cached active/inactive counts and bump the team version
+        if (!team.getIsActive()) {
+            return;
+        }
         team.setIsActive(false);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.TeamDeactivated(teamId, currUser.getId(), Instant.now()));
     }
 
     public void reactivateTeam(Integer teamId, User currUser) {
         Team team = getTeamById(teamId);
         validateManagementAccess(team, currUser);
+        if (team.getIsActive()) {
+            return;
+        }
         team.setIsActive(true);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.TeamReactivated(teamId, currUser.getId(), Instant.now()));
     }
 
     //------------------------------------------------------------------------------------------------------------------
@@ -98,8 +158,10 @@ public class TeamService {
         if (team.isMember(newMember)) {
             throw new IllegalArgumentException("User is already a member of this team");
         }
-        team.getMembers().add(newMember);
+        team.addMember(newMember);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.MemberAdded(teamId, newMember.getId(),
+                currUser.getId(), Instant.now()));
     }
 
     public void removeMemberFromTeam(Integer teamId, String username, User currUser) {
@@ -114,9 +176,11 @@ public class TeamService {
         if (team.isOwner(memberToRemove)) {
             throw new IllegalArgumentException("Cannot remove owner from team");
         }
-        team.getMembers().remove(memberToRemove);
-        team.getManagers().remove(memberToRemove);
+        TeamRole role = team.getRoleOf(memberToRemove);
+        team.removeMember(memberToRemove);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.MemberRemoved(teamId, memberToRemove.getId(), role,
+                currUser.getId(), Instant.now()));
     }
 
     public void promoteToManager(Integer teamId, String username, User currUser) {
@@ -133,8 +197,10 @@ public class TeamService {
         if (team.isManager(userToPromote)) {
             throw new IllegalArgumentException("User is already a manager of this team");
         }
-        team.getManagers().add(userToPromote);
+        team.promoteToManager(userToPromote);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.ManagerPromoted(teamId, userToPromote.getId(),
+                currUser.getId(), Instant.now()));
     }
 
     public void demoteFromManager(Integer teamId, String username, User currUser) {
@@ -151,8 +217,10 @@ public class TeamService {
         if (team.isOwner(userToDemote)) {
             throw new IllegalArgumentException("Cannot demote team owner from manager role");
         }
-        team.getManagers().remove(userToDemote);
+        team.demoteFromManager(userToDemote);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.ManagerDemoted(teamId, userToDemote.getId(),
+                currUser.getId(), Instant.now()));
     }
 
     // transferring ownership demotes previous owner to manager
@@ -170,84 +238,148 @@ public class TeamService {
         if (team.isOwner(newOwner)) {
             throw new IllegalArgumentException("User is already the owner of this team");
         }
+        Integer previousOwnerId = team.getOwner().getId();
         team.setOwner(newOwner);
         teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamEvent.OwnershipTransferred(teamId, previousOwnerId, newOwner.getId(),
+                currUser.getId(), Instant.now()));
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Versions
+
+    // Precondition lookups for conditional GET - one indexed row, never the roster
+    @Transactional(readOnly = true)
+    public Optional<TeamVersion> getTeamVersion(Integer teamId) {
+        return teamVersionRepository.findByTeamId(teamId);
+    }
+
+    @Transactional(readOnly = true)
+    public TeamVersion getCatalogVersion() {
+        return teamVersionRepository.findCatalogVersion();
     }
 
     //------------------------------------------------------------------------------------------------------------------
     // Query Methods
 
+    @Transactional(readOnly = true)
     public Page<Team> getAllTeams(Pageable pageable) {
         return teamRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<Team> getAllActiveTeams(Pageable pageable) {
         return teamRepository.findByIsActiveTrue(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<Team> getAllInactiveTeams(Pageable pageable) {
         return teamRepository.findByIsActiveFalse(pageable);
     }
 
-    public Page<Team> searchTeamsByName(String searchTerm, Pageable pageable) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return Page.empty(pageable);
+    // Full-text search over name and description, name matches ranked first. Keyset paging: pass the previous page's
+    // nextCursor as after - no OFFSET and no count query, so deep pages cost the same as the first one.
+    @Transactional(readOnly = true)
+    public TeamSearchPage searchTeams(String query, String after, int size) {
+        if (query == null || query.isBlank()) {
+            return TeamSearchPage.EMPTY;
         }
-        return teamRepository.findByNameContainingIgnoreCase(searchTerm.trim(), pageable);
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        TeamSearchPage.Cursor cursor = after != null ? TeamSearchPage.Cursor.parse(after) : null;
+
+        // one extra hit tells whether there is a next page
+        List<TeamSearchHit> hits = teamSearchRepository.findPage(query.trim(), cursor, limit + 1);
+        List<TeamSearchHit> page = hits.size() > limit ? hits.subList(0, limit) : hits;
+        Map<Integer, Team> teams = teamRepository.findWithOwnerByIdIn(page.stream().map(TeamSearchHit::id).toList())
+                .stream().collect(Collectors.toMap(Team::getId, Function.identity()));
+        // a team deleted between the two queries is dropped from the page, the cursor still moves past it
+        List<Team> ranked = page.stream().map(hit -> teams.get(hit.id())).filter(Objects::nonNull).toList();
+        String next = hits.size() > limit ? TeamSearchPage.Cursor.of(page.getLast()).toString() : null;
+        return new TeamSearchPage(ranked, next);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getActiveTeamsByOwner(User owner) {
         return teamRepository.findByOwnerAndIsActiveTrue(owner);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getActiveTeamsByManager(User manager) {
         return teamRepository.findByManagersContainingAndIsActiveTrue(manager);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getActiveTeamsWithManagementRights(User user) {
         return teamRepository.findActiveTeamsWithManagementRights(user);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getActiveTeamsByMember(User member) {
         return teamRepository.findByMembersContainingAndIsActiveTrue(member);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getAllTeamsByOwner(User owner) {
         return teamRepository.findByOwner(owner);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getAllTeamsByManager(User manager) {
         return teamRepository.findByManagersContaining(manager);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getAllTeamsWithManagementRights(User user) {
         return teamRepository.findTeamsWithManagementRights(user);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getAllTeamsByMember(User member) {
         return teamRepository.findByMembersContaining(member);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getInactiveTeamsByOwner(User owner) {
         return teamRepository.findByOwnerAndIsActiveFalse(owner);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getInactiveTeamsByManager(User manager) {
         return teamRepository.findByManagersContainingAndIsActiveFalse(manager);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getInactiveTeamsWithManagementRights(User user) {
         return teamRepository.findInactiveTeamsWithManagementRights(user);
     }
 
+    @Transactional(readOnly = true)
     public List<Team> getInactiveTeamsByMember(User member) {
         return teamRepository.findByMembersContainingAndIsActiveFalse(member);
     }
 
+    // pageable roster straight from team_memberships, without loading the whole team
+    @Transactional(readOnly = true)
+    public Page<TeamMembership> getTeamRoster(Integer teamId, Pageable pageable) {
+        return teamMembershipRepository.findByTeamId(teamId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TeamMembership> getTeamRoster(Integer teamId, TeamRole role, Pageable pageable) {
+        return teamMembershipRepository.findByTeamIdAndRole(teamId, role, pageable);
+    }
+
+    @Transactional(readOnly = true)
     public Page<User> searchUsersNotInTeam(Integer teamId, String searchTerm, Pageable pageable) {
         return userRepository.searchUsersNotInTeam(teamId, searchTerm, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<User> searchUsersNotInTeamSlice(Integer teamId, String searchTerm, Pageable pageable) {
+        return userRepository.searchUsersNotInTeamSlice(teamId, searchTerm, pageable);
+    }
+
+    @Transactional(readOnly = true)
     public List<User> getRemovableMembers(Integer teamId, String searchTerm) {
         Team team = getTeamById(teamId);
         List<User> members = new ArrayList<>(team.getMembers());
@@ -281,10 +413,12 @@ public class TeamService {
     }
 
     // duplicates using query instead of entity - may be useful later
+    @Transactional(readOnly = true)
     public boolean userHasManagementRights(Integer teamId, User user) {
         return teamRepository.userHasManagementRights(teamId, user);
     }
 
+    @Transactional(readOnly = true)
     public boolean isUserAssociatedWithTeam(Integer teamId, User user) {
         return teamRepository.isUserAssociatedWithTeam(teamId, user);
     }
@@ -292,27 +426,76 @@ public class TeamService {
     //------------------------------------------------------------------------------------------------------------------
     // Statistics
 
+    // Candidates come from the membership index once it is loaded - ids from the bitmaps, then the page of users by
+    // primary key - in id order. Sorted requests and a not yet loaded index take the anti-join.
+    //
+    // The index only follows events committed on this instance, so the page of users is loaded with the same
+    // NOT EXISTS check the anti-join uses: someone added to the team on another instance is dropped from the page
+    // instead of offered again, at no extra query. The other direction - a user removed elsewhere - is missing from
+    // the picker until the next rebuild, which only delays an action rather than offering one that would fail.
+    @Transactional(readOnly = true)
     public Page<User> getUsersNotInTeam(Integer teamId, Pageable pageable) {
-        return userRepository.findUsersNotInTeam(teamId, pageable);
+        if (!useMembershipIndex(pageable)) {
+            return userRepository.findUsersNotInTeam(teamId, pageable);
+        }
+        int[] ids = membershipIndex.usersNotInTeam(teamId, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadCandidates(teamId, ids), pageable, membershipIndex.countUsersNotInTeam(teamId));
     }
 
+    @Transactional(readOnly = true)
+    public Slice<User> getUsersNotInTeamSlice(Integer teamId, Pageable pageable) {
+        if (!useMembershipIndex(pageable)) {
+            return userRepository.findUsersNotInTeamSlice(teamId, pageable);
+        }
+        // one extra id tells whether there is a next slice
+        int[] ids = membershipIndex.usersNotInTeam(teamId, pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = ids.length > pageable.getPageSize();
+        List<User> users = loadCandidates(teamId, hasNext ? Arrays.copyOf(ids, pageable.getPageSize()) : ids);
+        return new SliceImpl<>(users, pageable, hasNext);
+    }
+
+    @Transactional(readOnly = true)
     public List<User> getUsersNotInTeam(Integer teamId) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        return userRepository.findUsersNotInTeam(teamId, pageable).getContent();
+        return getUsersNotInTeamSlice(teamId, PageRequest.of(0, 1000)).getContent();
     }
 
+    private boolean useMembershipIndex(Pageable pageable) {
+        return membershipIndex.isReady() && pageable.isPaged() && pageable.getSort().isUnsorted();
+    }
+
+    // in the order of the ids; a user deleted or added to the team since the index saw them is left out
+    private List<User> loadCandidates(Integer teamId, int[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Integer, User> users = userRepository.findNotInTeamByIdIn(teamId, Arrays.stream(ids).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return Arrays.stream(ids).mapToObj(users::get).filter(Objects::nonNull).toList();
+    }
+
+    // served from StatisticsCache - no transaction, so a cached count does not even take a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getTeamCountByOwner(User owner) {
-        return teamRepository.countTeamsByOwner(owner);
+        return statisticsCache.getTeamCounts(owner.getId()).owned();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getTeamCountByManager(User manager) {
-        return teamRepository.countTeamsByManager(manager);
+        return statisticsCache.getTeamCounts(manager.getId()).managed();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getTeamCountByMember(User member) {
-        return teamRepository.countTeamsByMember(member);
+        return statisticsCache.getTeamCounts(member.getId()).member();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Statistics getStatistics() {
+        return statisticsCache.getStatistics();
     }
 
+    @Transactional(readOnly = true)
     public boolean isTeamNameTaken(String teamName) {
         return teamRepository.findByName(teamName).isPresent();
     }
@@ -0,0 +1,60 @@
+package com.teamtasker.service;
+
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.TeamVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Runs synchronously inside TeamService's transaction, so a version only moves if the change it stamps commits.
+// Every event changes what the team page shows; only the team's own columns change what the listing shows. Member
+// names appear on both, so profile edits and deletions bump every team the user belongs to as well.
+@Component
+public class TeamVersionWriter {
+
+    private final TeamVersionRepository teamVersionRepository;
+
+    @Autowired
+    public TeamVersionWriter(TeamVersionRepository teamVersionRepository) {
+        this.teamVersionRepository = teamVersionRepository;
+    }
+
+    @EventListener
+    public void onTeamEvent(TeamEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!(event instanceof TeamEvent.TeamDeleted)) {
+            teamVersionRepository.bumpTeam(event.teamId(), now);
+        }
+        if (changesListing(event)) {
+            teamVersionRepository.bumpCatalog(now);
+        }
+    }
+
+    // runs before UserService's delete is flushed, so the user's membership rows are still there to be matched
+    @EventListener
+    public void onUserEvent(UserEvent event) {
+        if (event instanceof UserEvent.UserProfileUpdated || event instanceof UserEvent.UserDeleted) {
+            LocalDateTime now = LocalDateTime.now();
+            teamVersionRepository.bumpTeamsOfMember(event.userId(), now);
+            teamVersionRepository.bumpCatalog(now);
+        }
+    }
+
+    private static boolean changesListing(TeamEvent event) {
+        return switch (event) {
+            case TeamEvent.TeamCreated e -> true;
+            case TeamEvent.TeamUpdated e -> true;
+            case TeamEvent.TeamDeleted e -> true;
+            case TeamEvent.TeamDeactivated e -> true;
+            case TeamEvent.TeamReactivated e -> true;
+            case TeamEvent.OwnershipTransferred e -> true;
+            case TeamEvent.MemberAdded e -> false;
+            case TeamEvent.MemberRemoved e -> false;
+            case TeamEvent.ManagerPromoted e -> false;
+            case TeamEvent.ManagerDemoted e -> false;
+        };
+    }
+}
@@ -1,56 +1,74 @@
 package com.teamtasker.service;
 
+import com.teamtasker.auth.CustomUserDetails;
 import com.teamtasker.entity.Role;
 import com.teamtasker.entity.User;
+import com.teamtasker.event.UserEvent;
 import com.teamtasker.exception.*;
 import com.teamtasker.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.teamtasker.stats.Statistics;
+import com.teamtasker.stats.StatisticsCache;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.*;
 
 @Service
 @Transactional
+@Observed(name = "teamtasker.service")
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StatisticsCache statisticsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       StatisticsCache statisticsCache, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.statisticsCache = statisticsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public User registerUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        return register(user);
     }
 
     public User registerAdmin(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRole(Role.ADMIN);
-        return userRepository.save(user);
+        return register(user);
     }
 
     public User registerManager(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRole(Role.MANAGER);
-        return userRepository.save(user);
+        return register(user);
     }
 
     public boolean validatePassword(String rawPassword, String encodedPassword) {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
 
+    @Transactional(readOnly = true)
     public boolean isUsernameTaken(String username) {
         return userRepository.findByUsername(username).isPresent();
     }
 
+    @Transactional(readOnly = true)
     public boolean isEmailTaken(String email) {
         return userRepository.findByEmail(email).isPresent();
     }
@@ -58,23 +76,28 @@ public class UserService {
     //------------------------------------------------------------------------------------------------------------------
     // Search methods
 
+    @Transactional(readOnly = true)
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Integer userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found. UserID: " + userId));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username).orElseThrow(() -> new UserNotFoundException("User not found. Username: " + username));
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email).orElseThrow(() -> new UserNotFoundException("User not found. Email: " + email));
     }
 
     // Flexible search - username, first/last, first + last, last + first
+    @Transactional(readOnly = true)
     public Page<User> searchUsers(String searchTerm, Pageable pageable) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return Page.empty(pageable);
@@ -91,14 +114,16 @@ public class UserService {
         existingUser.setFirstName(updatedUser.getFirstName());
         existingUser.setLastName(updatedUser.getLastName());
         existingUser.setEmail(updatedUser.getEmail());
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserEvent.UserProfileUpdated(saved.getId(), currentUserId(), Instant.now()));
+        return saved;
     }
 
     public void deleteUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new UserNotFoundException("User not found. UserID: " + userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found. UserID: " + userId));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserEvent.UserDeleted(userId, user.getUsername(), currentUserId(), Instant.now()));
     }
 
     public void changePassword(Integer userId, String currentPassword, String newPassword) {
@@ -117,10 +142,14 @@ public class UserService {
     public void updateUserRole(Integer userId, Role newRole) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found. UserID: " + userId));
+        Role previousRole = user.getRole();
         user.setRole(newRole);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserEvent.UserRoleChanged(userId, previousRole, newRole, currentUserId(),
+                Instant.now()));
     }
 
+    @Transactional(readOnly = true)
     public Page<User> getUsersByRole(Role role, Pageable pageable) {
         return userRepository.findByRole(role, pageable);
     }
@@ -128,22 +157,42 @@ public class UserService {
     //------------------------------------------------------------------------------------------------------------------
     // Statistics
 
+    // served from StatisticsCache - no transaction, so a cached count does not even take a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUserCountByRole(Role role) {
-        return userRepository.countByRole(role);
+        return statisticsCache.getStatistics().usersByRole().getOrDefault(role, 0L);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<Role, Long> getUserCountsByRole() {
-        Map<Role, Long> counts = new HashMap<>();
-        for (Role role : Role.values()) {
-            counts.put(role, getUserCountByRole(role));
-        }
-        return counts;
+        return statisticsCache.getStatistics().usersByRole();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<String, Object> getUserStatistics() {
+        Statistics statistics = statisticsCache.getStatistics();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", userRepository.count());
-        stats.put("usersByRole", getUserCountsByRole());
+        stats.put("totalUsers", statistics.totalUsers());
+        stats.put("usersByRole", statistics.usersByRole());
         return stats;
     }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private User register(User user) {
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserEvent.UserRegistered(saved.getId(), saved.getRole(), currentUserId(),
+                Instant.now()));
+        return saved;
+    }
+
+    // admin actions take no acting user - they are attributed to whoever is logged in
+    private Integer currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details.getUser().getId();
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.teamtasker.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.event.TeamEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// One subscriber's SSE connection. Changes are coalesced per subject (latest change per member, latest activation
+// state, ...) until the sender gets to them, and at most one send task per stream is in flight - a slow client only
+// ever holds its own virtual thread and at most maxPending changes.
+//
+// Access is checked once, when the stream is opened, so the stream also watches for changes that take it away: the
+// subscriber being removed from the team ends it like a deleted team does. Admins see every team and are never cut
+// off. An ownership transfer keeps the previous owner on the team as a manager, so it revokes nobody.
+class TeamStream {
+
+    static final String UPDATE_EVENT = "team-update";
+    static final String RESYNC_EVENT = "resync";
+    static final String DELETED_EVENT = "team-deleted";
+    static final String REVOKED_EVENT = "access-revoked";
+
+    private final Integer teamId;
+    private final Integer userId;
+    private final boolean admin;
+    private final SseEmitter emitter;
+    private final int maxPending;
+    private final Executor sender;
+    private final ObjectMapper objectMapper;
+    private final Consumer<TeamStream> onClose;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // guarded by lock
+    private final Map<String, TeamEvent> pending = new LinkedHashMap<>();
+    private boolean resync;
+    private boolean heartbeat;
+    private boolean deleted;
+    private boolean revoked;
+
+    TeamStream(Integer teamId, Integer userId, boolean admin, SseEmitter emitter, int maxPending, Executor sender,
+               ObjectMapper objectMapper, Consumer<TeamStream> onClose) {
+        this.teamId = teamId;
+        this.userId = userId;
+        this.admin = admin;
+        this.emitter = emitter;
+        this.maxPending = maxPending;
+        this.sender = sender;
+        this.objectMapper = objectMapper;
+        this.onClose = onClose;
+    }
+
+    Integer getTeamId() {
+        return teamId;
+    }
+
+    // false when the stream had to fall back to a resync because the client is too far behind
+    boolean enqueue(TeamEvent event) {
+        boolean overflowed;
+        synchronized (lock) {
+            if (event instanceof TeamEvent.TeamDeleted) {
+                deleted = true;
+            } else if (revokesAccess(event)) {
+                revoked = true;
+            } else if (!resync) {
+                String subject = subjectOf(event);
+                pending.remove(subject);
+                pending.put(subject, event);
+                if (pending.size() > maxPending) {
+                    pending.clear();
+                    resync = true;
+                }
+            }
+            overflowed = resync;
+        }
+        schedule();
+        return !overflowed;
+    }
+
+    void heartbeat() {
+        synchronized (lock) {
+            heartbeat = true;
+        }
+        schedule();
+    }
+
+    void close() {
+        emitter.complete();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            sender.execute(this::flush);
+        }
+    }
+
+    // runs on a virtual thread; loops until nothing is pending so bursts arriving mid-send go out in the next message
+    private void flush() {
+        try {
+            while (true) {
+                List<TeamEvent> changes;
+                boolean sendResync;
+                boolean sendHeartbeat;
+                boolean sendDeleted;
+                boolean sendRevoked;
+                synchronized (lock) {
+                    if (pending.isEmpty() && !resync && !heartbeat && !deleted && !revoked) {
+                        // cleared under the lock, so an enqueue racing with this either is seen above or reschedules
+                        scheduled.set(false);
+                        return;
+                    }
+                    changes = new ArrayList<>(pending.values());
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat;
+                    sendDeleted = deleted;
+                    sendRevoked = revoked;
+                    resync = false;
+                    heartbeat = false;
+                    deleted = false;
+                }
+
+                if (sendDeleted) {
+                    emitter.send(SseEmitter.event().name(DELETED_EVENT).data(Map.of("teamId", teamId)));
+                    emitter.complete();
+                    return;
+                }
+                // nothing queued for the team goes out once the subscriber has lost access to it
+                if (sendRevoked) {
+                    emitter.send(SseEmitter.event().name(REVOKED_EVENT).data(Map.of("teamId", teamId)));
+                    emitter.complete();
+                    return;
+                }
+                if (sendResync) {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(Map.of("teamId", teamId)));
+                } else if (!changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().name(UPDATE_EVENT).data(toJson(changes), MediaType.APPLICATION_JSON));
+                } else if (sendHeartbeat) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away (or the emitter already completed) - drop the stream
+            emitter.completeWithError(e);
+            onClose.accept(this);
+        }
+    }
+
+    private String toJson(List<TeamEvent> changes) throws IOException {
+        List<Map<String, Object>> payload = new ArrayList<>(changes.size());
+        for (TeamEvent change : changes) {
+            payload.add(Map.of("type", change.getClass().getSimpleName(), "change", change));
+        }
+        return objectMapper.writeValueAsString(Map.of("teamId", teamId, "changes", payload));
+    }
+
+    private boolean revokesAccess(TeamEvent event) {
+        return !admin && event instanceof TeamEvent.MemberRemoved removed && removed.userId().equals(userId);
+    }
+
+    private static String subjectOf(TeamEvent event) {
+        return switch (event) {
+            case TeamEvent.MemberAdded e -> "member:" + e.userId();
+            case TeamEvent.MemberRemoved e -> "member:" + e.userId();
+            case TeamEvent.ManagerPromoted e -> "member:" + e.userId();
+            case TeamEvent.ManagerDemoted e -> "member:" + e.userId();
+            case TeamEvent.OwnershipTransferred e -> "owner";
+            case TeamEvent.TeamDeactivated e -> "active";
+            case TeamEvent.TeamReactivated e -> "active";
+            case TeamEvent.TeamUpdated e -> "details";
+            case TeamEvent.TeamCreated e -> "details";
+            case TeamEvent.TeamDeleted e -> "deleted";
+        };
+    }
+}
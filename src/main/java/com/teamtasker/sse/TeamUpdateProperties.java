@@ -0,0 +1,56 @@
+package com.teamtasker.sse;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.sse")
+public class TeamUpdateProperties {
+
+    // Open streams across all teams; beyond this new subscribers get a 503 and EventSource retries later
+    private int maxConnections = 20_000;
+
+    // Coalesced changes waiting for a slow client; past this the client is told to resync instead
+    private int maxPending = 64;
+
+    // Streams are closed after this and EventSource reconnects - keeps dead connections from piling up
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // Comment line sent to every stream so proxies keep idle connections open and dead ones are noticed
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+}
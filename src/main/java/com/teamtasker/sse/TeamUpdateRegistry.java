@@ -0,0 +1,123 @@
+package com.teamtasker.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.TeamEventSubscriber;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-team fan-out of committed TeamEvents to SSE subscribers. Idle streams cost an SseEmitter and a map entry - no
+// thread; sending happens on short-lived virtual threads, one per stream with something to send.
+@Component
+@EnableConfigurationProperties(TeamUpdateProperties.class)
+public class TeamUpdateRegistry implements TeamEventSubscriber {
+
+    private final TeamUpdateProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, Set<TeamStream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+    private final Counter resyncs;
+
+    @Autowired
+    public TeamUpdateRegistry(TeamUpdateProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.resyncs = Counter.builder("teamtasker.sse.resyncs").register(meterRegistry);
+        Gauge.builder("teamtasker.sse.connections", connections, AtomicInteger::get).register(meterRegistry);
+
+        long interval = properties.getHeartbeatInterval().toMillis();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // null when the connection limit is reached; the subscriber's access must already have been checked, a later
+    // removal from the team ends the stream unless they are an admin
+    public SseEmitter open(Integer teamId, Integer userId, boolean admin) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        return register(teamId, userId, admin, emitter) ? emitter : null;
+    }
+
+    boolean register(Integer teamId, Integer userId, boolean admin, SseEmitter emitter) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            return false;
+        }
+        TeamStream stream = new TeamStream(teamId, userId, admin, emitter, properties.getMaxPending(), senders,
+                objectMapper, this::remove);
+        // compute / computeIfPresent lock the team's entry, so a stream is never added to a set being dropped
+        streams.compute(teamId, (id, set) -> {
+            Set<TeamStream> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(stream);
+            return subscribers;
+        });
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+        return true;
+    }
+
+    @Override
+    public void onEvents(List<TeamEvent> events) {
+        for (TeamEvent event : events) {
+            Set<TeamStream> subscribers = streams.get(event.teamId());
+            if (subscribers == null) {
+                continue;
+            }
+            for (TeamStream stream : subscribers) {
+                if (!stream.enqueue(event)) {
+                    resyncs.increment();
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeats.shutdownNow();
+        streams.values().forEach(set -> set.forEach(TeamStream::close));
+        senders.shutdownNow();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    private void heartbeat() {
+        streams.values().forEach(set -> set.forEach(TeamStream::heartbeat));
+    }
+
+    // called from emitter callbacks and failed sends, possibly more than once per stream
+    private void remove(TeamStream stream) {
+        streams.computeIfPresent(stream.getTeamId(), (id, set) -> {
+            if (set.remove(stream)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
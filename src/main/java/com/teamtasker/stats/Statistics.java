@@ -0,0 +1,39 @@
+package com.teamtasker.stats;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Application-wide aggregates, immutable - StatisticsCache replaces the whole snapshot on every change
+public record Statistics(Map<Role, Long> usersByRole, long activeTeams, long inactiveTeams,
+                         Map<TeamRole, Long> membershipsByRole) {
+
+    public Statistics {
+        usersByRole = Collections.unmodifiableMap(complete(usersByRole, Role.class));
+        membershipsByRole = Collections.unmodifiableMap(complete(membershipsByRole, TeamRole.class));
+    }
+
+    public long totalUsers() {
+        return usersByRole.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long totalTeams() {
+        return activeTeams + inactiveTeams;
+    }
+
+    public long totalMemberships() {
+        return membershipsByRole.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // every constant present, 0 where nothing was counted
+    private static <E extends Enum<E>> Map<E, Long> complete(Map<E, Long> counts, Class<E> type) {
+        Map<E, Long> complete = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            complete.put(constant, counts.getOrDefault(constant, 0L));
+        }
+        return complete;
+    }
+}
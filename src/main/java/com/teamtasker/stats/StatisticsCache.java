@@ -0,0 +1,195 @@
+package com.teamtasker.stats;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.StatisticsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Statistics kept current from committed user and team events instead of counted per request: loaded once with the
+// grouped queries in StatisticsRepository, then every registration, role change and membership change adjusts the
+// counts in memory. Events that do not say enough to adjust them (a team or user deletion cascades memberships of
+// unknown roles; a new owner's previous role is unknown) mark them stale and the next read loads them again.
+//
+// Per-user team counts are cached the same way, for the most recently asked users only. A load that overlaps with
+// an event is returned but not kept, so a count read before a commit can never overwrite the adjusted one.
+//
+// Events only reach the instance that committed them, so with more than one instance the others drift until their
+// counts are older than max-age and loaded again; max-age bounds how stale any instance can be.
+@Component
+public class StatisticsCache {
+
+    private final StatisticsRepository statisticsRepository;
+    private final Counter loads;
+    private final long maxAgeNanos;
+    private final Map<Integer, Loaded<TeamCounts>> teamCounts;
+
+    private Statistics statistics;
+    private long loadedAt;
+    private boolean stale = true;
+    private long generation;
+
+    @Autowired
+    public StatisticsCache(StatisticsRepository statisticsRepository, MeterRegistry meterRegistry,
+                           @Value("${teamtasker.stats.max-users:10000}") int maxUsers,
+                           @Value("${teamtasker.stats.max-age:1m}") Duration maxAge) {
+        this.statisticsRepository = statisticsRepository;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.loads = Counter.builder("teamtasker.stats.loads")
+                .description("Statistics loaded from the database instead of served from memory")
+                .register(meterRegistry);
+        this.teamCounts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Loaded<TeamCounts>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public Statistics getStatistics() {
+        long loadingGeneration;
+        synchronized (this) {
+            if (!stale && !expired(loadedAt)) {
+                return statistics;
+            }
+            loadingGeneration = generation;
+        }
+        loads.increment();
+        long startedAt = System.nanoTime();
+        Statistics loaded = statisticsRepository.loadStatistics();
+        synchronized (this) {
+            if (generation == loadingGeneration) {
+                statistics = loaded;
+                loadedAt = startedAt;
+                stale = false;
+            }
+        }
+        return loaded;
+    }
+
+    public TeamCounts getTeamCounts(int userId) {
+        long loadingGeneration;
+        synchronized (this) {
+            Loaded<TeamCounts> cached = teamCounts.get(userId);
+            if (cached != null && !expired(cached.loadedAt())) {
+                return cached.value();
+            }
+            loadingGeneration = generation;
+        }
+        loads.increment();
+        long startedAt = System.nanoTime();
+        TeamCounts loaded = statisticsRepository.loadTeamCounts(userId);
+        synchronized (this) {
+            if (generation == loadingGeneration) {
+                teamCounts.put(userId, new Loaded<>(loaded, startedAt));
+            }
+        }
+        return loaded;
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Event listeners
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserEvent(UserEvent event) {
+        generation++;
+        switch (event) {
+            case UserEvent.UserRegistered registered -> adjustUsers(registered.role(), 1);
+            case UserEvent.UserRoleChanged changed -> {
+                adjustUsers(changed.previousRole(), -1);
+                adjustUsers(changed.newRole(), 1);
+            }
+            case UserEvent.UserDeleted deleted -> {
+                stale = true;
+                teamCounts.clear();
+            }
+            case UserEvent.UserProfileUpdated updated -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTeamEvent(TeamEvent event) {
+        generation++;
+        switch (event) {
+            case TeamEvent.TeamCreated created -> {
+                adjustTeams(1, 0);
+                adjustMembership(created.actorId(), TeamRole.OWNER, 1);
+            }
+            case TeamEvent.TeamDeleted deleted -> {
+                stale = true;
+                teamCounts.clear();
+            }
+            case TeamEvent.TeamDeactivated deactivated -> adjustTeams(-1, 1);
+            case TeamEvent.TeamReactivated reactivated -> adjustTeams(1, -1);
+            case TeamEvent.MemberAdded added -> adjustMembership(added.userId(), TeamRole.MEMBER, 1);
+            case TeamEvent.MemberRemoved removed -> adjustMembership(removed.userId(), removed.role(), -1);
+            case TeamEvent.ManagerPromoted promoted -> {
+                adjustMembership(promoted.userId(), TeamRole.MEMBER, -1);
+                adjustMembership(promoted.userId(), TeamRole.MANAGER, 1);
+            }
+            case TeamEvent.ManagerDemoted demoted -> {
+                adjustMembership(demoted.userId(), TeamRole.MANAGER, -1);
+                adjustMembership(demoted.userId(), TeamRole.MEMBER, 1);
+            }
+            case TeamEvent.OwnershipTransferred transferred -> {
+                adjustMembership(transferred.previousOwnerId(), TeamRole.OWNER, -1);
+                adjustMembership(transferred.previousOwnerId(), TeamRole.MANAGER, 1);
+                stale = true;
+                teamCounts.remove(transferred.newOwnerId());
+            }
+            case TeamEvent.TeamUpdated updated -> {
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Helper methods
+
+    // measured from when the load started, so a slow query cannot stretch how long its result is served
+    private boolean expired(long loadedAt) {
+        return System.nanoTime() - loadedAt >= maxAgeNanos;
+    }
+
+    private void adjustUsers(Role role, long delta) {
+        if (statistics != null) {
+            Map<Role, Long> users = new EnumMap<>(statistics.usersByRole());
+            users.merge(role, delta, Long::sum);
+            statistics = new Statistics(users, statistics.activeTeams(), statistics.inactiveTeams(),
+                    statistics.membershipsByRole());
+        }
+    }
+
+    private void adjustTeams(long activeDelta, long inactiveDelta) {
+        if (statistics != null) {
+            statistics = new Statistics(statistics.usersByRole(), statistics.activeTeams() + activeDelta,
+                    statistics.inactiveTeams() + inactiveDelta, statistics.membershipsByRole());
+        }
+    }
+
+    private void adjustMembership(Integer userId, TeamRole role, long delta) {
+        if (statistics != null) {
+            Map<TeamRole, Long> memberships = new EnumMap<>(statistics.membershipsByRole());
+            memberships.merge(role, delta, Long::sum);
+            statistics = new Statistics(statistics.usersByRole(), statistics.activeTeams(),
+                    statistics.inactiveTeams(), memberships);
+        }
+        teamCounts.computeIfPresent(userId, (id, counts) ->
+                new Loaded<>(counts.value().plus(role, delta), counts.loadedAt()));
+    }
+
+    private record Loaded<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.teamtasker.stats;
+
+import com.teamtasker.entity.TeamRole;
+
+// One user's memberships: teams owned, teams with management rights (owned included), teams at all
+public record TeamCounts(long owned, long managed, long member) {
+
+    public static final TeamCounts NONE = new TeamCounts(0, 0, 0);
+
+    public TeamCounts plus(TeamRole role, long delta) {
+        return new TeamCounts(
+                owned + (role == TeamRole.OWNER ? delta : 0),
+                managed + (role.hasManagementRights() ? delta : 0),
+                member + delta);
+    }
+}
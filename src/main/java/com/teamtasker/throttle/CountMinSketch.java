@@ -0,0 +1,116 @@
+package com.teamtasker.throttle;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Approximate per-key attempt counts over a sliding window in fixed memory, however many distinct keys there are.
+// Two count-min tables - the current and the previous window - each depth x width counters. Under heavy traffic every
+// counter also carries everyone else's attempts, so the estimate is count-mean-min: each row's counter minus the mean
+// noise of that row, median over the rows, never more than the plain count-min estimate. Counting is lock-free; only
+// the once-per-window rotation, which clears the table that is two windows old, takes a lock.
+class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private final AtomicIntegerArray[] tables = new AtomicIntegerArray[2];
+    private final LongAdder[] totals = {new LongAdder(), new LongAdder()};
+    private final int width;
+    private final long windowNanos;
+    private volatile long epoch;
+
+    CountMinSketch(int width, long windowNanos, long now) {
+        this.width = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+        this.windowNanos = windowNanos;
+        this.tables[0] = new AtomicIntegerArray(DEPTH * this.width);
+        this.tables[1] = new AtomicIntegerArray(DEPTH * this.width);
+        this.epoch = now / windowNanos;
+    }
+
+    // counts one attempt and returns the estimate for the last two windows including it
+    int increment(long hash, long now) {
+        return count(hash, now, true);
+    }
+
+    int estimate(long hash, long now) {
+        return count(hash, now, false);
+    }
+
+    // plain count-min: never below the key's true count, however crowded the counters, but carries all their noise
+    int upperBound(long hash, long now) {
+        rotate(now);
+        int current = (int) (epoch & 1);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + index(hash, row);
+            min = Math.min(min, tables[current].get(index) + tables[current ^ 1].get(index));
+        }
+        return min;
+    }
+
+    // more than one attempt per 16 counters: from here on a key is likely enough to share a counter with another key
+    // in every row that its estimate cannot be taken as its own count
+    boolean crowded() {
+        return 16 * (totals[0].sum() + totals[1].sum()) >= width;
+    }
+
+    // three standard deviations of the noise left in an estimate once the counters are crowded; 0 while sparse
+    int margin() {
+        double perCounter = (double) (totals[0].sum() + totals[1].sum()) / width;
+        return perCounter < 1 ? 0 : (int) Math.ceil(3 * Math.sqrt(perCounter));
+    }
+
+    private int count(long hash, long now, boolean increment) {
+        rotate(now);
+        int current = (int) (epoch & 1);
+        AtomicIntegerArray table = tables[current];
+        AtomicIntegerArray previous = tables[current ^ 1];
+        if (increment) {
+            totals[current].increment();
+        }
+        long total = totals[0].sum() + totals[1].sum();
+
+        long[] corrected = new long[DEPTH];
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + index(hash, row);
+            long count = (increment ? table.incrementAndGet(index) : table.get(index)) + previous.get(index);
+            min = Math.min(min, count);
+            corrected[row] = count - (total - count) / (width - 1);
+        }
+        Arrays.sort(corrected);
+        long median = (corrected[DEPTH / 2 - 1] + corrected[DEPTH / 2]) / 2;
+        return (int) Math.max(Math.min(min, median), increment ? 1 : 0);
+    }
+
+    private void rotate(long now) {
+        long target = now / windowNanos;
+        long seen = epoch;
+        if (target == seen) {
+            return;
+        }
+        synchronized (this) {
+            seen = epoch;
+            if (target <= seen) {
+                return;
+            }
+            // skipped more than one window: both tables are stale
+            if (target - seen > 1) {
+                clear((int) (seen & 1));
+            }
+            clear((int) (target & 1));
+            epoch = target;
+        }
+    }
+
+    private int index(long hash, int row) {
+        return (int) KeyHash.mix(hash + row * 0x9E3779B97F4A7C15L) & (width - 1);
+    }
+
+    private void clear(int table) {
+        for (int i = 0; i < tables[table].length(); i++) {
+            tables[table].set(i, 0);
+        }
+        totals[table].reset();
+    }
+}
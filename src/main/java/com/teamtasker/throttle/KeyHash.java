@@ -0,0 +1,38 @@
+package com.teamtasker.throttle;
+
+import java.security.SecureRandom;
+
+// 64 bit key hashes, seeded per instance: String.hashCode collisions are trivial to construct, and a username that
+// collides with the victim's would let an attacker spend the victim's login budget.
+final class KeyHash {
+
+    private final long seed;
+
+    KeyHash() {
+        this(new SecureRandom().nextLong());
+    }
+
+    KeyHash(long seed) {
+        this.seed = seed;
+    }
+
+    // never 0 - the bucket table uses 0 for a free slot
+    long hash(String key) {
+        long hash = seed ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        hash = mix(hash ^ key.length());
+        return hash == 0 ? 1 : hash;
+    }
+
+    // MurmurHash3 fmix64 finaliser
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
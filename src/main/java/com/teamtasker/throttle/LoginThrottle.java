@@ -0,0 +1,54 @@
+package com.teamtasker.throttle;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+// Decides whether a login attempt may go on to the password check: the client address has to have a token, then the
+// username. An address that is out of tokens does not spend the username's, so one noisy client cannot use up a
+// user's budget on its own.
+public class LoginThrottle {
+
+    public enum Decision { ALLOWED, IP_LIMITED, USERNAME_LIMITED }
+
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter usernameLimiter;
+    private final LongSupplier clock;
+
+    public LoginThrottle(LoginThrottleProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    public LoginThrottle(LoginThrottleProperties properties, LongSupplier clock) {
+        this(properties, clock, new KeyHash());
+    }
+
+    // tests pass a fixed seed, so which keys share sketch counters is the same on every run
+    LoginThrottle(LoginThrottleProperties properties, LongSupplier clock, KeyHash keyHash) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        long window = properties.getSketchWindow().toNanos();
+        this.ipLimiter = new TokenBucketLimiter(properties.getIpBurst(), properties.getIpRefill().toNanos(),
+                properties.getBuckets(), properties.getTrackAfter(), properties.getSketchWidth(), window, keyHash, now);
+        this.usernameLimiter = new TokenBucketLimiter(properties.getUsernameBurst(),
+                properties.getUsernameRefill().toNanos(), properties.getBuckets(), properties.getTrackAfter(),
+                properties.getSketchWidth(), window, keyHash, now);
+    }
+
+    // username may be null or blank - a form without one is only limited by address
+    public Decision tryAcquire(String ip, String username) {
+        long now = clock.getAsLong();
+        if (!ipLimiter.tryAcquire(ip, now)) {
+            return Decision.IP_LIMITED;
+        }
+        if (username != null && !username.isBlank()
+                && !usernameLimiter.tryAcquire(username.trim().toLowerCase(Locale.ROOT), now)) {
+            return Decision.USERNAME_LIMITED;
+        }
+        return Decision.ALLOWED;
+    }
+
+    int trackedBuckets() {
+        long now = clock.getAsLong();
+        return ipLimiter.trackedBuckets(now) + usernameLimiter.trackedBuckets(now);
+    }
+}
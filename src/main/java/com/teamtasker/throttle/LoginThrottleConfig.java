@@ -0,0 +1,37 @@
+package com.teamtasker.throttle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoginThrottleProperties.class)
+@ConditionalOnProperty(name = "teamtasker.login-throttle.enabled", havingValue = "true", matchIfMissing = true)
+public class LoginThrottleConfig {
+
+    @Bean
+    public LoginThrottle loginThrottle(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        LoginThrottle throttle = new LoginThrottle(properties);
+        Gauge.builder("teamtasker.auth.throttle.buckets", throttle, LoginThrottle::trackedBuckets)
+                .description("Usernames and addresses currently holding a token bucket")
+                .register(meterRegistry);
+        return throttle;
+    }
+
+    // before the concurrency limit, so throttled logins never take one of its permits
+    @Bean
+    public FilterRegistrationBean<LoginThrottleFilter> loginThrottleFilter(LoginThrottle throttle,
+                                                                           LoginThrottleProperties properties,
+                                                                           MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LoginThrottleFilter> registration =
+                new FilterRegistrationBean<>(new LoginThrottleFilter(throttle, properties, meterRegistry));
+        registration.addUrlPatterns("/auth/login");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 20);
+        return registration;
+    }
+}
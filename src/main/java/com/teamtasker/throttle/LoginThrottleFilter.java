@@ -0,0 +1,75 @@
+package com.teamtasker.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Throttles POST /auth/login ahead of Spring Security, so a refused attempt costs no BCrypt hash, no user lookup and
+// no session. Refusals are a plain 429 with Retry-After; the failure handler and its counter never see them.
+//
+// Addresses come from getRemoteAddr(). Behind a load balancer that is the balancer's own address unless
+// server.forward-headers-strategy is set, which makes the container take the client from X-Forwarded-For - and only
+// when the request arrives from a trusted (internal) proxy, so clients cannot pick their own address.
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle throttle;
+    private final String ipRetryAfter;
+    private final String usernameRetryAfter;
+    private final Counter ipLimited;
+    private final Counter usernameLimited;
+
+    public LoginThrottleFilter(LoginThrottle throttle, LoginThrottleProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.throttle = throttle;
+        this.ipRetryAfter = String.valueOf(Math.max(1, properties.getIpRefill().toSeconds()));
+        this.usernameRetryAfter = String.valueOf(Math.max(1, properties.getUsernameRefill().toSeconds()));
+        this.ipLimited = throttledCounter(meterRegistry, "ip");
+        this.usernameLimited = throttledCounter(meterRegistry, "username");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        switch (throttle.tryAcquire(request.getRemoteAddr(), request.getParameter("username"))) {
+            case ALLOWED -> filterChain.doFilter(request, response);
+            case IP_LIMITED -> {
+                ipLimited.increment();
+                reject(response, ipRetryAfter);
+            }
+            case USERNAME_LIMITED -> {
+                usernameLimited.increment();
+                reject(response, usernameRetryAfter);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !request.getRequestURI().substring(request.getContextPath().length()).equals("/auth/login");
+    }
+
+    private static void reject(HttpServletResponse response, String retryAfter) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many login attempts, please try again later");
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("teamtasker.auth.throttled")
+                .description("Login attempts refused before authentication")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
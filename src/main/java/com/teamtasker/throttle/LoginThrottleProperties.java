@@ -0,0 +1,101 @@
+package com.teamtasker.throttle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teamtasker.login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+
+    // Per username: a burst of attempts, then one more per refill interval
+    private int usernameBurst = 5;
+    private Duration usernameRefill = Duration.ofSeconds(20);
+
+    // Per client address - higher, offices and mobile carriers put many users behind one address
+    private int ipBurst = 30;
+    private Duration ipRefill = Duration.ofSeconds(2);
+
+    // Bucket table slots per dimension (16 bytes each). Keys only get a bucket from their track-after'th attempt in
+    // a sketch window, before that the count-min sketch (sketch-width counters x 4 rows x 2 windows) covers them
+    private int buckets = 65536;
+    private int trackAfter = 3;
+    private int sketchWidth = 65536;
+    private Duration sketchWindow = Duration.ofMinutes(1);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getUsernameBurst() {
+        return usernameBurst;
+    }
+
+    public void setUsernameBurst(int usernameBurst) {
+        this.usernameBurst = usernameBurst;
+    }
+
+    public Duration getUsernameRefill() {
+        return usernameRefill;
+    }
+
+    public void setUsernameRefill(Duration usernameRefill) {
+        this.usernameRefill = usernameRefill;
+    }
+
+    public int getIpBurst() {
+        return ipBurst;
+    }
+
+    public void setIpBurst(int ipBurst) {
+        this.ipBurst = ipBurst;
+    }
+
+    public Duration getIpRefill() {
+        return ipRefill;
+    }
+
+    public void setIpRefill(Duration ipRefill) {
+        this.ipRefill = ipRefill;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public int getTrackAfter() {
+        return trackAfter;
+    }
+
+    public void setTrackAfter(int trackAfter) {
+        this.trackAfter = trackAfter;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public Duration getSketchWindow() {
+        return sketchWindow;
+    }
+
+    public void setSketchWindow(Duration sketchWindow) {
+        this.sketchWindow = sketchWindow;
+    }
+}
@@ -0,0 +1,106 @@
+package com.teamtasker.throttle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Token buckets per key (one username, one client address) in a fixed-size open-addressed table - memory does not
+// grow with the number of keys an attacker makes up. Each bucket is a single long in GCRA form: the time at which the
+// bucket will be full again ("theoretical arrival time"). Taking a token is one CAS that pushes it one refill interval
+// further; the request is refused when that would put it more than a full burst into the future.
+//
+// Most keys make a handful of attempts and never come close to their limit, so they never get a bucket: the count-min
+// sketch counts every attempt, and only a key whose count reaches track-after is given a slot, starting with the
+// tokens it has already used. When its probe window is full, the key may take over a bucket that has at most one token
+// in use - that key loses track of a single attempt - and only if there is none is it judged by the sketch alone,
+// against its burst plus the sketch's noise margin, never more than MAX_MARGIN.
+//
+// Once the counters are crowded the sketch cannot tell a key's own attempts from everyone else's: the noise-corrected
+// estimate can sit well below the key's true count, the plain count-min well above it. Then a key is let through
+// untracked only while even the plain count-min, which never undercounts, is low - so at most MAX_MARGIN attempts -
+// and its bucket starts full, since none of the count can be vouched for as its own. A key holding a bucket gets
+// between its burst and its burst plus MAX_MARGIN attempts, however big the flood.
+class TokenBucketLimiter {
+
+    private static final int PROBES = 8;
+    private static final int MAX_MARGIN = 4;
+
+    private final KeyHash keyHash;
+    private final CountMinSketch sketch;
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int burst;
+    private final int trackAfter;
+
+    TokenBucketLimiter(int burst, long intervalNanos, int buckets, int trackAfter, int sketchWidth,
+                       long sketchWindowNanos, KeyHash keyHash, long now) {
+        int size = Integer.highestOneBit(Math.max(buckets, 2) - 1) << 1;
+        this.keyHash = keyHash;
+        this.sketch = new CountMinSketch(sketchWidth, sketchWindowNanos, now);
+        // key hash and theoretical arrival time side by side
+        this.slots = new AtomicLongArray(2 * size);
+        this.mask = size - 1;
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = burst * intervalNanos;
+        this.burst = burst;
+        this.trackAfter = Math.min(trackAfter, burst);
+    }
+
+    boolean tryAcquire(String key, long now) {
+        long hash = keyHash.hash(key);
+        int attempts = sketch.increment(hash, now);
+        int margin = Math.min(sketch.margin(), MAX_MARGIN);
+        boolean crowded = sketch.crowded();
+        if (crowded ? sketch.upperBound(hash, now) < Math.min(trackAfter + margin, MAX_MARGIN + 1)
+                : attempts < trackAfter) {
+            return true;
+        }
+        int slot = slot(hash, now, crowded ? 0 : trackAfter - 1);
+        if (slot < 0) {
+            return attempts <= burst + margin;
+        }
+        while (true) {
+            long arrival = slots.get(slot + 1);
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (slots.compareAndSet(slot + 1, arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    // index of the key's hash in the slot array, claiming a slot if it has none, with the given tokens already used; -1
+    // when the probe window is full. A refilled bucket is indistinguishable from a new one, so it can be taken over,
+    // and so can one with a single token in use: a key that is really being hammered is always further into its burst.
+    private int slot(long hash, long now, int used) {
+        int home = (int) hash & mask;
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = 2 * ((home + probe) & mask);
+            if (slots.get(slot) == hash) {
+                return slot;
+            }
+        }
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = 2 * ((home + probe) & mask);
+            long owner = slots.get(slot);
+            long arrival = slots.get(slot + 1);
+            if ((owner == 0 || arrival - now <= intervalNanos) && slots.compareAndSet(slot, owner, hash)) {
+                slots.set(slot + 1, now + used * intervalNanos);
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    int trackedBuckets(long now) {
+        int tracked = 0;
+        for (int slot = 0; slot < slots.length(); slot += 2) {
+            if (slots.get(slot) != 0 && slots.get(slot + 1) > now) {
+                tracked++;
+            }
+        }
+        return tracked;
+    }
+}
@@ -0,0 +1,78 @@
+package com.teamtasker.tracing;
+
+import com.teamtasker.auth.CustomUserDetails;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+
+// Tags @Observed spans with the team / user ids the call was made for. High cardinality only, so the ids end up on
+// spans but never as metric tags. Plain ids and usernames are picked up only from the parameter names listed below,
+// so a new parameter that merely ends like one (a membershipId, a teamNameFilter) is not mistaken for it; a service
+// method that takes an id under another name has to be added here to be tagged.
+public class IdAttributesObservationFilter implements ObservationFilter {
+
+    public static final String TEAM_ID = "team.id";
+    public static final String USER_ID = "user.id";
+    public static final String USER_NAME = "user.name";
+    public static final String CURRENT_USER_ID = "current_user.id";
+    public static final String CURRENT_USER_NAME = "current_user.name";
+
+    private static final Map<String, String> ID_PARAMETERS = Map.of(
+            "teamId", TEAM_ID,
+            "userId", USER_ID,
+            "currentUserId", CURRENT_USER_ID);
+
+    private static final Map<String, String> USERNAME_PARAMETERS = Map.of(
+            "username", USER_NAME,
+            "newOwnerUsername", USER_NAME);
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        if (!(context instanceof ObservedAspect.ObservedAspectContext aspectContext)) {
+            return context;
+        }
+        ProceedingJoinPoint joinPoint = aspectContext.getProceedingJoinPoint();
+        if (!(joinPoint.getSignature() instanceof MethodSignature signature)) {
+            return context;
+        }
+
+        String[] names = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        if (names == null) {
+            return context;
+        }
+        for (int i = 0; i < args.length && i < names.length; i++) {
+            addAttribute(context, names[i], args[i]);
+        }
+        return context;
+    }
+
+    private void addAttribute(Observation.Context context, String name, Object arg) {
+        if (arg == null) {
+            return;
+        }
+        if (arg instanceof Integer id && ID_PARAMETERS.containsKey(name)) {
+            context.addHighCardinalityKeyValue(KeyValue.of(ID_PARAMETERS.get(name), id.toString()));
+        } else if (arg instanceof String username && USERNAME_PARAMETERS.containsKey(name)) {
+            context.addHighCardinalityKeyValue(KeyValue.of(USERNAME_PARAMETERS.get(name), username));
+        } else if (arg instanceof Team team && team.getId() != null) {
+            context.addHighCardinalityKeyValue(KeyValue.of(TEAM_ID, team.getId().toString()));
+        } else if (arg instanceof User user && user.getId() != null) {
+            String key = name.equals("currUser") ? CURRENT_USER_ID : USER_ID;
+            context.addHighCardinalityKeyValue(KeyValue.of(key, user.getId().toString()));
+        } else if (arg instanceof Authentication authentication) {
+            context.addHighCardinalityKeyValue(KeyValue.of(CURRENT_USER_NAME, authentication.getName()));
+            if (authentication.getPrincipal() instanceof CustomUserDetails details && details.getUser() != null) {
+                context.addHighCardinalityKeyValue(KeyValue.of(CURRENT_USER_ID, details.getUser().getId().toString()));
+            }
+        }
+    }
+}
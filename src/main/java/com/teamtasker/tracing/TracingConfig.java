@@ -0,0 +1,35 @@
+package com.teamtasker.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+// Spans for @Observed controllers and services (plus JDBC statements via datasource-micrometer). Boot picks up every
+// SpanExporter bean, so the file exporter runs alongside OTLP when management.otlp.tracing.endpoint is set.
+@Configuration
+public class TracingConfig {
+
+    // enables @Observed on the controllers and TeamService / UserService, which also keeps the teamtasker.service timer
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    @Bean
+    public IdAttributesObservationFilter idAttributesObservationFilter() {
+        return new IdAttributesObservationFilter();
+    }
+
+    // offline exporter for tests / local runs without a collector
+    @Bean
+    @ConditionalOnProperty("teamtasker.tracing.file")
+    public FileSpanExporter fileSpanExporter(@Value("${teamtasker.tracing.file}") String file, ObjectMapper objectMapper) {
+        return new FileSpanExporter(Path.of(file), objectMapper);
+    }
+}
@@ -0,0 +1,116 @@
+package com.teamtasker.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// HTTP request latency in the report window right after readiness (teamtasker.warmup.first.minute, tagged with
+// whether the warm-up ran) and one log line with p50 / p99 / max at the end of it - run once with
+// teamtasker.warmup.enabled=false and once without to see what the warm-up buys. Nothing is recorded after the window.
+public class FirstMinuteLatency implements ObservationHandler<ServerRequestObservationContext>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstMinuteLatency.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Duration window;
+    private final String warmup;
+
+    private volatile Timer timer;
+    private volatile long windowEnd;
+    private volatile boolean open;
+    private ScheduledExecutorService reporter;
+
+    public FirstMinuteLatency(MeterRegistry meterRegistry, Duration window, boolean warmupEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.window = window;
+        this.warmup = warmupEnabled ? "enabled" : "disabled";
+    }
+
+    // called once the warm-up has finished, opens the window and schedules the report
+    public void open() {
+        // registered here rather than up front so the percentile window starts with the report window and keeps every
+        // sample of it until the report is logged
+        timer = Timer.builder("teamtasker.warmup.first.minute")
+                .description("HTTP request latency in the first minute after readiness")
+                .tag("warmup", warmup)
+                .publishPercentiles(0.5, 0.99)
+                .distributionStatisticExpiry(window.multipliedBy(2))
+                .distributionStatisticBufferLength(1)
+                .register(meterRegistry);
+        windowEnd = System.nanoTime() + window.toNanos();
+        open = true;
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warmup-first-minute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.schedule(this::report, window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        if (open) {
+            long now = System.nanoTime();
+            if (now < windowEnd) {
+                context.put(FirstMinuteLatency.class, now);
+            } else {
+                open = false;
+            }
+        }
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        Long start = context.get(FirstMinuteLatency.class);
+        if (start != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+
+    void report() {
+        open = false;
+        if (timer == null) {
+            return;
+        }
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        if (snapshot.count() == 0) {
+            log.info("No requests in the {} after readiness (warm-up {})", window, warmup);
+            return;
+        }
+        double p50 = Double.NaN;
+        double p99 = Double.NaN;
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            if (percentile.percentile() == 0.5) {
+                p50 = percentile.value(TimeUnit.MILLISECONDS);
+            } else if (percentile.percentile() == 0.99) {
+                p99 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        log.info("First {} after readiness (warm-up {}): {} requests, p50 {} ms, p99 {} ms, max {} ms", window,
+                warmup, snapshot.count(), String.format("%.1f", p50), String.format("%.1f", p99),
+                String.format("%.1f", snapshot.max(TimeUnit.MILLISECONDS)));
+    }
+
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.teamtasker.warmup;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.fragment.TeamFragments;
+import com.teamtasker.service.TeamService;
+import com.teamtasker.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Runs the main read paths - team listing, my-teams, team view, user search, one page over HTTP - against whatever
+// is in the database once the application is ready, so the first real requests find JIT-compiled code, open pool
+// connections and parsed templates instead of the interpreter. Read-only. Readiness waits on WarmupHealthIndicator.
+public class Warmup implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Warmup.class);
+
+    public enum State { PENDING, RUNNING, DONE, SKIPPED, FAILED }
+
+    // first round against the mean of the second half of the rounds, per path
+    public record PathTiming(String path, double firstMillis, double warmMillis) {
+    }
+
+    private final TeamService teamService;
+    private final UserService userService;
+    private final TeamFragments teamFragments;
+    private final Environment environment;
+    private final WarmupProperties properties;
+    private final CompletableFuture<State> finished = new CompletableFuture<>();
+
+    private volatile State state = State.PENDING;
+    private volatile int completedIterations;
+    private volatile long elapsedMillis;
+    private volatile List<PathTiming> timings = List.of();
+    private volatile String error;
+    private volatile Thread thread;
+
+    public Warmup(TeamService teamService, UserService userService, TeamFragments teamFragments,
+                  Environment environment, WarmupProperties properties) {
+        this.teamService = teamService;
+        this.userService = userService;
+        this.teamFragments = teamFragments;
+        this.environment = environment;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            finish(State.SKIPPED);
+            return;
+        }
+        thread = Thread.ofPlatform().daemon().name("warmup").start(this::run);
+    }
+
+    void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        try {
+            List<WarmupPath> paths = paths();
+            long[] first = new long[paths.size()];
+            long[] warmTotal = new long[paths.size()];
+            int warmFrom = properties.getIterations() / 2;
+            int iteration = 0;
+            while (iteration < properties.getIterations() && System.nanoTime() < deadline
+                    && !Thread.currentThread().isInterrupted()) {
+                for (int i = 0; i < paths.size(); i++) {
+                    long pathStart = System.nanoTime();
+                    paths.get(i).round().accept(iteration);
+                    long nanos = System.nanoTime() - pathStart;
+                    if (iteration == 0) {
+                        first[i] = nanos;
+                    } else if (iteration >= warmFrom) {
+                        warmTotal[i] += nanos;
+                    }
+                }
+                completedIterations = ++iteration;
+                elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            int warmRounds = Math.max(iteration - Math.max(warmFrom, 1), 0);
+            List<PathTiming> result = new ArrayList<>();
+            for (int i = 0; i < paths.size(); i++) {
+                result.add(new PathTiming(paths.get(i).name(), first[i] / 1e6,
+                        warmRounds == 0 ? Double.NaN : warmTotal[i] / 1e6 / warmRounds));
+            }
+            timings = List.copyOf(result);
+            log.info("Warm-up done: {} rounds in {} ms{}", iteration, elapsedMillis, report());
+            finish(State.DONE);
+        } catch (RuntimeException e) {
+            // a broken warm-up must not keep the instance out of rotation - report ready, cold
+            error = e.toString();
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.warn("Warm-up failed after {} rounds, reporting ready anyway", completedIterations, e);
+            finish(State.FAILED);
+        }
+    }
+
+    // The subjects are picked once: the first active teams, their first owner for my-teams. Paths without a subject
+    // are left out - an empty database still warms listing, search and HTTP.
+    private List<WarmupPath> paths() {
+        List<Team> teams = teamService.getAllActiveTeams(PageRequest.of(0, properties.getTeams())).getContent();
+        User user = teams.isEmpty()
+                ? userService.getAllUsers(PageRequest.of(0, 1)).stream().findFirst().orElse(null)
+                : teams.getFirst().getOwner();
+        List<String> terms = properties.getSearchTerms();
+        Pageable page = PageRequest.of(0, 20);
+
+        List<WarmupPath> paths = new ArrayList<>();
+        paths.add(new WarmupPath("team listing", round -> {
+            teamService.getCatalogVersion();
+            teamService.getAllActiveTeams(page);
+            teamService.getAllTeams(page);
+        }));
+        if (user != null) {
+            paths.add(new WarmupPath("my teams", round -> {
+                teamService.getActiveTeamsByOwner(user);
+                teamService.getActiveTeamsByManager(user);
+                teamService.getActiveTeamsWithManagementRights(user);
+                teamService.getActiveTeamsByMember(user);
+            }));
+        }
+        if (!teams.isEmpty() && user != null) {
+            paths.add(new WarmupPath("team view", round -> {
+                Integer teamId = teams.get(round % teams.size()).getId();
+                teamService.getTeamVersion(teamId);
+                Team team = teamService.getTeamById(teamId);
+                teamService.hasViewAccess(team, user);
+                teamFragments.renderUncached(team);
+            }));
+        }
+        if (!terms.isEmpty()) {
+            paths.add(new WarmupPath("user search", round ->
+                    userService.searchUsers(terms.get(round % terms.size()), page)));
+        }
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port != null) {
+            String contextPath = environment.getProperty("server.servlet.context-path", "");
+            paths.add(new WarmupPath("http " + properties.getHttpPath(),
+                    httpRound(URI.create("http://localhost:" + port + contextPath + properties.getHttpPath()))));
+        }
+        return paths;
+    }
+
+    // gives up on the HTTP path after the first failure instead of failing the whole warm-up
+    private IntConsumer httpRound(URI uri) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+        boolean[] broken = {false};
+        return round -> {
+            if (broken[0]) {
+                return;
+            }
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException e) {
+                broken[0] = true;
+                log.warn("Warm-up request to {} failed, skipping it from now on: {}", uri, e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void finish(State result) {
+        state = result;
+        finished.complete(result);
+    }
+
+    private String report() {
+        StringBuilder report = new StringBuilder();
+        for (PathTiming timing : timings) {
+            report.append(String.format("%n  %-20s first %8.2f ms, warm %8.3f ms", timing.path(),
+                    timing.firstMillis(), timing.warmMillis()));
+        }
+        return report.toString();
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Status
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return finished.isDone();
+    }
+
+    // completes once the warm-up is done, failed or skipped
+    public CompletableFuture<State> finished() {
+        return finished;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<PathTiming> getTimings() {
+        return timings;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public void close() {
+        Thread running = thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    private record WarmupPath(String name, IntConsumer round) {
+    }
+}
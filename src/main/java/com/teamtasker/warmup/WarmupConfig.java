@@ -0,0 +1,36 @@
+package com.teamtasker.warmup;
+
+import com.teamtasker.fragment.TeamFragments;
+import com.teamtasker.service.TeamService;
+import com.teamtasker.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean(destroyMethod = "close")
+    public Warmup warmup(TeamService teamService, UserService userService, TeamFragments teamFragments,
+                         Environment environment, WarmupProperties properties, FirstMinuteLatency firstMinuteLatency) {
+        Warmup warmup = new Warmup(teamService, userService, teamFragments, environment, properties);
+        warmup.finished().thenRun(firstMinuteLatency::open);
+        return warmup;
+    }
+
+    // always registered - the readiness group names it, and disabled just means ready right away
+    @Bean
+    public WarmupHealthIndicator warmupHealthIndicator(Warmup warmup) {
+        return new WarmupHealthIndicator(warmup);
+    }
+
+    // an ObservationHandler, so it is created with the ObservationRegistry - which Flyway, and through it JPA, waits
+    // for. It must not depend on Warmup (and its services and repositories); Warmup opens it instead.
+    @Bean(destroyMethod = "close")
+    public FirstMinuteLatency firstMinuteLatency(MeterRegistry meterRegistry, WarmupProperties properties) {
+        return new FirstMinuteLatency(meterRegistry, properties.getReportWindow(), properties.isEnabled());
+    }
+}
@@ -0,0 +1,38 @@
+package com.teamtasker.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// "warmup" in the readiness group (/actuator/health/readiness): OUT_OF_SERVICE until the warm-up has finished.
+// Done, skipped and failed all count as ready - a failed warm-up only means a cold start, not a broken instance.
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final Warmup warmup;
+
+    public WarmupHealthIndicator(Warmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = warmup.isFinished() ? Health.up() : Health.outOfService();
+        health.withDetail("state", warmup.getState())
+                .withDetail("iterations", warmup.getCompletedIterations())
+                .withDetail("elapsedMs", warmup.getElapsedMillis());
+        if (!warmup.getTimings().isEmpty()) {
+            Map<String, String> paths = new LinkedHashMap<>();
+            for (Warmup.PathTiming timing : warmup.getTimings()) {
+                paths.put(timing.path(), String.format("first %.2f ms, warm %.3f ms",
+                        timing.firstMillis(), timing.warmMillis()));
+            }
+            health.withDetail("paths", paths);
+        }
+        if (warmup.getError() != null) {
+            health.withDetail("error", warmup.getError());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.teamtasker.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "teamtasker.warmup")
+public class WarmupProperties {
+
+    // Off: readiness is reported as soon as the application is ready, the first-minute report still runs as baseline
+    private boolean enabled = true;
+
+    // Rounds over all read paths; stops early once max-duration is used up, readiness never waits longer than that
+    private int iterations = 200;
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    // Active teams the team view path cycles through, and the terms the user search path cycles through
+    private int teams = 20;
+    private List<String> searchTerms = List.of("admin", "user", "an", "e");
+
+    // Requested over loopback every round - Tomcat, the security filter chain, MVC and a full Thymeleaf page
+    private String httpPath = "/auth/login";
+
+    // Window after readiness in which request latency goes into teamtasker.warmup.first.minute
+    private Duration reportWindow = Duration.ofMinutes(1);
+
+    //------------------------------------------------------------------------------------------------------------------
+    // Getters and Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public void setTeams(int teams) {
+        this.teams = teams;
+    }
+
+    public List<String> getSearchTerms() {
+        return searchTerms;
+    }
+
+    public void setSearchTerms(List<String> searchTerms) {
+        this.searchTerms = searchTerms;
+    }
+
+    public String getHttpPath() {
+        return httpPath;
+    }
+
+    public void setHttpPath(String httpPath) {
+        this.httpPath = httpPath;
+    }
+
+    public Duration getReportWindow() {
+        return reportWindow;
+    }
+
+    public void setReportWindow(Duration reportWindow) {
+        this.reportWindow = reportWindow;
+    }
+}
@@ -0,0 +1,33 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update
+
+CREATE TABLE users (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(50)  NOT NULL,
+    last_name  VARCHAR(50)  NOT NULL,
+    email      VARCHAR(100) NOT NULL UNIQUE,
+    username   VARCHAR(30)  NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'MANAGER', 'USER'))
+);
+
+CREATE TABLE teams (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    owner_id    INTEGER      NOT NULL REFERENCES users (id),
+    is_active   BOOLEAN
+);
+
+CREATE TABLE team_managers (
+    team_id INTEGER NOT NULL REFERENCES teams (id),
+    user_id INTEGER NOT NULL REFERENCES users (id),
+    PRIMARY KEY (team_id, user_id)
+);
+
+CREATE TABLE team_members (
+    team_id INTEGER NOT NULL REFERENCES teams (id),
+    user_id INTEGER NOT NULL REFERENCES users (id),
+    PRIMARY KEY (team_id, user_id)
+);
@@ -0,0 +1,15 @@
+-- Indexes for the TeamRepository / UserRepository lookups that previously had none
+
+-- findByOwner*, countTeamsByOwner, the owner half of *TeamsWithManagementRights
+CREATE INDEX idx_teams_owner_active ON teams (owner_id, is_active);
+
+-- findByIsActiveTrue / findByIsActiveFalse paging
+CREATE INDEX idx_teams_active ON teams (id) WHERE is_active;
+CREATE INDEX idx_teams_inactive ON teams (id) WHERE NOT is_active;
+
+-- The primary keys only cover (team_id, user_id); "teams for this user" needs the reverse direction.
+-- findByMembersContaining*, countTeamsByMember, isUserAssociatedWithTeam
+CREATE INDEX idx_team_members_user_team ON team_members (user_id, team_id);
+
+-- findByManagersContaining*, countTeamsByManager, userHasManagementRights
+CREATE INDEX idx_team_managers_user_team ON team_managers (user_id, team_id);
@@ -0,0 +1,36 @@
+-- Single membership table with a role column replaces team_members + team_managers.
+-- Owners were previously stored in both tables; they now get one OWNER row.
+
+CREATE TABLE team_memberships (
+    team_id   INTEGER     NOT NULL REFERENCES teams (id) ON DELETE CASCADE,
+    user_id   INTEGER     NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    role      VARCHAR(20) NOT NULL CHECK (role IN ('OWNER', 'MANAGER', 'MEMBER')),
+    joined_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (team_id, user_id) INCLUDE (role)
+);
+
+-- Covering index for "teams of this user" lookups, role checks answered from the index alone
+CREATE INDEX idx_team_memberships_user_team ON team_memberships (user_id, team_id) INCLUDE (role);
+
+-- Original join dates were never recorded, team creation time is the closest known value
+INSERT INTO team_memberships (team_id, user_id, role, joined_at)
+SELECT m.team_id,
+       m.user_id,
+       CASE
+           WHEN t.owner_id = m.user_id THEN 'OWNER'
+           WHEN EXISTS (SELECT 1 FROM team_managers tm WHERE tm.team_id = m.team_id AND tm.user_id = m.user_id)
+               THEN 'MANAGER'
+           ELSE 'MEMBER'
+       END,
+       t.created_at
+FROM team_members m
+JOIN teams t ON t.id = m.team_id;
+
+-- Owners missing from team_members (should not happen, but setOwner was the only guard)
+INSERT INTO team_memberships (team_id, user_id, role, joined_at)
+SELECT t.id, t.owner_id, 'OWNER', t.created_at
+FROM teams t
+WHERE NOT EXISTS (SELECT 1 FROM team_memberships m WHERE m.team_id = t.id AND m.user_id = t.owner_id);
+
+DROP TABLE team_managers;
+DROP TABLE team_members;
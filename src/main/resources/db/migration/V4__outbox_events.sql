@@ -0,0 +1,11 @@
+-- Transactional outbox: rows are inserted in the same transaction as the team change and deleted by the relay once
+-- the sink has accepted them. Relays lock batches with FOR UPDATE SKIP LOCKED so several nodes can drain in parallel.
+
+CREATE TABLE outbox_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(50)  NOT NULL,
+    aggregate_id   INTEGER      NOT NULL,
+    event_type     VARCHAR(100) NOT NULL,
+    payload        JSONB        NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL
+);
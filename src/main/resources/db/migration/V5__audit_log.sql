@@ -0,0 +1,23 @@
+-- Append-only audit trail, range-partitioned by month so old months can be detached / dropped without a bulk DELETE.
+-- Partitions are created on demand by AuditLogRepository.ensurePartition before the writer inserts into a new month.
+
+CREATE SEQUENCE audit_log_id_seq;
+
+CREATE TABLE audit_log (
+    id          BIGINT       NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    occurred_at TIMESTAMP(6) NOT NULL,
+    actor_id    INTEGER,
+    actor_name  VARCHAR(30),
+    action      VARCHAR(50)  NOT NULL,
+    target_type VARCHAR(20)  NOT NULL,
+    target_id   INTEGER      NOT NULL,
+    details     VARCHAR(500),
+    -- also the keyset for the unfiltered newest-first listing
+    PRIMARY KEY (occurred_at, id)
+) PARTITION BY RANGE (occurred_at);
+
+ALTER SEQUENCE audit_log_id_seq OWNED BY audit_log.id;
+
+-- "history of this team / user", newest first
+CREATE INDEX idx_audit_log_target ON audit_log (target_type, target_id, occurred_at DESC, id DESC);
+CREATE INDEX idx_audit_log_actor ON audit_log (actor_id, occurred_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Version stamps for conditional GET. teams.version is bumped on every change to the team or its roster (membership
+-- rows never touch the teams row on their own); team_catalog is a single row bumped only by changes that alter the
+-- team listing, so membership churn does not serialise on it. Both are written with version = version + 1 under the
+-- row lock, never from a value held in memory.
+
+ALTER TABLE teams ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE team_catalog (
+    id         SMALLINT     PRIMARY KEY CHECK (id = 1),
+    version    BIGINT       NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+INSERT INTO team_catalog (id, version, updated_at) VALUES (1, 0, LOCALTIMESTAMP);
@@ -0,0 +1,10 @@
+-- Full-text team search. The vector is generated by PostgreSQL from name (weight A) and description (weight B), so
+-- ts_rank puts name matches above description-only matches and no application code has to keep it in sync.
+-- Adding a stored generated column rewrites the table once.
+
+ALTER TABLE teams ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_teams_search ON teams USING GIN (search_vector);
@@ -0,0 +1,62 @@
+package com.teamtasker.startup;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// Parsed from --key=value arguments, e.g. --runs=5 --datasource-url=jdbc:postgresql://localhost:5332/teamtasker-db
+// --variants picks from jar, aot+cds (needs --extracted) and native (needs --native, the executable).
+record StartupOptions(Path jar, Path extracted, Path nativeImage, List<String> variants, Path report, int runs,
+                      Duration timeout, String path, boolean smoke,
+                      String datasourceUrl, String datasourceUsername, String datasourcePassword) {
+
+    static StartupOptions parse(String[] args) {
+        Path jar = null;
+        Path extracted = null;
+        Path nativeImage = null;
+        List<String> variants = List.of("jar", "aot+cds");
+        Path report = null;
+        int runs = 3;
+        Duration timeout = Duration.ofSeconds(120);
+        String path = "/auth/login";
+        boolean smoke = false;
+        String datasourceUrl = null;
+        String datasourceUsername = null;
+        String datasourcePassword = null;
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            String value = keyValue.length > 1 ? keyValue[1] : "";
+            switch (keyValue[0]) {
+                case "jar" -> jar = Path.of(value);
+                case "extracted" -> extracted = Path.of(value);
+                case "native" -> nativeImage = Path.of(value);
+                case "variants" -> variants = List.of(value.split(","));
+                case "report" -> report = Path.of(value);
+                case "runs" -> runs = Integer.parseInt(value);
+                case "timeout" -> timeout = Duration.parse("PT" + value.toUpperCase());
+                case "path" -> path = value;
+                case "smoke" -> smoke = value.isEmpty() || Boolean.parseBoolean(value);
+                case "datasource-url" -> datasourceUrl = value;
+                case "datasource-username" -> datasourceUsername = value;
+                case "datasource-password" -> datasourcePassword = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (jar == null) {
+            throw new IllegalArgumentException("--jar is required");
+        }
+        if (variants.contains("aot+cds") && extracted == null) {
+            throw new IllegalArgumentException("--extracted is required for the aot+cds variant");
+        }
+        if (variants.contains("native") && nativeImage == null) {
+            throw new IllegalArgumentException("--native is required for the native variant");
+        }
+        return new StartupOptions(jar, extracted, nativeImage, variants, report, runs, timeout, path, smoke,
+                datasourceUrl, datasourceUsername, datasourcePassword);
+    }
+
+    StartupOptions withDatasource(String url, String username, String password) {
+        return new StartupOptions(jar, extracted, nativeImage, variants, report, runs, timeout, path, smoke,
+                url, username, password);
+    }
+}
@@ -0,0 +1,224 @@
+package com.teamtasker.startup;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Entry point for `mvn -Pstartup verify` and `mvn -Pnative verify` (arguments via -Dstartup.args="...").
+// Boots the application as separate processes - the plain jar, the extracted jar with the AOT initializers and the
+// CDS archive, the native executable - and reports the time from process launch until the first successful response
+// on --path plus the resident set size after it, median of --runs boots each. With --smoke every boot also has to
+// log in as the seeded admin and render the dashboard. Without --datasource-url PostgreSQL is started in a container.
+public class StartupProbe {
+
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    public static void main(String[] args) throws Exception {
+        StartupOptions options = StartupOptions.parse(args);
+        if (options.datasourceUrl() != null) {
+            measure(options);
+            return;
+        }
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")) {
+            postgres.start();
+            measure(options.withDatasource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        }
+    }
+
+    private static void measure(StartupOptions options) throws Exception {
+        List<Variant> variants = options.variants().stream().map(name -> variant(name, options)).toList();
+
+        // first boot applies the Flyway migrations and warms the OS page cache - not measured
+        boot(variants.getFirst(), options, "prime");
+
+        StringBuilder report = new StringBuilder(String.format("%-10s %6s %10s %10s %10s %12s%n",
+                "variant", "runs", "median ms", "min ms", "max ms", "median RSS MB"));
+        for (Variant variant : variants) {
+            List<Boot> boots = new ArrayList<>();
+            for (int run = 1; run <= options.runs(); run++) {
+                boots.add(boot(variant, options, String.valueOf(run)));
+            }
+            boots.sort(Comparator.comparingLong(Boot::millis));
+            List<Long> rss = boots.stream().map(Boot::rssKb).sorted().toList();
+            report.append(String.format("%-10s %6d %10d %10d %10d %12d%n", variant.name(), boots.size(),
+                    boots.get(boots.size() / 2).millis(), boots.getFirst().millis(), boots.getLast().millis(),
+                    rss.get(rss.size() / 2) / 1024));
+        }
+
+        System.out.println("Time to first request (" + options.path() + ") and resident memory:");
+        System.out.print(report);
+        if (options.report() != null) {
+            Files.writeString(options.report(), report);
+        }
+    }
+
+    private static Variant variant(String name, StartupOptions options) {
+        return switch (name) {
+            case "jar" -> new Variant(name, options.jar().toAbsolutePath().getParent(),
+                    List.of(JAVA, "-jar", options.jar().toAbsolutePath().toString()));
+            case "aot+cds" -> new Variant(name, options.extracted(),
+                    List.of(JAVA, "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                            "-jar", options.jar().getFileName().toString()));
+            case "native" -> new Variant(name, options.nativeImage().toAbsolutePath().getParent(),
+                    List.of(options.nativeImage().toAbsolutePath().toString()));
+            default -> throw new IllegalArgumentException("Unknown variant: " + name);
+        };
+    }
+
+    // launches the process, polls until the first 2xx, optionally runs the smoke check, then stops the process again
+    private static Boot boot(Variant variant, StartupOptions options, String run) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        // system properties for the JVMs, command line arguments for the native executable - both end up in the
+        // Spring environment
+        List<String> properties = List.of(
+                "server.port=" + port,
+                "spring.datasource.url=" + options.datasourceUrl(),
+                "spring.datasource.username=" + options.datasourceUsername(),
+                "spring.datasource.password=" + options.datasourcePassword(),
+                "spring.jpa.show-sql=false");
+        if (variant.name().equals("native")) {
+            properties.forEach(property -> command.add("--" + property));
+        } else {
+            properties.forEach(property -> command.add(1, "-D" + property));
+        }
+        Path log = variant.directory().resolve("boot-" + variant.name().replace('+', '-') + "-" + run + ".log");
+
+        String baseUrl = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + options.timeout().toNanos();
+        Process process = new ProcessBuilder(command)
+                .directory(variant.directory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long millis = awaitFirstResponse(client, baseUrl + options.path(), process, start, deadline, variant, log);
+            if (options.smoke()) {
+                smoke(client, baseUrl, deadline, variant, log);
+            }
+            return new Boot(millis, rssKb(process));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long awaitFirstResponse(HttpClient client, String url, Process process, long launched,
+                                           long deadline, Variant variant, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(variant.name() + " exited with " + process.exitValue()
+                        + " before serving a request, see " + log);
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException(variant.name() + " did not serve " + url + " in time, see " + log);
+    }
+
+    // Security, the auth handlers, JPA and Thymeleaf on one path: the admin is seeded after startup, so retry until
+    // the login goes through, then the page it redirects to has to render
+    private static void smoke(HttpClient client, String baseUrl, long deadline, Variant variant, Path log)
+            throws Exception {
+        while (System.nanoTime() < deadline) {
+            String loginPage = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            HttpResponse<Void> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(form("username", "admin", "password", "password123", "_csrf", csrf(loginPage)))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            String location = login.headers().firstValue("Location").orElse("");
+            if (login.statusCode() == 302 && !location.contains("/auth/login")) {
+                HttpResponse<String> landing = client.send(HttpRequest.newBuilder(URI.create(baseUrl).resolve(location))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                if (landing.statusCode() != 200) {
+                    throw new IllegalStateException(variant.name() + " answered " + landing.statusCode() + " on "
+                            + location + " after login, see " + log);
+                }
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException(variant.name() + " never accepted the admin login, see " + log);
+    }
+
+    //------------------------------------------------------------------------------------------------------------------
+
+    // Linux only; 0 where /proc is not available
+    private static long rssKb(Process process) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        Matcher matcher = RSS.matcher(Files.readString(status));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static String csrf(String html) {
+        Matcher matcher = CSRF.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token in login page");
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpRequest.BodyPublisher form(String... keyValues) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (!body.isEmpty()) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(keyValues[i], StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(keyValues[i + 1], StandardCharsets.UTF_8));
+        }
+        return HttpRequest.BodyPublishers.ofString(body.toString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, Path directory, List<String> command) {
+    }
+
+    private record Boot(long millis, long rssKb) {
+    }
+}
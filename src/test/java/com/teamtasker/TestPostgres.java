@@ -0,0 +1,17 @@
+package com.teamtasker;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// The database every Testcontainers test and benchmark runs against. Pinned to the major version docker-compose.yml
+// runs, so plans and timings do not shift under the tests when a new release is tagged latest.
+public final class TestPostgres {
+
+	public static final String IMAGE = "postgres:17";
+
+	private TestPostgres() {
+	}
+
+	public static PostgreSQLContainer<?> container() {
+		return new PostgreSQLContainer<>(IMAGE);
+	}
+}
@@ -0,0 +1,79 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.auth.CustomAuthFailureHandler;
+import com.teamtasker.auth.CustomLogoutSuccessHandler;
+import com.teamtasker.config.SecurityConfig;
+import com.teamtasker.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AuditController.class)
+@Import({SecurityConfig.class, CustomAuthFailureHandler.class, CustomLogoutSuccessHandler.class,
+		AuditControllerTests.Metrics.class})
+class AuditControllerTests {
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockitoBean
+	private AuditLogRepository auditLogRepository;
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void malformedCursorIsRejected() throws Exception {
+		for (String after : new String[]{"garbage", "yesterday_5", "2026-01-01T10:00_x"}) {
+			mvc.perform(get("/admin/audit").param("after", after))
+					.andExpect(status().isBadRequest());
+		}
+
+		verifyNoInteractions(auditLogRepository);
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void validCursorIsPassedToTheRepository() throws Exception {
+		AuditPage.Cursor cursor = new AuditPage.Cursor(LocalDateTime.of(2026, 1, 1, 10, 0), 5);
+		when(auditLogRepository.findPage(isNull(), isNull(), isNull(), eq(cursor), anyInt())).thenReturn(List.of());
+
+		mvc.perform(get("/admin/audit").param("after", cursor.toString()))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser(roles = "USER")
+	void usersCannotReadTheAuditLog() throws Exception {
+		mvc.perform(get("/admin/audit"))
+				.andExpect(status().isForbidden());
+
+		verifyNoInteractions(auditLogRepository);
+	}
+}
@@ -0,0 +1,83 @@
+package com.teamtasker.audit;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Batch inserts spanning several monthly partitions, read back newest first in keyset pages.
+// Skipped when Docker is not available.
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuditLogRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogRepositoryTests {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void keysetPagesAcrossPartitions() {
+		// 90 entries, one per day, crossing three month boundaries
+		LocalDateTime start = LocalDateTime.of(2026, 1, 15, 12, 0);
+		List<AuditEntry> entries = new ArrayList<>();
+		for (int i = 0; i < 90; i++) {
+			entries.add(new AuditEntry(null, start.plusDays(i), 1, "admin", AuditAction.TEAM_DELETED,
+					AuditEntry.TARGET_TEAM, i % 3, "name=team" + i));
+		}
+		auditLogRepository.insertAll(entries);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM pg_inherits WHERE inhparent = 'audit_log'::regclass", Integer.class))
+				.isGreaterThanOrEqualTo(4);
+
+		List<AuditEntry> seen = new ArrayList<>();
+		AuditPage.Cursor cursor = null;
+		do {
+			List<AuditEntry> page = auditLogRepository.findPage(AuditEntry.TARGET_TEAM, 1, null, cursor, 7);
+			seen.addAll(page);
+			cursor = page.size() < 7 ? null : AuditPage.Cursor.of(page.get(page.size() - 1));
+		} while (cursor != null);
+
+		assertThat(seen).hasSize(30)
+				.allSatisfy(entry -> assertThat(entry.targetId()).isEqualTo(1))
+				.extracting(AuditEntry::occurredAt).isSortedAccordingTo((a, b) -> b.compareTo(a));
+	}
+
+	@Test
+	void cursorRoundTrips() {
+		AuditPage.Cursor cursor = new AuditPage.Cursor(LocalDateTime.of(2026, 3, 1, 8, 30, 15, 123_456_000), 42);
+		assertThat(AuditPage.Cursor.parse(cursor.toString())).isEqualTo(cursor);
+	}
+}
@@ -0,0 +1,64 @@
+package com.teamtasker.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditRingBufferTests {
+
+	@Test
+	void rejectsWhenFullAndAcceptsAgainAfterDrain() {
+		AuditRingBuffer buffer = new AuditRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(entry(i))).isTrue();
+		}
+		assertThat(buffer.offer(entry(4))).isFalse();
+
+		List<AuditEntry> drained = new ArrayList<>();
+		assertThat(buffer.drainTo(drained, 2)).isEqualTo(2);
+		assertThat(buffer.offer(entry(5))).isTrue();
+		assertThat(buffer.drainTo(drained, 10)).isEqualTo(3);
+
+		assertThat(drained).extracting(AuditEntry::targetId).containsExactly(0, 1, 2, 3, 5);
+		assertThat(buffer.size()).isZero();
+	}
+
+	@Test
+	void concurrentProducersLoseNothingWhileThereIsRoom() {
+		int producers = 8;
+		int perProducer = 10_000;
+		AuditRingBuffer buffer = new AuditRingBuffer(1 << 17);
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			futures.add(CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					assertThat(buffer.offer(entry(producer * perProducer + i))).isTrue();
+				}
+			}));
+		}
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+		List<AuditEntry> drained = new ArrayList<>();
+		buffer.drainTo(drained, Integer.MAX_VALUE);
+		assertThat(drained).hasSize(producers * perProducer)
+				.extracting(AuditEntry::targetId).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void capacityMustBePowerOfTwo() {
+		assertThatThrownBy(() -> new AuditRingBuffer(1000)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static AuditEntry entry(int targetId) {
+		return new AuditEntry(null, LocalDateTime.now(), 1, "admin", AuditAction.USER_DELETED,
+				AuditEntry.TARGET_USER, targetId, null);
+	}
+}
@@ -0,0 +1,53 @@
+package com.teamtasker.config;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.event.TeamEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	@BeforeEach
+	void setUp() {
+		new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void entitiesAreReadableByHibernateAndTemplates() {
+		assertThat(RuntimeHintsPredicates.reflection().onType(Team.class)
+				.withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+				.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(User.class, "getFullName").invoke()).accepts(hints);
+	}
+
+	@Test
+	void teamEventsCanBeSerialised() {
+		for (Class<?> event : TeamEvent.class.getPermittedSubclasses()) {
+			assertThat(RuntimeHintsPredicates.reflection().onType(event)).accepts(hints);
+		}
+	}
+
+	@Test
+	void templatesAndMigrationsAreBundled() {
+		assertThat(RuntimeHintsPredicates.resource().forResource("templates/teams/fragments.html")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("templates/auth/login.html")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V6__team_versions.sql")).accepts(hints);
+	}
+
+	@Test
+	void statementCountingProxiesCanBeCreated() {
+		assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class)).accepts(hints);
+	}
+}
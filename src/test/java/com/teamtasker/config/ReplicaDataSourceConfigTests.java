@@ -0,0 +1,59 @@
+package com.teamtasker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceConfigTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(Primary.class, ReplicaDataSourceConfig.class)
+			.withPropertyValues(
+					"spring.datasource.url=jdbc:postgresql://localhost:1/primary",
+					"spring.datasource.username=app",
+					"spring.datasource.password=secret",
+					"teamtasker.datasource.replica.urls=jdbc:postgresql://localhost:1/replica",
+					"teamtasker.datasource.replica.check-interval=1h");
+
+	@Configuration
+	@EnableConfigurationProperties(DataSourceProperties.class)
+	static class Primary {
+	}
+
+	@Test
+	void primaryKeepsSpringDatasourceHikariSettings() {
+		contextRunner.withPropertyValues(
+						"spring.datasource.hikari.maximum-pool-size=7",
+						"spring.datasource.hikari.connection-timeout=1500")
+				.run(context -> {
+					HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+					assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+					assertThat(primary.getConnectionTimeout()).isEqualTo(1500);
+					assertThat(primary.getPoolName()).isEqualTo("primary");
+				});
+	}
+
+	@Test
+	void replicasUseTheirOwnPrefix() {
+		contextRunner.withPropertyValues(
+						"spring.datasource.hikari.maximum-pool-size=7",
+						"teamtasker.datasource.replica.hikari.maximum-pool-size=3")
+				.run(context -> {
+					try (HikariDataSource replica = ReplicaDataSourceConfig.replicaPool(0,
+							context.getBean("replicaHikariConfig", HikariConfig.class), context.getBean(DataSourceProperties.class),
+							context.getBean(ReplicaProperties.class))) {
+						assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+						assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:postgresql://localhost:1/replica");
+						assertThat(replica.getUsername()).isEqualTo("app");
+						assertThat(replica.isReadOnly()).isTrue();
+						assertThat(replica.getPoolName()).isEqualTo("replica-0");
+					}
+				});
+	}
+}
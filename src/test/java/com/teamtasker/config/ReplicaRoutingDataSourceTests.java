@@ -0,0 +1,56 @@
+package com.teamtasker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTests {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replica = mock(DataSource.class);
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaConnection = mock(Connection.class);
+
+	@AfterEach
+	void clearTransactionState() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void writesGoToPrimary() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+
+		assertThat(routing.getConnection()).isSameAs(primaryConnection);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() throws SQLException {
+		when(replica.getConnection()).thenReturn(replicaConnection);
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertThat(routing.getConnection()).isSameAs(replicaConnection);
+	}
+
+	@Test
+	void failedReplicaFallsBackToPrimary() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertThat(routing.getConnection()).isSameAs(primaryConnection);
+		assertThat(routing.hasHealthyReplica()).isFalse();
+	}
+}
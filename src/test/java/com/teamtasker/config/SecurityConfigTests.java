@@ -0,0 +1,80 @@
+package com.teamtasker.config;
+
+import com.teamtasker.auth.CustomAuthFailureHandler;
+import com.teamtasker.auth.CustomLogoutSuccessHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = SecurityConfigTests.Scrape.class,
+		properties = "teamtasker.metrics.scrape-addresses=10.1.0.0/16")
+@Import({SecurityConfig.class, CustomAuthFailureHandler.class, CustomLogoutSuccessHandler.class,
+		SecurityConfigTests.Metrics.class, SecurityConfigTests.Scrape.class})
+class SecurityConfigTests {
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	// stands in for the actuator endpoint, which the MVC slice does not start
+	@RestController
+	static class Scrape {
+
+		@GetMapping("/actuator/prometheus")
+		String prometheus() {
+			return "# metrics";
+		}
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void scrapeNetworkReadsMetricsWithoutLogin() throws Exception {
+		mvc.perform(get("/actuator/prometheus").with(request -> {
+					request.setRemoteAddr("10.1.4.2");
+					return request;
+				}))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void anonymousOutsideTheScrapeNetworkIsSentToLogin() throws Exception {
+		mvc.perform(get("/actuator/prometheus").with(request -> {
+					request.setRemoteAddr("203.0.113.9");
+					return request;
+				}))
+				.andExpect(status().is3xxRedirection());
+	}
+
+	@Test
+	@WithMockUser(roles = "USER")
+	void usersCannotReadMetrics() throws Exception {
+		mvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void adminsCanReadMetrics() throws Exception {
+		mvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk());
+	}
+}
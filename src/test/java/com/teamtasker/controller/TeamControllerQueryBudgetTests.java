@@ -0,0 +1,138 @@
+package com.teamtasker.controller;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.auth.CustomUserDetails;
+import com.teamtasker.entity.User;
+import com.teamtasker.metrics.QueryBudget;
+import com.teamtasker.metrics.QueryBudgetInterceptor;
+import com.teamtasker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs the budgeted TeamController handlers against a real database with budgets enforced, each on the path that
+// issues the most statements, and checks the count is exactly the budget - an over-budget handler fails the request,
+// a budget that is never reached is too loose to catch a regression. Skipped when Docker is not available.
+@SpringBootTest(properties = {
+		"teamtasker.query-budget.enforce=true",
+		"teamtasker.query-budget.headers=true"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class TeamControllerQueryBudgetTests {
+
+	private static final int OWNER = 9001;
+	private static final int MEMBER = 9002;
+	private static final int OUTSIDER = 9003;
+	private static final int TEAM = 9001;
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, username, password, role) VALUES " +
+				"(9001, 'Olive', 'Owner', 'owner@budget.test', 'budget-owner', 'x', 'USER'), " +
+				"(9002, 'Mark', 'Member', 'member@budget.test', 'budget-member', 'x', 'USER'), " +
+				"(9003, 'Otto', 'Outsider', 'outsider@budget.test', 'budget-outsider', 'x', 'USER') " +
+				"ON CONFLICT DO NOTHING");
+		jdbcTemplate.update("INSERT INTO teams (id, name, description, created_at, owner_id, is_active) VALUES " +
+				"(9001, 'Budget Alpha', 'First', now(), 9001, true), " +
+				"(9002, 'Budget Beta', 'Second', now(), 9001, true) " +
+				"ON CONFLICT DO NOTHING");
+		jdbcTemplate.update("INSERT INTO team_memberships (team_id, user_id, role, joined_at) VALUES " +
+				"(9001, 9001, 'OWNER', now()), (9001, 9002, 'MEMBER', now()), (9002, 9001, 'OWNER', now()) " +
+				"ON CONFLICT DO NOTHING");
+	}
+
+	// catalog version, a full first page and its count
+	@Test
+	void listTeams() throws Exception {
+		expectBudgetUsed(perform(get("/teams").param("size", "1"), OWNER).andExpect(status().isOk()), "listTeams");
+	}
+
+	@Test
+	void listMyTeams() throws Exception {
+		expectBudgetUsed(perform(get("/teams/my-teams"), OWNER).andExpect(status().isOk()), "listMyTeams");
+	}
+
+	// a revalidation whose ETag is out of date: access check, version, then the full fetch
+	@Test
+	void viewTeam() throws Exception {
+		ResultActions result = perform(get("/teams/" + TEAM).header(HttpHeaders.IF_NONE_MATCH, "W/\"stale\""), MEMBER)
+				.andExpect(status().isOk());
+		expectBudgetUsed(result, "viewTeam");
+	}
+
+	@Test
+	void editTeam() throws Exception {
+		expectBudgetUsed(perform(get("/teams/" + TEAM + "/edit"), OWNER).andExpect(status().isOk()), "editTeam");
+	}
+
+	@Test
+	void teamEvents() throws Exception {
+		ResultActions result = perform(get("/teams/" + TEAM + "/events").accept(MediaType.TEXT_EVENT_STREAM), OUTSIDER)
+				.andExpect(status().isForbidden());
+		expectBudgetUsed(result, "teamEvents");
+	}
+
+	// the search path always goes to the database, the membership index may or may not be loaded yet
+	@Test
+	void showAddMemberForm() throws Exception {
+		ResultActions result = perform(get("/teams/" + TEAM + "/member/add").param("searchTerm", "otto"), OWNER)
+				.andExpect(status().isOk());
+		expectBudgetUsed(result, "showAddMemberForm");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private ResultActions perform(MockHttpServletRequestBuilder request, int userId) throws Exception {
+		User viewer = userRepository.findById(userId).orElseThrow();
+		return mvc.perform(request.with(user(new CustomUserDetails(viewer))));
+	}
+
+	private static void expectBudgetUsed(ResultActions result, String handler) {
+		int budget = Arrays.stream(TeamController.class.getMethods())
+				.filter(method -> method.getName().equals(handler))
+				.findFirst().orElseThrow()
+				.getAnnotation(QueryBudget.class).max();
+		String statements = result.andReturn().getResponse().getHeader(QueryBudgetInterceptor.QUERY_COUNT_HEADER);
+		assertThat(statements).as(handler).isEqualTo(String.valueOf(budget));
+	}
+}
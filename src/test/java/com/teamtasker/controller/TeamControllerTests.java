@@ -0,0 +1,157 @@
+package com.teamtasker.controller;
+
+import com.teamtasker.auth.CustomAuthFailureHandler;
+import com.teamtasker.auth.CustomLogoutSuccessHandler;
+import com.teamtasker.auth.CustomUserDetails;
+import com.teamtasker.config.SecurityConfig;
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.fragment.TeamFragments;
+import com.teamtasker.repository.TeamVersionRepository.TeamVersion;
+import com.teamtasker.service.TeamService;
+import com.teamtasker.service.UserService;
+import com.teamtasker.sse.TeamUpdateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@WebMvcTest(TeamController.class)
+@Import({SecurityConfig.class, CustomAuthFailureHandler.class, CustomLogoutSuccessHandler.class,
+		TeamControllerTests.Metrics.class})
+class TeamControllerTests {
+
+	private static final String FAR_FUTURE =
+			DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusYears(1));
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockitoBean
+	private TeamService teamService;
+
+	@MockitoBean
+	private UserService userService;
+
+	@MockitoBean
+	private TeamUpdateRegistry teamUpdateRegistry;
+
+	@MockitoBean
+	private TeamFragments teamFragments;
+
+	@Test
+	void nonMemberRevalidatingGets403WithoutValidators() throws Exception {
+		User outsider = account(2, Role.USER);
+		Team team = new Team("Private", "", account(1, Role.USER));
+		when(teamService.isUserAssociatedWithTeam(eq(7), any())).thenReturn(false);
+		when(teamService.getTeamVersion(7)).thenReturn(Optional.of(new TeamVersion(3, LocalDateTime.now())));
+		when(teamService.getTeamById(7)).thenReturn(team);
+		when(teamService.hasViewAccess(eq(team), any())).thenReturn(false);
+
+		mvc.perform(revalidate(outsider))
+				.andExpect(status().isForbidden())
+				.andExpect(view().name("error/403"))
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG))
+				.andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+		verify(teamService, never()).getTeamVersion(any());
+	}
+
+	@Test
+	void memberRevalidatingGets304WithoutLoadingTheTeam() throws Exception {
+		User member = account(2, Role.USER);
+		when(teamService.isUserAssociatedWithTeam(eq(7), any())).thenReturn(true);
+		when(teamService.getTeamVersion(7)).thenReturn(Optional.of(new TeamVersion(3, LocalDateTime.now())));
+
+		mvc.perform(revalidate(member))
+				.andExpect(status().isNotModified())
+				.andExpect(header().exists(HttpHeaders.ETAG));
+
+		verify(teamService, never()).getTeamById(any());
+	}
+
+	@Test
+	void revalidationWithoutVersionRowIsAnsweredFromTheLoadedTeam() throws Exception {
+		User member = account(2, Role.USER);
+		Team team = new Team("Alpha", "", account(1, Role.USER));
+		when(teamService.isUserAssociatedWithTeam(eq(7), any())).thenReturn(true);
+		when(teamService.getTeamVersion(7)).thenReturn(Optional.empty());
+		when(teamService.getTeamById(7)).thenReturn(team);
+		when(teamService.hasViewAccess(eq(team), any())).thenReturn(true);
+
+		mvc.perform(revalidate(member))
+				.andExpect(status().isNotModified())
+				.andExpect(header().exists(HttpHeaders.ETAG));
+
+		verifyNoInteractions(teamFragments);
+	}
+
+	@Test
+	void adminRevalidatesWithoutMembershipCheck() throws Exception {
+		when(teamService.getTeamVersion(7)).thenReturn(Optional.of(new TeamVersion(3, LocalDateTime.now())));
+
+		mvc.perform(revalidate(account(1, Role.ADMIN)))
+				.andExpect(status().isNotModified());
+
+		verify(teamService, never()).isUserAssociatedWithTeam(any(), any());
+	}
+
+	@Test
+	void nonMemberCannotSubscribeToTeamEvents() throws Exception {
+		when(teamService.isUserAssociatedWithTeam(eq(7), any())).thenReturn(false);
+
+		mvc.perform(get("/teams/7/events").accept(MediaType.TEXT_EVENT_STREAM)
+						.with(user(new CustomUserDetails(account(2, Role.USER)))))
+				.andExpect(status().isForbidden());
+
+		verifyNoInteractions(teamUpdateRegistry);
+	}
+
+	private static MockHttpServletRequestBuilder revalidate(User viewer) {
+		return get("/teams/7")
+				.header(HttpHeaders.IF_MODIFIED_SINCE, FAR_FUTURE)
+				.with(user(new CustomUserDetails(viewer)));
+	}
+
+	private static User account(int id, Role role) {
+		User user = new User("Test", "User" + id, "user" + id + "@example.com", "user" + id, "secret", role);
+		user.setId(id);
+		return user;
+	}
+}
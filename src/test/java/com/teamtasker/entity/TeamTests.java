@@ -0,0 +1,81 @@
+package com.teamtasker.entity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TeamTests {
+
+	private final User owner = user(1, "owner");
+	private final User alice = user(2, "alice");
+	private final User bob = user(3, "bob");
+	private Team team;
+
+	@BeforeEach
+	void setUp() {
+		team = new Team("Alpha", "", owner);
+	}
+
+	@Test
+	void membersViewWritesThroughToMemberships() {
+		team.getMembers().add(alice);
+		team.getMembers().add(bob);
+		team.getMembers().remove(bob);
+
+		assertThat(team.getMemberships()).containsOnlyKeys(owner, alice);
+		assertThat(team.getRoleOf(alice)).isEqualTo(TeamRole.MEMBER);
+		assertThat(team.getMembers()).containsExactlyInAnyOrder(owner, alice);
+	}
+
+	@Test
+	void managersViewPromotesAndDemotes() {
+		team.addMember(alice);
+
+		team.getManagers().add(alice);
+		team.getManagers().add(bob);
+		assertThat(team.getRoleOf(alice)).isEqualTo(TeamRole.MANAGER);
+		assertThat(team.getRoleOf(bob)).isEqualTo(TeamRole.MANAGER);
+
+		team.getManagers().removeIf(alice::equals);
+		assertThat(team.getRoleOf(alice)).isEqualTo(TeamRole.MEMBER);
+		assertThat(team.getManagers()).containsExactlyInAnyOrder(owner, bob);
+	}
+
+	@Test
+	void ownerCannotBeRemovedThroughTheViews() {
+		assertThatThrownBy(() -> team.getMembers().remove(owner)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> team.getManagers().remove(owner)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(team.getRoleOf(owner)).isEqualTo(TeamRole.OWNER);
+	}
+
+	@Test
+	void userSettersDelegateToTheTeams() {
+		Team beta = new Team("Beta", "", owner);
+		beta.setId(2);
+
+		alice.setMemberTeams(Set.of(team, beta));
+		alice.setManagedTeams(Set.of(beta));
+		assertThat(alice.getMemberTeams()).containsExactlyInAnyOrder(team, beta);
+		assertThat(beta.getRoleOf(alice)).isEqualTo(TeamRole.MANAGER);
+
+		alice.setMemberTeams(Set.of(beta));
+		assertThat(team.isMember(alice)).isFalse();
+		assertThat(alice.getMemberTeams()).containsExactly(beta);
+
+		owner.setMemberTeams(Set.of());
+		assertThat(team.getRoleOf(owner)).isEqualTo(TeamRole.OWNER);
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// Helper methods
+
+	private static User user(int id, String username) {
+		User user = new User(username, username, username + "@test.com", username, "x");
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,125 @@
+package com.teamtasker.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class TeamEventDispatcherTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private TeamEventDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.close();
+	}
+
+	@Test
+	void deliversEventsInOrderInBatches() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		dispatcher = dispatcher(100, 10, subscriber);
+
+		for (int i = 0; i < 50; i++) {
+			dispatcher.onTeamEvent(memberAdded(i));
+		}
+
+		await().atMost(5, TimeUnit.SECONDS).until(() -> subscriber.events().size() == 50);
+		assertThat(subscriber.events()).extracting(TeamEvent::teamId).isSorted();
+		assertThat(subscriber.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+	}
+
+	@Test
+	void slowSubscriberDropsOnlyItsOwnEvents() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TeamEventSubscriber stuck = new TeamEventSubscriber() {
+			@Override
+			public void onEvents(List<TeamEvent> events) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public String name() {
+				return "stuck";
+			}
+		};
+		RecordingSubscriber healthy = new RecordingSubscriber();
+		dispatcher = dispatcher(5, 1, stuck, healthy);
+
+		// the healthy lane keeps up with every event while the stuck one fills its queue of 5
+		for (int i = 0; i < 20; i++) {
+			dispatcher.onTeamEvent(memberAdded(i));
+			int delivered = i + 1;
+			await().atMost(5, TimeUnit.SECONDS).until(() -> healthy.events().size() == delivered);
+		}
+
+		assertThat(meterRegistry.counter("teamtasker.events.dropped", "subscriber", "stuck").count()).isGreaterThan(0);
+		assertThat(meterRegistry.counter("teamtasker.events.dropped", "subscriber", "healthy").count()).isZero();
+		release.countDown();
+	}
+
+	@Test
+	void failingBatchDoesNotStopTheLane() {
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onEvents(List<TeamEvent> events) {
+				if (events.get(0).teamId() == 0) {
+					throw new IllegalStateException("boom");
+				}
+				super.onEvents(events);
+			}
+		};
+		dispatcher = dispatcher(100, 1, subscriber);
+
+		dispatcher.onTeamEvent(memberAdded(0));
+		dispatcher.onTeamEvent(memberAdded(1));
+
+		await().atMost(5, TimeUnit.SECONDS).until(() -> subscriber.events().size() == 1);
+		assertThat(meterRegistry.counter("teamtasker.events.failed", "subscriber", "healthy").count()).isEqualTo(1);
+	}
+
+	private TeamEventDispatcher dispatcher(int capacity, int batchSize, TeamEventSubscriber... subscribers) {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		for (int i = 0; i < subscribers.length; i++) {
+			beanFactory.registerSingleton("subscriber" + i, subscribers[i]);
+		}
+		return new TeamEventDispatcher(beanFactory.getBeanProvider(TeamEventSubscriber.class), meterRegistry,
+				capacity, batchSize);
+	}
+
+	private static TeamEvent memberAdded(int teamId) {
+		return new TeamEvent.MemberAdded(teamId, 1, 2, Instant.now());
+	}
+
+	private static class RecordingSubscriber implements TeamEventSubscriber {
+
+		final List<List<TeamEvent>> batches = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onEvents(List<TeamEvent> events) {
+			batches.add(events);
+		}
+
+		@Override
+		public String name() {
+			return "healthy";
+		}
+
+		List<TeamEvent> events() {
+			return batches.stream().flatMap(List::stream).toList();
+		}
+	}
+}
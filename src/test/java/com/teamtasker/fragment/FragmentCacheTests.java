@@ -0,0 +1,52 @@
+package com.teamtasker.fragment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FragmentCacheTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void rendersOncePerKey() {
+		FragmentCache cache = new FragmentCache(1_000, meterRegistry);
+		AtomicInteger renders = new AtomicInteger();
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get("roster:1:1", () -> "<tr>" + renders.incrementAndGet() + "</tr>"))
+					.isEqualTo("<tr>1</tr>");
+		}
+
+		assertThat(renders).hasValue(1);
+		assertThat(meterRegistry.get("teamtasker.fragments.requests").tag("result", "hit").functionCounter().count())
+				.isEqualTo(4);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedOnceOverBudget() {
+		FragmentCache cache = new FragmentCache(30, meterRegistry);
+		cache.get("a", () -> "x".repeat(10));
+		cache.get("b", () -> "x".repeat(10));
+		cache.get("a", () -> "unused");
+		cache.get("c", () -> "x".repeat(15));
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.chars()).isEqualTo(25);
+		assertThat(cache.get("a", () -> "re-rendered")).isEqualTo("x".repeat(10));
+		assertThat(cache.get("b", () -> "re-rendered")).isEqualTo("re-rendered");
+	}
+
+	@Test
+	void neverStoresFragmentLargerThanTheBudget() {
+		FragmentCache cache = new FragmentCache(10, meterRegistry);
+
+		assertThat(cache.get("big", () -> "x".repeat(11))).hasSize(11);
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.chars()).isZero();
+	}
+}
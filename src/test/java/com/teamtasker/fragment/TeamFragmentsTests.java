@@ -0,0 +1,82 @@
+package com.teamtasker.fragment;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamFragmentsTests {
+
+	private FragmentCache cache;
+	private TeamFragments fragments;
+	private Team team;
+
+	@BeforeEach
+	void setUp() {
+		ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+		resolver.setPrefix("templates/");
+		resolver.setSuffix(".html");
+		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(resolver);
+		cache = new FragmentCache(100_000, new SimpleMeterRegistry());
+		fragments = new TeamFragments(templateEngine, cache, "/app", true);
+
+		User owner = user(1, "zoe", Role.MANAGER);
+		team = new Team("Alpha", "<b>first</b> team", owner);
+		team.setId(7);
+		team.addMember(user(2, "bob", Role.USER));
+		team.addManager(user(3, "amy", Role.USER));
+	}
+
+	@Test
+	void rosterListsOwnerThenManagersThenMembers() {
+		String roster = fragments.roster(team);
+
+		assertThat(roster).startsWith("<table").doesNotContain("<form");
+		assertThat(roster.indexOf("zoe")).isLessThan(roster.indexOf("amy"));
+		assertThat(roster.indexOf("amy")).isLessThan(roster.indexOf("bob"));
+	}
+
+	@Test
+	void summaryEscapesTeamText() {
+		String summary = fragments.summary(team);
+
+		assertThat(summary).contains("&lt;b&gt;first&lt;/b&gt; team").contains("3</span> members");
+	}
+
+	@Test
+	void cardsLinkUnderTheContextPath() {
+		Map<Integer, String> cards = fragments.cards(List.of(team));
+
+		assertThat(cards).containsOnlyKeys(7);
+		assertThat(cards.get(7)).contains("href=\"/app/teams/7\"");
+	}
+
+	@Test
+	void newVersionRendersAgain() {
+		String first = fragments.roster(team);
+		assertThat(fragments.roster(team)).isSameAs(first);
+
+		team.addMember(user(4, "cid", Role.USER));
+		ReflectionTestUtils.setField(team, "version", 1L);
+
+		assertThat(fragments.roster(team)).contains("cid");
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	private static User user(int id, String username, Role role) {
+		User user = new User("First", "Last", username + "@example.com", username, "secret", role);
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,100 @@
+package com.teamtasker.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final ConcurrencyLimitFilter filter;
+
+	ConcurrencyLimitFilterTests() {
+		properties.setInitialLimit(10);
+		limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+		filter = new ConcurrencyLimitFilter(limiter, properties);
+	}
+
+	@Test
+	void classifiesByCost() {
+		assertThat(ConcurrencyLimitFilter.priority(request("GET", "/teams"))).isEqualTo(Priority.CACHED_READ);
+		assertThat(ConcurrencyLimitFilter.priority(request("GET", "/teams/7"))).isEqualTo(Priority.CACHED_READ);
+		assertThat(ConcurrencyLimitFilter.priority(request("GET", "/auth/login"))).isEqualTo(Priority.CACHED_READ);
+		assertThat(ConcurrencyLimitFilter.priority(request("GET", "/teams/my-teams"))).isEqualTo(Priority.STANDARD);
+		assertThat(ConcurrencyLimitFilter.priority(request("POST", "/teams/7/edit"))).isEqualTo(Priority.STANDARD);
+		assertThat(ConcurrencyLimitFilter.priority(request("GET", "/teams/7/member/add")))
+				.isEqualTo(Priority.EXPENSIVE);
+		assertThat(ConcurrencyLimitFilter.priority(request("POST", "/teams/7/members/add")))
+				.isEqualTo(Priority.EXPENSIVE);
+	}
+
+	@Test
+	void shedsExpensiveRequestsFirst() {
+		List<AdaptiveConcurrencyLimiter.Permit> held = new ArrayList<>();
+		AdaptiveConcurrencyLimiter.Permit permit;
+		while ((permit = limiter.tryAcquire(Priority.EXPENSIVE)) != null) {
+			held.add(permit);
+		}
+		assertThat(held).hasSize(5);
+
+		while ((permit = limiter.tryAcquire(Priority.STANDARD)) != null) {
+			held.add(permit);
+		}
+		assertThat(held).hasSize(9);
+
+		assertThat(limiter.tryAcquire(Priority.CACHED_READ)).isNotNull();
+		assertThat(limiter.tryAcquire(Priority.CACHED_READ)).isNull();
+		assertThat(meterRegistry.get("teamtasker.concurrency.rejected").tag("priority", "expensive").counter()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void answersFast503WhenFull() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(Priority.CACHED_READ);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request("GET", "/teams/7"), response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(503);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	void releasesThePermitAfterTheRequest() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request("GET", "/teams"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(limiter.getInflight()).isZero();
+	}
+
+	@Test
+	void leavesEventStreamsAlone() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(Priority.CACHED_READ);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request("GET", "/teams/7/events"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	private static MockHttpServletRequest request(String method, String path) {
+		return new MockHttpServletRequest(method, path);
+	}
+}
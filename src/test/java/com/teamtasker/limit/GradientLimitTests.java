@@ -0,0 +1,58 @@
+package com.teamtasker.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTests {
+
+	private static final long MILLI = 1_000_000;
+
+	private final GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 100);
+
+	@Test
+	void growsWhileLatencyHolds() {
+		for (int i = 0; i < 200; i++) {
+			limit.update(10 * MILLI, limit.getLimit());
+		}
+
+		assertThat(limit.getLimit()).isGreaterThan(100);
+	}
+
+	@Test
+	void shrinksWhenRequestsStartQueueing() {
+		for (int i = 0; i < 200; i++) {
+			limit.update(10 * MILLI, limit.getLimit());
+		}
+		int before = limit.getLimit();
+
+		for (int i = 0; i < 30; i++) {
+			limit.update(100 * MILLI, limit.getLimit());
+		}
+
+		assertThat(limit.getLimit()).isLessThan(before / 2);
+	}
+
+	@Test
+	void ignoresRequestsFromLightLoad() {
+		for (int i = 0; i < 200; i++) {
+			limit.update(10 * MILLI, 1);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void staysWithinBounds() {
+		GradientLimit bounded = new GradientLimit(20, 25, 200, 1.5, 0.2, 100);
+		for (int i = 0; i < 1000; i++) {
+			bounded.update(MILLI, bounded.getLimit());
+		}
+		assertThat(bounded.getLimit()).isEqualTo(200);
+
+		for (int i = 0; i < 40; i++) {
+			bounded.update(1000 * MILLI, bounded.getLimit());
+		}
+		assertThat(bounded.getLimit()).isEqualTo(25);
+	}
+}
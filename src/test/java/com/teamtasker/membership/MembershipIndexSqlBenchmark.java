@@ -0,0 +1,150 @@
+package com.teamtasker.membership;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.repository.MembershipIndexRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The membership set questions against PostgreSQL and against MembershipIndex loaded from the same database, at 1M
+// users, one team of 50k and 50k teams of 20. SQL times include the round trip, as a request would pay it; the index
+// has none. Also reports the rebuild time and the bitmap size. Not part of the normal build:
+//   mvn test -Dtest=MembershipIndexSqlBenchmark -Dbenchmarks=true
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class MembershipIndexSqlBenchmark {
+
+	private static final int USERS = 1_000_000;
+	private static final int TEAMS = 50_000;
+	private static final int TEAM_SIZE = 20;
+	private static final int BIG_TEAM = 1;
+	private static final int BIG_TEAM_SIZE = 50_000;
+	private static final int SMALL_TEAM = 4242;
+	private static final int RUNS = 50;
+	private static final int INDEX_RUNS = 10_000;
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	private static DriverManagerDataSource dataSource;
+
+	@BeforeAll
+	static void migrateAndSeed() throws SQLException {
+		dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO users (first_name, last_name, email, username, password, role) " +
+					"SELECT 'First' || i, 'Last' || i, 'user' || i || '@test.com', 'user' || i, 'x', 'USER' " +
+					"FROM generate_series(1, " + USERS + ") i");
+			statement.execute("INSERT INTO teams (name, created_at, owner_id, is_active) " +
+					"SELECT 'team' || i, now(), " + USERS + " / " + BIG_TEAM_SIZE + ", true " +
+					"FROM generate_series(1, " + (TEAMS + 1) + ") i");
+			// every 20th user in the big team, 20 scattered users in every other team
+			statement.execute("INSERT INTO team_memberships (team_id, user_id, role, joined_at) " +
+					"SELECT " + BIG_TEAM + ", i * (" + USERS + " / " + BIG_TEAM_SIZE + "), " +
+					"CASE WHEN i = 1 THEN 'OWNER' ELSE 'MEMBER' END, now() " +
+					"FROM generate_series(1, " + BIG_TEAM_SIZE + ") i");
+			statement.execute("INSERT INTO team_memberships (team_id, user_id, role, joined_at) " +
+					"SELECT DISTINCT t, 1 + (t * 7919 + k * 104729) % " + USERS + ", 'MEMBER', now() " +
+					"FROM generate_series(2, " + (TEAMS + 1) + ") t, generate_series(1, " + TEAM_SIZE + ") k");
+			statement.execute("VACUUM ANALYZE");
+		}
+	}
+
+	@Test
+	void indexAgainstSql() throws SQLException {
+		MembershipIndex index = new MembershipIndex(new MembershipIndexRepository(new JdbcTemplate(dataSource)),
+				new DataSourceTransactionManager(dataSource), new MembershipIndexProperties(), new SimpleMeterRegistry());
+		long start = System.nanoTime();
+		index.rebuild();
+		double rebuildMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+		int userA = index.members(SMALL_TEAM).first();
+		int userB = index.members(SMALL_TEAM).last();
+
+		System.out.printf("membership queries @ %,d users, %,d teams (mean of %d SQL runs / %,d index runs)%n",
+				USERS, TEAMS + 1, RUNS, INDEX_RUNS);
+		System.out.printf("  index rebuild %.0f ms%n", rebuildMillis);
+		System.out.printf("  %-36s %12s %12s%n", "question", "SQL ms", "index ms");
+		report("users not in big team, first slice",
+				"SELECT u.id FROM users u WHERE NOT EXISTS (SELECT 1 FROM team_memberships m " +
+						"WHERE m.team_id = " + BIG_TEAM + " AND m.user_id = u.id) ORDER BY u.id LIMIT 21",
+				() -> index.usersNotInTeam(BIG_TEAM, 0, 21));
+		report("users not in big team, count",
+				"SELECT count(*) FROM users u WHERE NOT EXISTS (SELECT 1 FROM team_memberships m " +
+						"WHERE m.team_id = " + BIG_TEAM + " AND m.user_id = u.id)",
+				() -> index.countUsersNotInTeam(BIG_TEAM));
+		report("teams two users share",
+				"SELECT a.team_id FROM team_memberships a JOIN team_memberships b ON b.team_id = a.team_id " +
+						"WHERE a.user_id = " + userA + " AND b.user_id = " + userB,
+				() -> index.sharedTeams(userA, userB));
+		report("in small team, not in big team",
+				"SELECT a.user_id FROM team_memberships a WHERE a.team_id = " + SMALL_TEAM + " AND NOT EXISTS " +
+						"(SELECT 1 FROM team_memberships b WHERE b.team_id = " + BIG_TEAM + " AND b.user_id = a.user_id)",
+				() -> index.membersNotIn(SMALL_TEAM, BIG_TEAM));
+		report("in any of 10 teams",
+				"SELECT DISTINCT user_id FROM team_memberships WHERE team_id BETWEEN " + SMALL_TEAM + " AND " +
+						(SMALL_TEAM + 9),
+				() -> index.membersOfAny(SMALL_TEAM, SMALL_TEAM + 1, SMALL_TEAM + 2, SMALL_TEAM + 3, SMALL_TEAM + 4,
+						SMALL_TEAM + 5, SMALL_TEAM + 6, SMALL_TEAM + 7, SMALL_TEAM + 8, SMALL_TEAM + 9));
+
+		assertThat(index.countUsersNotInTeam(BIG_TEAM)).isEqualTo(USERS - BIG_TEAM_SIZE);
+		assertThat(index.sharedTeams(userA, userB)).contains(SMALL_TEAM);
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private static void report(String question, String sql, Supplier<?> query) throws SQLException {
+		System.out.printf("  %-36s %12.3f %12.5f%n", question, sqlMillis(sql), indexMillis(query));
+	}
+
+	private static double sqlMillis(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			drain(statement, sql); // warm-up
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				drain(statement, sql);
+			}
+			return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+		}
+	}
+
+	private static double indexMillis(Supplier<?> query) {
+		Object sink = null;
+		for (int i = 0; i < INDEX_RUNS; i++) {
+			sink = query.get(); // warm-up
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < INDEX_RUNS; i++) {
+			sink = query.get();
+		}
+		double millis = (System.nanoTime() - start) / 1_000_000.0 / INDEX_RUNS;
+		assertThat(sink).isNotNull();
+		return millis;
+	}
+
+	private static void drain(Statement statement, String sql) throws SQLException {
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				rs.getInt(1);
+			}
+		}
+	}
+}
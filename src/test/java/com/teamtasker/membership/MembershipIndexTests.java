@@ -0,0 +1,132 @@
+package com.teamtasker.membership;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.MembershipIndexRepository;
+import com.teamtasker.repository.MembershipIndexRepository.MembershipConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MembershipIndexTests {
+
+	private final MembershipIndexRepository repository = mock(MembershipIndexRepository.class);
+	private final MembershipIndex index = new MembershipIndex(repository, mock(PlatformTransactionManager.class),
+			new MembershipIndexProperties(), new SimpleMeterRegistry());
+
+	private Runnable duringLoad = () -> {
+	};
+
+	// users 1-6; team 10: 1 owner, 2 manager, 3 member; team 20: 2 owner, 3 and 4 members
+	@BeforeEach
+	void setUp() {
+		doAnswer(invocation -> {
+			IntConsumer consumer = invocation.getArgument(0);
+			for (int userId = 1; userId <= 6; userId++) {
+				consumer.accept(userId);
+			}
+			return null;
+		}).when(repository).forEachUser(any());
+		doAnswer(invocation -> {
+			MembershipConsumer consumer = invocation.getArgument(0);
+			consumer.accept(10, 1, TeamRole.OWNER);
+			consumer.accept(10, 2, TeamRole.MANAGER);
+			consumer.accept(10, 3, TeamRole.MEMBER);
+			duringLoad.run();
+			consumer.accept(20, 2, TeamRole.OWNER);
+			consumer.accept(20, 3, TeamRole.MEMBER);
+			consumer.accept(20, 4, TeamRole.MEMBER);
+			return null;
+		}).when(repository).forEachMembership(any());
+	}
+
+	@Test
+	void answersSetQueriesOnceLoaded() {
+		assertThat(index.isReady()).isFalse();
+		index.rebuild();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.managers(10)).containsExactly(1, 2);
+		assertThat(index.sharedTeams(2, 3)).containsExactly(10, 20);
+		assertThat(index.sharedTeams(1, 4)).isEmpty();
+		assertThat(index.membersOfAll(10, 20)).containsExactly(2, 3);
+		assertThat(index.membersOfAny(10, 20)).containsExactly(1, 2, 3, 4);
+		assertThat(index.membersNotIn(20, 10)).containsExactly(4);
+		assertThat(index.usersNotInTeam(10)).containsExactly(4, 5, 6);
+		assertThat(index.usersNotInTeam(99)).containsExactly(1, 2, 3, 4, 5, 6);
+	}
+
+	@Test
+	void followsTeamAndUserEvents() {
+		index.rebuild();
+		Instant now = Instant.now();
+
+		index.onTeamEvent(new TeamEvent.TeamCreated(30, "new", 5, now));
+		index.onTeamEvent(new TeamEvent.MemberAdded(30, 6, 5, now));
+		index.onTeamEvent(new TeamEvent.ManagerPromoted(30, 6, 5, now));
+		assertThat(index.members(30)).containsExactly(5, 6);
+		assertThat(index.managers(30)).containsExactly(5, 6);
+
+		index.onTeamEvent(new TeamEvent.MemberRemoved(10, 2, TeamRole.MANAGER, 1, now));
+		assertThat(index.members(10)).containsExactly(1, 3);
+		assertThat(index.managers(10)).containsExactly(1);
+		assertThat(index.teamsOf(2)).containsExactly(20);
+
+		index.onTeamEvent(new TeamEvent.TeamDeleted(20, "old", 2, now));
+		assertThat(index.teamsOf(3)).containsExactly(10);
+		assertThat(index.members(20)).isEmpty();
+
+		index.onUserEvent(new UserEvent.UserRegistered(7, Role.USER, null, now));
+		index.onUserEvent(new UserEvent.UserDeleted(3, "three", 1, now));
+		assertThat(index.members(10)).containsExactly(1);
+		assertThat(index.usersNotInTeam(10)).containsExactly(2, 4, 5, 6, 7);
+	}
+
+	@Test
+	void replaysEventsCommittedWhileLoading() {
+		Instant now = Instant.now();
+		duringLoad = () -> {
+			// team 10 has already been read, team 20 not yet
+			index.onTeamEvent(new TeamEvent.MemberAdded(10, 5, 1, now));
+			index.onTeamEvent(new TeamEvent.MemberRemoved(20, 4, TeamRole.MEMBER, 2, now));
+		};
+
+		index.rebuild();
+
+		assertThat(index.members(10)).containsExactly(1, 2, 3, 5);
+		assertThat(index.members(20)).containsExactly(2, 3);
+		assertThat(index.teamsOf(4)).isEmpty();
+	}
+
+	@Test
+	void handsOutCopies() {
+		index.rebuild();
+
+		RoaringBitmap members = index.members(10);
+		members.add(6);
+
+		assertThat(index.isMember(10, 6)).isFalse();
+	}
+
+	@Test
+	void pagesThroughUsersNotInTeam() {
+		index.rebuild();
+
+		assertThat(index.usersNotInTeam(20, 0, 2)).containsExactly(1, 5);
+		assertThat(index.usersNotInTeam(20, 2, 2)).containsExactly(6);
+		assertThat(index.usersNotInTeam(20, 3, 2)).isEmpty();
+		assertThat(index.countUsersNotInTeam(20)).isEqualTo(3);
+	}
+}
@@ -0,0 +1,43 @@
+package com.teamtasker.metrics;
+
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FirstRequestTimerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final FirstRequestTimer timer = new FirstRequestTimer(meterRegistry);
+
+	@Test
+	void unsetUntilTheFirstRequest() {
+		assertThat(gauge().value(TimeUnit.MILLISECONDS)).isNaN();
+	}
+
+	@Test
+	void keepsTheFirstRequestOnly() throws Exception {
+		timer.doFilter(new MockHttpServletRequest("GET", "/auth/login"), new MockHttpServletResponse(),
+				new MockFilterChain());
+		double first = gauge().value(TimeUnit.MILLISECONDS);
+
+		Thread.sleep(20);
+		timer.doFilter(new MockHttpServletRequest("GET", "/teams"), new MockHttpServletResponse(),
+				new MockFilterChain());
+
+		long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+		assertThat(first).isPositive().isLessThanOrEqualTo(sinceJvmStart);
+		assertThat(gauge().value(TimeUnit.MILLISECONDS)).isEqualTo(first);
+	}
+
+	private TimeGauge gauge() {
+		return meterRegistry.get("teamtasker.startup.first.request").timeGauge();
+	}
+}
@@ -0,0 +1,86 @@
+package com.teamtasker.metrics;
+
+import com.teamtasker.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetInterceptorTests {
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/teams");
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	void withinBudgetPassesAndExposesHeaders() throws Exception {
+		QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor(new SimpleMeterRegistry(), true, true);
+		HandlerMethod handler = handler("twoQueries");
+
+		interceptor.preHandle(request, response, handler);
+		issueStatements(2);
+		interceptor.postHandle(request, response, handler, null);
+
+		assertThat(response.getHeader(QueryBudgetInterceptor.QUERY_COUNT_HEADER)).isEqualTo("2");
+	}
+
+	@Test
+	void overBudgetFailsWhenEnforced() throws Exception {
+		QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor(new SimpleMeterRegistry(), false, true);
+		HandlerMethod handler = handler("twoQueries");
+
+		interceptor.preHandle(request, response, handler);
+		issueStatements(3);
+
+		assertThatThrownBy(() -> interceptor.postHandle(request, response, handler, null))
+				.isInstanceOf(QueryBudgetExceededException.class)
+				.hasMessageContaining("Budget: 2; Statements: 3");
+	}
+
+	@Test
+	void overBudgetOnlyWarnsWhenNotEnforced() throws Exception {
+		QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor(new SimpleMeterRegistry(), false, false);
+		HandlerMethod handler = handler("twoQueries");
+
+		interceptor.preHandle(request, response, handler);
+		issueStatements(3);
+		interceptor.postHandle(request, response, handler, null);
+
+		assertThat(response.getHeader(QueryBudgetInterceptor.QUERY_COUNT_HEADER)).isNull();
+	}
+
+	@Test
+	void countsResetPerRequest() throws Exception {
+		QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor(new SimpleMeterRegistry(), true, true);
+		HandlerMethod handler = handler("twoQueries");
+
+		issueStatements(5);
+		interceptor.preHandle(request, response, handler);
+		issueStatements(1);
+		interceptor.postHandle(request, response, handler, null);
+
+		assertThat(response.getHeader(QueryBudgetInterceptor.QUERY_COUNT_HEADER)).isEqualTo("1");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private static void issueStatements(int count) {
+		for (int i = 0; i < count; i++) {
+			QueryStats.current().record(1_000);
+		}
+	}
+
+	private static HandlerMethod handler(String name) throws NoSuchMethodException {
+		return new HandlerMethod(new BudgetedHandler(), BudgetedHandler.class.getMethod(name));
+	}
+
+	static class BudgetedHandler {
+		@QueryBudget(max = 2)
+		public String twoQueries() {
+			return "view";
+		}
+	}
+}
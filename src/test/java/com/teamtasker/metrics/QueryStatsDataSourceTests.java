@@ -0,0 +1,58 @@
+package com.teamtasker.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryStatsDataSourceTests {
+
+	private final DataSource target = mock(DataSource.class);
+	private final Connection connection = mock(Connection.class);
+	private final PreparedStatement prepared = mock(PreparedStatement.class);
+	private final Statement plain = mock(Statement.class);
+
+	@Test
+	void countsEveryExecutedStatement() throws SQLException {
+		when(target.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement("SELECT 1")).thenReturn(prepared);
+		when(connection.createStatement()).thenReturn(plain);
+		QueryStats stats = QueryStats.begin();
+
+		try (Connection wrapped = new QueryStatsDataSource(target).getConnection()) {
+			PreparedStatement statement = wrapped.prepareStatement("SELECT 1");
+			statement.setInt(1, 7);
+			statement.executeQuery();
+			statement.executeQuery();
+			wrapped.createStatement().execute("SELECT 2");
+		}
+
+		assertThat(stats.getStatements()).isEqualTo(3);
+		verify(prepared).setInt(1, 7);
+		verify(connection).close();
+	}
+
+	@Test
+	void failedStatementsCountAndRethrow() throws SQLException {
+		when(target.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement("SELECT 1")).thenReturn(prepared);
+		when(prepared.executeUpdate()).thenThrow(new SQLException("boom"));
+		QueryStats stats = QueryStats.begin();
+
+		Connection wrapped = new QueryStatsDataSource(target).getConnection();
+
+		assertThatThrownBy(() -> wrapped.prepareStatement("SELECT 1").executeUpdate())
+				.isInstanceOf(SQLException.class)
+				.hasMessage("boom");
+		assertThat(stats.getStatements()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,39 @@
+package com.teamtasker.outbox;
+
+import com.teamtasker.entity.OutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Test sink: keeps the most recent messages only. Nothing in it survives a restart, so it is never a production sink.
+class InMemoryOutboxSink implements OutboxSink {
+
+	private final int capacity;
+	private final Deque<OutboxEvent> recent = new ArrayDeque<>();
+	private long delivered;
+
+	InMemoryOutboxSink(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public synchronized void send(List<OutboxEvent> events) {
+		for (OutboxEvent event : events) {
+			if (recent.size() == capacity) {
+				recent.removeFirst();
+			}
+			recent.addLast(event);
+		}
+		delivered += events.size();
+	}
+
+	synchronized List<OutboxEvent> recent() {
+		return new ArrayList<>(recent);
+	}
+
+	synchronized long delivered() {
+		return delivered;
+	}
+}
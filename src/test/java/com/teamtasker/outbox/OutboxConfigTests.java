@@ -0,0 +1,44 @@
+package com.teamtasker.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OutboxConfigTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withUserConfiguration(OutboxConfig.class)
+			.withBean(OutboxEventRepository.class, () -> mock(OutboxEventRepository.class))
+			.withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+			.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+			.withBean(ObjectMapper.class, ObjectMapper::new);
+
+	@Test
+	void relayIsOffByDefault() {
+		contextRunner.run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(OutboxRelay.class));
+	}
+
+	@Test
+	void relayWithoutADurableSinkRefusesToStart() {
+		contextRunner.withPropertyValues("teamtasker.outbox.relay=true")
+				.run(context -> assertThat(context).getFailure()
+						.rootCause().hasMessageContaining("needs exactly one durable OutboxSink"));
+	}
+
+	@Test
+	void relayDrainsIntoTheFileSink(@TempDir Path dir) {
+		contextRunner.withPropertyValues("teamtasker.outbox.relay=true", "teamtasker.outbox.sink=file",
+						"teamtasker.outbox.poll-interval=1h", "teamtasker.outbox.file=" + dir.resolve("outbox.jsonl"))
+				.run(context -> assertThat(context).hasSingleBean(OutboxRelay.class).hasSingleBean(FileOutboxSink.class));
+	}
+}
@@ -0,0 +1,101 @@
+package com.teamtasker.outbox;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Relay throughput (rows/s) draining 200k outbox rows with 1, 2, 4 and 8 relays in parallel. Not part of the
+// normal build:
+//   mvn test -Dtest=OutboxRelayBenchmark -Dbenchmarks=true
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=16")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class OutboxRelayBenchmark {
+
+	private static final int ROWS = 200_000;
+	private static final int BATCH_SIZE = 500;
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void relayThroughput() throws SQLException {
+		System.out.printf("Outbox relay, %,d rows, batch size %d%n", ROWS, BATCH_SIZE);
+		for (int relays : new int[]{1, 2, 4, 8}) {
+			seed();
+
+			List<InMemoryOutboxSink> sinks = new ArrayList<>();
+			List<CompletableFuture<Void>> workers = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int i = 0; i < relays; i++) {
+				InMemoryOutboxSink sink = new InMemoryOutboxSink(BATCH_SIZE);
+				OutboxRelay relay = new OutboxRelay(outboxEventRepository, new TransactionTemplate(transactionManager),
+						sink, BATCH_SIZE, Duration.ofSeconds(10), new SimpleMeterRegistry());
+				sinks.add(sink);
+				workers.add(CompletableFuture.runAsync(relay::drain));
+			}
+			CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+			double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+			long delivered = sinks.stream().mapToLong(InMemoryOutboxSink::delivered).sum();
+			System.out.printf("  %d relay(s)  %8.2f s  %,10.0f rows/s%n", relays, seconds, delivered / seconds);
+
+			// SKIP LOCKED: no row delivered twice, none left behind
+			assertThat(delivered).isEqualTo(ROWS);
+			assertThat(outboxEventRepository.count()).isZero();
+		}
+	}
+
+	private void seed() throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+					"SELECT 'team', i % 1000, 'MemberAdded', " +
+					"jsonb_build_object('teamId', i % 1000, 'userId', i, 'actorId', 1), now() " +
+					"FROM generate_series(1, " + ROWS + ") i");
+			statement.execute("VACUUM ANALYZE outbox_events");
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.teamtasker.outbox;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.entity.OutboxEvent;
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.repository.OutboxEventRepository;
+import com.teamtasker.repository.UserRepository;
+import com.teamtasker.service.TeamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outbox rows share the team change's transaction, and concurrent relays deliver every row exactly once.
+// Skipped when Docker is not available.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TeamService.class, OutboxWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxRelayTests {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private TeamService teamService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void clearOutbox() {
+		outboxEventRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void teamChangesWriteOutboxRowsInTheSameTransaction() {
+		User owner = userRepository.save(user("outbox-owner"));
+		User member = userRepository.save(user("outbox-member"));
+		Team team = teamService.createTeam("outbox team", null, owner);
+		teamService.addMemberToTeam(team.getId(), member.getUsername(), owner);
+
+		// rolled back together with the promotion
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			teamService.promoteToManager(team.getId(), member.getUsername(), owner);
+			status.setRollbackOnly();
+		});
+
+		List<OutboxEvent> rows = outboxEventRepository.findAll();
+		assertThat(rows).extracting(OutboxEvent::getEventType).containsExactly("TeamCreated", "MemberAdded");
+		assertThat(rows).allSatisfy(row -> assertThat(row.getAggregateId()).isEqualTo(team.getId()));
+		assertThat(rows.get(1).getPayload()).contains("\"userId\": " + member.getId());
+	}
+
+	@Test
+	void concurrentRelaysDeliverEveryRowOnce() {
+		List<OutboxEvent> rows = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			rows.add(new OutboxEvent(OutboxWriter.TEAM_AGGREGATE, i, "MemberAdded", "{}"));
+		}
+		outboxEventRepository.saveAll(rows);
+
+		InMemoryOutboxSink first = new InMemoryOutboxSink(1_000);
+		InMemoryOutboxSink second = new InMemoryOutboxSink(1_000);
+		CompletableFuture.allOf(
+				CompletableFuture.runAsync(() -> relay(first, 50).drain()),
+				CompletableFuture.runAsync(() -> relay(second, 50).drain())
+		).join();
+
+		List<Long> delivered = new ArrayList<>();
+		first.recent().forEach(event -> delivered.add(event.getId()));
+		second.recent().forEach(event -> delivered.add(event.getId()));
+		assertThat(delivered).hasSize(1_000).doesNotHaveDuplicates();
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	@Test
+	void rejectedBatchStaysInTheOutbox() {
+		outboxEventRepository.save(new OutboxEvent(OutboxWriter.TEAM_AGGREGATE, 1, "TeamDeactivated", "{}"));
+
+		OutboxSink broken = events -> {
+			throw new IllegalStateException("broker down");
+		};
+
+		assertThat(relay(broken, 50).drain()).isZero();
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void slowSinkGivesTheBatchBack() {
+		outboxEventRepository.save(new OutboxEvent(OutboxWriter.TEAM_AGGREGATE, 1, "TeamDeactivated", "{}"));
+		InMemoryOutboxSink delivered = new InMemoryOutboxSink(10);
+		OutboxSink slow = events -> {
+			Thread.sleep(2_000);
+			delivered.send(events);
+		};
+
+		OutboxRelay relay = new OutboxRelay(outboxEventRepository, new TransactionTemplate(transactionManager), slow,
+				50, Duration.ofMillis(200), new SimpleMeterRegistry());
+
+		// rolled back after the timeout: the row is unlocked and another relay delivers it
+		assertThat(relay.drain()).isZero();
+		assertThat(relay(delivered, 50).drain()).isEqualTo(1);
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private OutboxRelay relay(OutboxSink sink, int batchSize) {
+		return new OutboxRelay(outboxEventRepository, new TransactionTemplate(transactionManager), sink, batchSize,
+				Duration.ofSeconds(10), new SimpleMeterRegistry());
+	}
+
+	private static User user(String username) {
+		return new User("First", "Last", username + "@test.com", username, "x", Role.USER);
+	}
+}
@@ -0,0 +1,90 @@
+package com.teamtasker.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrRecorderTests {
+
+	@TempDir
+	Path dumpDirectory;
+
+	private ProfilingProperties properties;
+	private JfrRecorder recorder;
+
+	@BeforeEach
+	void setUp() {
+		properties = new ProfilingProperties();
+		properties.setSlowCallThreshold(Duration.ZERO);
+		properties.setDumpDirectory(dumpDirectory);
+		properties.setLatencyThreshold(Duration.ofMillis(100));
+		properties.setMinSamples(10);
+		recorder = new JfrRecorder(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		recorder.close();
+	}
+
+	@Test
+	void onDemandRecordingContainsServiceCallEvents() throws Exception {
+		assertThat(recorder.start(Duration.ofMinutes(1))).isTrue();
+		assertThat(recorder.start(Duration.ofMinutes(1))).isFalse();
+
+		ServiceCallEvent event = new ServiceCallEvent();
+		event.begin();
+		event.service = "TeamService";
+		event.method = "getTeamById";
+		event.teamId = "42";
+		event.commit();
+
+		Path file = recorder.stop();
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertThat(events)
+					.filteredOn(e -> e.getEventType().getName().equals("com.teamtasker.ServiceCall"))
+					.anySatisfy(e -> assertThat(e.getString("teamId")).isEqualTo("42"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		assertThat(recorder.isRecording()).isFalse();
+		assertThat(recorder.stop()).isNull();
+	}
+
+	@Test
+	void p99BreachDumpsRingBufferOncePerCooldown() {
+		recorder.startRingBuffer();
+		LatencyBreachMonitor monitor = new LatencyBreachMonitor(recorder, properties);
+
+		// 1 slow request in 100 is exactly p99 - no breach
+		recordRequests(monitor, 99, 1);
+		assertThat(monitor.check()).isNull();
+
+		recordRequests(monitor, 95, 5);
+		Path dump = monitor.check();
+		assertThat(dump).isNotNull().startsWith(dumpDirectory).exists();
+
+		recordRequests(monitor, 95, 5);
+		assertThat(monitor.check()).isNull();
+	}
+
+	private void recordRequests(LatencyBreachMonitor monitor, int fast, int slow) {
+		for (int i = 0; i < fast; i++) {
+			monitor.record(Duration.ofMillis(5).toNanos());
+		}
+		for (int i = 0; i < slow; i++) {
+			monitor.record(Duration.ofMillis(250).toNanos());
+		}
+	}
+}
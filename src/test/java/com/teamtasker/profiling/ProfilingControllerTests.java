@@ -0,0 +1,106 @@
+package com.teamtasker.profiling;
+
+import com.teamtasker.auth.CustomAuthFailureHandler;
+import com.teamtasker.auth.CustomLogoutSuccessHandler;
+import com.teamtasker.config.SecurityConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProfilingController.class)
+@Import({SecurityConfig.class, CustomAuthFailureHandler.class, CustomLogoutSuccessHandler.class,
+		ProfilingControllerTests.Metrics.class})
+class ProfilingControllerTests {
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		ProfilingProperties profilingProperties() {
+			ProfilingProperties properties = new ProfilingProperties();
+			properties.setMaxRecordingDuration(Duration.ofMinutes(30));
+			return properties;
+		}
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockitoBean
+	private JfrRecorder recorder;
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void adminStartsRecording() throws Exception {
+		when(recorder.start(any())).thenReturn(true);
+
+		mvc.perform(post("/admin/profiling/recording/start").with(csrf()))
+				.andExpect(status().isAccepted());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void secondRecordingConflicts() throws Exception {
+		when(recorder.start(any())).thenReturn(false);
+
+		mvc.perform(post("/admin/profiling/recording/start").with(csrf()))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void nonPositiveDurationIsRejected() throws Exception {
+		for (String maxSeconds : new String[]{"0", "-5"}) {
+			mvc.perform(post("/admin/profiling/recording/start").param("maxSeconds", maxSeconds).with(csrf()))
+					.andExpect(status().isBadRequest());
+		}
+
+		verifyNoInteractions(recorder);
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void durationIsCappedAtTheConfiguredMaximum() throws Exception {
+		when(recorder.start(any())).thenReturn(true);
+
+		mvc.perform(post("/admin/profiling/recording/start").param("maxSeconds", "86400").with(csrf()))
+				.andExpect(status().isAccepted());
+		mvc.perform(post("/admin/profiling/recording/start").param("maxSeconds", "60").with(csrf()))
+				.andExpect(status().isAccepted());
+
+		verify(recorder).start(Duration.ofMinutes(30));
+		verify(recorder).start(Duration.ofSeconds(60));
+	}
+
+	@Test
+	@WithMockUser(roles = "USER")
+	void usersCannotRecord() throws Exception {
+		mvc.perform(post("/admin/profiling/recording/start").with(csrf()))
+				.andExpect(status().isForbidden());
+
+		verifyNoInteractions(recorder);
+	}
+}
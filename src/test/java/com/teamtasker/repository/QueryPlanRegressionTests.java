@@ -0,0 +1,240 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.entity.User;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Calls the hot repository queries on a seeded database, captures the SQL Hibernate and JdbcTemplate actually send
+// (with the bind values pgjdbc inlines into the statement text) and fails if its EXPLAIN falls back to a sequential
+// scan on the tables they filter. Skipped when Docker is not available.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TeamSearchRepository.class, StatisticsRepository.class, QueryPlanRegressionTests.StatementCapture.class})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTests {
+
+	private static final int USERS = 100_000;
+	private static final int TEAMS = 20_000;
+	private static final int MEMBERS_PER_TEAM = 10;
+	private static final int USER = 4242;
+
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private TeamRepository teamRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TeamSearchRepository teamSearchRepository;
+
+	@Autowired
+	private StatisticsRepository statisticsRepository;
+
+	@BeforeAll
+	static void migrateAndSeed() throws SQLException {
+		Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.load()
+				.migrate();
+
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO users (first_name, last_name, email, username, password, role) " +
+					"SELECT 'First' || i, 'Last' || i, 'user' || i || '@test.com', 'user' || i, 'x', 'USER' " +
+					"FROM generate_series(1, " + USERS + ") i");
+			statement.execute("INSERT INTO teams (name, created_at, owner_id, is_active) " +
+					"SELECT 'team' || i, now(), 1 + (i * 7) % " + USERS + ", i % 10 <> 0 " +
+					"FROM generate_series(1, " + TEAMS + ") i");
+			statement.execute("INSERT INTO team_memberships (team_id, user_id, role, joined_at) " +
+					"SELECT DISTINCT t, 1 + (t * 31 + k * 7919) % " + USERS + ", 'MEMBER', now() " +
+					"FROM generate_series(1, " + TEAMS + ") t, generate_series(1, " + MEMBERS_PER_TEAM + ") k");
+			statement.execute("UPDATE team_memberships SET role = 'MANAGER' WHERE (team_id, user_id) IN " +
+					"(SELECT team_id, min(user_id) FROM team_memberships GROUP BY team_id)");
+			statement.execute("ANALYZE");
+		}
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// TeamRepository
+
+	@Test
+	void findByMembersContainingAndIsActiveTrueUsesIndexes() throws SQLException {
+		User user = userRepository.getReferenceById(USER);
+		assertNoSeqScan(statementsOf(() -> teamRepository.findByMembersContainingAndIsActiveTrue(user)),
+				"teams", "team_memberships");
+	}
+
+	@Test
+	void findByManagersContainingAndIsActiveTrueUsesIndexes() throws SQLException {
+		User user = userRepository.getReferenceById(USER);
+		assertNoSeqScan(statementsOf(() -> teamRepository.findByManagersContainingAndIsActiveTrue(user)),
+				"teams", "team_memberships");
+	}
+
+	@Test
+	void findByOwnerAndIsActiveTrueUsesIndexes() throws SQLException {
+		User user = userRepository.getReferenceById(USER);
+		assertNoSeqScan(statementsOf(() -> teamRepository.findByOwnerAndIsActiveTrue(user)), "teams");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// TeamSearchRepository and StatisticsRepository
+
+	@Test
+	void teamSearchUsesSearchIndex() throws SQLException {
+		assertNoSeqScan(statementsOf(() -> teamSearchRepository.findPage("team" + USER, null, 20)), "teams");
+	}
+
+	@Test
+	void teamCountsOfUserUseIndexes() throws SQLException {
+		assertNoSeqScan(statementsOf(() -> statisticsRepository.loadTeamCounts(USER)), "team_memberships");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// UserRepository
+
+	@Test
+	void findUsersNotInTeamUsesMembershipIndex() throws SQLException {
+		// scanning users is inherent to "everyone not in the team"; the membership probe must stay indexed
+		assertNoSeqScan(statementsOf(() -> userRepository.findUsersNotInTeamSlice(42,
+				PageRequest.of(0, 20, Sort.by("id")))), "team_memberships");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// Helper methods
+
+	private static List<String> statementsOf(Runnable queries) {
+		statements.clear();
+		queries.run();
+		assertThat(statements).as("statements captured").isNotEmpty();
+		return List.copyOf(statements);
+	}
+
+	private static void assertNoSeqScan(List<String> sqls, String... tables) throws SQLException {
+		for (String sql : sqls) {
+			String plan = explain(sql);
+			for (String table : tables) {
+				assertThat(plan).as("plan for: %s", sql).doesNotContain("Seq Scan on " + table + " ");
+			}
+		}
+	}
+
+	private static String explain(String sql) throws SQLException {
+		StringJoiner plan = new StringJoiner("\n", "", "\n");
+		try (Connection connection = connect();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			while (rs.next()) {
+				plan.add(rs.getString(1));
+			}
+		}
+		return plan.toString();
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+	}
+
+	// Wraps the context's DataSource so every prepared statement executed on it is recorded as pgjdbc renders it,
+	// bind values included, which is exactly the text EXPLAIN needs
+	@TestConfiguration
+	static class StatementCapture {
+
+		@Bean
+		static BeanPostProcessor capturingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource ? new CapturingDataSource(dataSource) : bean;
+				}
+			};
+		}
+	}
+
+	static class CapturingDataSource extends DelegatingDataSource {
+
+		CapturingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection connection = super.getConnection();
+			return proxy(Connection.class, (method, args) -> {
+				Object result = invoke(connection, method, args);
+				if (result instanceof PreparedStatement statement && method.getName().startsWith("prepare")) {
+					return proxy(method.getReturnType(), (call, callArgs) -> {
+						if (call.getName().startsWith("execute") && callArgs == null) {
+							statements.add(statement.unwrap(PreparedStatement.class).toString());
+						}
+						return invoke(statement, call, callArgs);
+					});
+				}
+				return result;
+			});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, Call call) {
+			return (T) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(), new Class<?>[]{type},
+					(proxy, method, args) -> call.invoke(method, args));
+		}
+
+		@FunctionalInterface
+		private interface Call {
+			Object invoke(Method method, Object[] args) throws Throwable;
+		}
+	}
+}
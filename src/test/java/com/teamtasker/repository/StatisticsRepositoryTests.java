@@ -0,0 +1,67 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.stats.Statistics;
+import com.teamtasker.stats.TeamCounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The grouped statistics queries against the real schema. Skipped when Docker is not available.
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatisticsRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class StatisticsRepositoryTests {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private StatisticsRepository statisticsRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countsEverythingInOneStatement() {
+		jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, username, password, role) VALUES " +
+				"(1, 'A', 'A', 'a@test.com', 'a', 'x', 'ADMIN'), (2, 'B', 'B', 'b@test.com', 'b', 'x', 'USER'), " +
+				"(3, 'C', 'C', 'c@test.com', 'c', 'x', 'USER')");
+		jdbcTemplate.update("INSERT INTO teams (id, name, created_at, owner_id, is_active) VALUES " +
+				"(1, 'one', now(), 1, true), (2, 'two', now(), 2, false), (3, 'three', now(), 2, null)");
+		jdbcTemplate.update("INSERT INTO team_memberships (team_id, user_id, role, joined_at) VALUES " +
+				"(1, 1, 'OWNER', now()), (1, 2, 'MANAGER', now()), (1, 3, 'MEMBER', now()), " +
+				"(2, 2, 'OWNER', now()), (2, 3, 'MEMBER', now()), (3, 2, 'OWNER', now())");
+
+		Statistics statistics = statisticsRepository.loadStatistics();
+
+		assertThat(statistics.usersByRole()).containsEntry(Role.ADMIN, 1L).containsEntry(Role.USER, 2L)
+				.containsEntry(Role.MANAGER, 0L);
+		assertThat(statistics.activeTeams()).isEqualTo(1);
+		assertThat(statistics.inactiveTeams()).isEqualTo(2);
+		assertThat(statistics.membershipsByRole()).containsEntry(TeamRole.OWNER, 3L)
+				.containsEntry(TeamRole.MANAGER, 1L).containsEntry(TeamRole.MEMBER, 2L);
+		assertThat(statisticsRepository.loadTeamCounts(2)).isEqualTo(new TeamCounts(2, 3, 3));
+		assertThat(statisticsRepository.loadTeamCounts(99)).isEqualTo(TeamCounts.NONE);
+	}
+}
@@ -0,0 +1,172 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.TestPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of the old name ILIKE search (page + count, as Page<Team> ran it) against the ranked full-text search with
+// keyset paging, at 1M teams, for a common word, a rare word and a two-word query - first page and page 500. Not
+// part of the normal build:
+//   mvn test -Dtest=TeamSearchBenchmark -Dbenchmarks=true
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class TeamSearchBenchmark {
+
+	private static final int TEAMS = 1_000_000;
+	private static final int PAGE = 20;
+	private static final int DEEP_PAGE = 500;
+	private static final int RUNS = 50;
+
+	// 40 words in names, another 40 in descriptions; "platform" is in 1 of 40 names, "quasar" in 1 of 1600
+	private static final String NAME_WORDS = "ARRAY['platform','billing','mobile','search','growth','payments'," +
+			"'identity','storage','network','compute','data','analytics','security','design','support','sales'," +
+			"'marketing','finance','legal','infra','quasar','delta','orbit','comet','falcon','harbor','summit'," +
+			"'canyon','ember','glacier','meadow','prairie','tundra','atlas','beacon','cobalt','dynamo','echo'," +
+			"'fusion','zenith']";
+	private static final String DESCRIPTION_WORDS = "ARRAY['owns','builds','runs','maintains','operates','supports'," +
+			"'the','our','customer','internal','public','mobile','web','backend','frontend','platform','pipeline'," +
+			"'service','services','tooling','release','incident','onboarding','checkout','reporting','ledger'," +
+			"'catalog','inventory','shipping','pricing','ranking','recommendations','notifications','messaging'," +
+			"'scheduling','experiments','dashboards','alerts','migrations','quotas']";
+
+	private static final String ILIKE = "SELECT t.* FROM teams t WHERE lower(t.name) LIKE lower('%%%s%%')";
+	private static final String MATCHES = "SELECT t.id, ts_rank(t.search_vector, q) AS rank " +
+			"FROM teams t, websearch_to_tsquery('english', '%s') q WHERE t.search_vector @@ q";
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@BeforeAll
+	static void migrateAndSeed() throws SQLException {
+		Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.load()
+				.migrate();
+
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO users (first_name, last_name, email, username, password, role) " +
+					"VALUES ('Owner', 'Owner', 'owner@test.com', 'owner', 'x', 'USER')");
+			statement.execute("INSERT INTO teams (name, description, created_at, owner_id, is_active) " +
+					"SELECT initcap(n[1 + i % 40]) || ' ' || initcap(n[1 + (i / 40) % 40]) || ' ' || i, " +
+					"d[1 + i % 37] || ' the ' || d[1 + (i / 37) % 40] || ' and ' || d[1 + (i / 1480) % 40], " +
+					"now(), 1, i % 10 <> 0 " +
+					"FROM generate_series(1, " + TEAMS + ") i, " +
+					"(SELECT " + NAME_WORDS + " AS n, " + DESCRIPTION_WORDS + " AS d) words");
+			statement.execute("VACUUM ANALYZE");
+		}
+	}
+
+	@Test
+	void fullTextAgainstIlike() throws SQLException {
+		System.out.printf("team search @ %,d teams, %d per page, mean / p95 of %d runs in ms%n", TEAMS, PAGE, RUNS);
+		System.out.printf("  %-20s %8s %18s %18s %18s %18s%n", "query", "matches", "ILIKE page+count",
+				"ILIKE page " + DEEP_PAGE, "full-text page 1", "full-text page " + DEEP_PAGE);
+		for (String query : new String[]{"platform", "quasar", "platform billing"}) {
+			String ilike = ILIKE.formatted(query);
+			String matches = MATCHES.formatted(query);
+
+			Timing ilikeFirst = time(ilike + " ORDER BY t.id LIMIT " + PAGE)
+					.plus(time("SELECT count(*) FROM (" + ilike + ") q"));
+			Timing ilikeDeep = time(ilike + " ORDER BY t.id LIMIT " + PAGE + " OFFSET " + PAGE * DEEP_PAGE);
+			Timing fullTextFirst = time(fullTextPage(matches, null));
+			Timing fullTextDeep = time(fullTextPage(matches, cursorBefore(matches, PAGE * DEEP_PAGE)));
+
+			System.out.printf("  %-20s %,8d %s %s %s %s%n", "\"" + query + "\"", count(matches),
+					ilikeFirst, ilikeDeep, fullTextFirst, fullTextDeep);
+		}
+
+		assertThat(explain(fullTextPage(MATCHES.formatted("quasar"), null))).contains("idx_teams_search");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	// the SQL TeamSearchRepository.findPage sends, with the cursor inlined
+	private static String fullTextPage(String matches, String cursor) {
+		return "SELECT id, rank FROM (" + matches + ") hits"
+				+ (cursor != null ? " WHERE (rank, id) < " + cursor : "")
+				+ " ORDER BY rank DESC, id DESC LIMIT " + (PAGE + 1);
+	}
+
+	// (rank, id) of the hit just before the given position, as the client would carry it over page by page
+	private static String cursorBefore(String matches, int position) throws SQLException {
+		try (Connection connection = connect();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT rank, id FROM (" + matches + ") hits " +
+					 "ORDER BY rank DESC, id DESC LIMIT 1 OFFSET " + (position - 1))) {
+			return rs.next() ? "(" + rs.getFloat(1) + "::real, " + rs.getInt(2) + ")" : "(0::real, 0)";
+		}
+	}
+
+	private static long count(String matches) throws SQLException {
+		try (Connection connection = connect();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT count(*) FROM (" + matches + ") hits")) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	private static Timing time(String sql) throws SQLException {
+		double[] millis = new double[RUNS];
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			drain(statement, sql); // warm-up
+			for (int i = 0; i < RUNS; i++) {
+				long start = System.nanoTime();
+				drain(statement, sql);
+				millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+			}
+		}
+		Arrays.sort(millis);
+		return new Timing(Arrays.stream(millis).average().orElse(0), millis[(int) Math.ceil(RUNS * 0.95) - 1]);
+	}
+
+	private static void drain(Statement statement, String sql) throws SQLException {
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				rs.getInt(1);
+			}
+		}
+	}
+
+	private static String explain(String sql) throws SQLException {
+		StringBuilder plan = new StringBuilder();
+		try (Connection connection = connect();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			while (rs.next()) {
+				plan.append(rs.getString(1)).append('\n');
+			}
+		}
+		return plan.toString();
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+	}
+
+	private record Timing(double mean, double p95) {
+
+		Timing plus(Timing other) {
+			return new Timing(mean + other.mean, p95 + other.p95);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%8.2f / %7.2f", mean, p95);
+		}
+	}
+}
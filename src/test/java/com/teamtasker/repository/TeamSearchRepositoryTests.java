@@ -0,0 +1,98 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.search.TeamSearchHit;
+import com.teamtasker.search.TeamSearchPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Ranking and keyset paging over the generated search_vector column. Skipped when Docker is not available.
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TeamSearchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TeamSearchRepositoryTests {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private TeamSearchRepository teamSearchRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, username, password, role) " +
+				"VALUES (1, 'A', 'A', 'a@test.com', 'a', 'x', 'ADMIN')");
+		jdbcTemplate.update("INSERT INTO teams (id, name, description, created_at, owner_id, is_active) VALUES " +
+				"(1, 'Billing', 'Owns the payments platform', now(), 1, true), " +
+				"(2, 'Platform', 'Shared infrastructure', now(), 1, true), " +
+				"(3, 'Mobile', 'iOS and Android apps', now(), 1, false), " +
+				"(4, 'Platform Security', NULL, now(), 1, true)");
+	}
+
+	@Test
+	void ranksNameMatchesAboveDescriptionMatches() {
+		List<TeamSearchHit> hits = teamSearchRepository.findPage("platform", null, 10);
+
+		assertThat(hits).extracting(TeamSearchHit::id).containsExactlyInAnyOrder(1, 2, 4);
+		assertThat(hits.getLast().id()).isEqualTo(1);
+		assertThat(hits.get(0).rank()).isGreaterThanOrEqualTo(hits.get(1).rank());
+	}
+
+	@Test
+	void matchesStemmedWordsAndWebSearchSyntax() {
+		assertThat(teamSearchRepository.findPage("payment", null, 10)).extracting(TeamSearchHit::id).containsExactly(1);
+		assertThat(teamSearchRepository.findPage("platform -security", null, 10)).extracting(TeamSearchHit::id)
+				.containsExactlyInAnyOrder(1, 2);
+		assertThat(teamSearchRepository.findPage("\"platform security\"", null, 10)).extracting(TeamSearchHit::id)
+				.containsExactly(4);
+		assertThat(teamSearchRepository.findPage("the", null, 10)).isEmpty();
+	}
+
+	@Test
+	void followsTheCursorThroughAllPagesWithoutGapsOrRepeats() {
+		jdbcTemplate.update("INSERT INTO teams (id, name, created_at, owner_id, is_active) " +
+				"SELECT 100 + i, 'Team ' || i, now(), 1, true FROM generate_series(1, 25) i");
+		List<TeamSearchHit> all = teamSearchRepository.findPage("team", null, 100);
+
+		List<TeamSearchHit> paged = new ArrayList<>();
+		TeamSearchPage.Cursor cursor = null;
+		while (true) {
+			List<TeamSearchHit> page = teamSearchRepository.findPage("team", cursor, 7);
+			paged.addAll(page);
+			if (page.size() < 7) {
+				break;
+			}
+			// through the string form, as the client sends it back
+			cursor = TeamSearchPage.Cursor.parse(TeamSearchPage.Cursor.of(page.getLast()).toString());
+		}
+
+		assertThat(all).hasSize(25);
+		assertThat(paged).containsExactlyElementsOf(all);
+	}
+}
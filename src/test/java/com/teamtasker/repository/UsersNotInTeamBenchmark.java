@@ -0,0 +1,115 @@
+package com.teamtasker.repository;
+
+import com.teamtasker.TestPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares the old NOT IN form of findUsersNotInTeam against the NOT EXISTS anti-join, with and without the count
+// query, at 1M users and a 50k-member team. Not part of the normal build:
+//   mvn test -Dtest=UsersNotInTeamBenchmark -Dbenchmarks=true
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UsersNotInTeamBenchmark {
+
+	private static final int USERS = 1_000_000;
+	private static final int TEAM_SIZE = 50_000;
+	private static final int TEAM_ID = 1;
+	private static final int RUNS = 20;
+
+	private static final String NOT_IN = "SELECT u.* FROM users u WHERE u.id NOT IN " +
+			"(SELECT m.user_id FROM team_memberships m WHERE m.team_id = " + TEAM_ID + ")";
+	private static final String NOT_EXISTS = "SELECT u.* FROM users u WHERE NOT EXISTS " +
+			"(SELECT 1 FROM team_memberships m WHERE m.team_id = " + TEAM_ID + " AND m.user_id = u.id)";
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@BeforeAll
+	static void migrateAndSeed() throws SQLException {
+		Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.load()
+				.migrate();
+
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO users (first_name, last_name, email, username, password, role) " +
+					"SELECT 'First' || i, 'Last' || i, 'user' || i || '@test.com', 'user' || i, 'x', 'USER' " +
+					"FROM generate_series(1, " + USERS + ") i");
+			statement.execute("INSERT INTO teams (name, created_at, owner_id, is_active) VALUES ('big team', now(), 1, true)");
+			// every 20th user, spread across the id range so pages mix members and non-members
+			statement.execute("INSERT INTO team_memberships (team_id, user_id, role, joined_at) " +
+					"SELECT " + TEAM_ID + ", i * (" + USERS + " / " + TEAM_SIZE + "), 'MEMBER', now() " +
+					"FROM generate_series(1, " + TEAM_SIZE + ") i");
+			statement.execute("VACUUM ANALYZE");
+		}
+	}
+
+	@Test
+	void antiJoinAgainstNotIn() throws SQLException {
+		String page = " ORDER BY u.id LIMIT 21 OFFSET 500000";
+		String count = "SELECT count(*) FROM (%s) q";
+
+		double notInPage = timeMillis(NOT_IN + page);
+		double notExistsPage = timeMillis(NOT_EXISTS + page);
+		double notInCount = timeMillis(count.formatted(NOT_IN));
+		double notExistsCount = timeMillis(count.formatted(NOT_EXISTS));
+
+		System.out.printf("findUsersNotInTeam @ %,d users, %,d members (mean of %d runs)%n", USERS, TEAM_SIZE, RUNS);
+		System.out.printf("  NOT IN     page %8.2f ms   count %8.2f ms   Page total %8.2f ms%n",
+				notInPage, notInCount, notInPage + notInCount);
+		System.out.printf("  NOT EXISTS page %8.2f ms   count %8.2f ms   Page total %8.2f ms   Slice %8.2f ms%n",
+				notExistsPage, notExistsCount, notExistsPage + notExistsCount, notExistsPage);
+
+		assertThat(explain(NOT_EXISTS + page)).contains("Anti Join");
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private static double timeMillis(String sql) throws SQLException {
+		try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+			drain(statement, sql); // warm-up
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				drain(statement, sql);
+			}
+			return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+		}
+	}
+
+	private static void drain(Statement statement, String sql) throws SQLException {
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			while (rs.next()) {
+				rs.getInt(1);
+			}
+		}
+	}
+
+	private static String explain(String sql) throws SQLException {
+		StringBuilder plan = new StringBuilder();
+		try (Connection connection = connect();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			while (rs.next()) {
+				plan.append(rs.getString(1)).append('\n');
+			}
+		}
+		return plan.toString();
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+	}
+}
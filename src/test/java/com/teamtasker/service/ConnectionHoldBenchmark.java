@@ -0,0 +1,192 @@
+package com.teamtasker.service;
+
+import com.teamtasker.TestPostgres;
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.TeamMembership;
+import com.teamtasker.repository.TeamRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Connection hold time of a team page request with open-in-view on and off, and with the service read in a read-only
+// or a read-write transaction. A request is getTeamById's fetch of a 500-member team followed by RENDER_MILLIS of view
+// work; open-in-view is reproduced the way OpenEntityManagerInViewInterceptor does it, by binding the EntityManager
+// around both. Hold times come from Hikari's connection usage timer, and each setting is also driven by CLIENTS
+// threads against a pool of POOL_SIZE to show what the hold time costs in throughput. Not part of the normal build:
+//   mvn test -Dtest=ConnectionHoldBenchmark -Dbenchmarks=true
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=" + ConnectionHoldBenchmark.POOL_SIZE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ConnectionHoldBenchmark {
+
+	static final int POOL_SIZE = 10;
+
+	private static final int TEAM = 1;
+	private static final int MEMBERS = 500;
+	private static final int RENDER_MILLIS = 2;
+	private static final int WARMUP = 200;
+	private static final int REQUESTS = 1_000;
+	private static final int CLIENTS = 40;
+
+	private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = TestPostgres.container();
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Autowired
+	private TeamRepository teamRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void seed() throws SQLException {
+		HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+		if (pool.getMetricsTrackerFactory() == null) {
+			pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+		}
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, username, password, role) " +
+				"SELECT i, 'First' || i, 'Last' || i, 'user' || i || '@test.com', 'user' || i, 'x', 'USER' " +
+				"FROM generate_series(1, " + MEMBERS + ") i ON CONFLICT DO NOTHING");
+		jdbcTemplate.update("INSERT INTO teams (id, name, created_at, owner_id, is_active) " +
+				"VALUES (" + TEAM + ", 'Hold', now(), 1, true) ON CONFLICT DO NOTHING");
+		jdbcTemplate.update("INSERT INTO team_memberships (team_id, user_id, role, joined_at) " +
+				"SELECT " + TEAM + ", i, CASE WHEN i = 1 THEN 'OWNER' ELSE 'MEMBER' END, now() " +
+				"FROM generate_series(1, " + MEMBERS + ") i ON CONFLICT DO NOTHING");
+	}
+
+	@Test
+	void openInViewAndReadOnly(TestReporter reporter) throws Exception {
+		reporter.publishEntry("setup", String.format("team page, %d members, %d ms render, pool of %d, %d clients",
+				MEMBERS, RENDER_MILLIS, POOL_SIZE, CLIENTS));
+		double[][] holdMillis = new double[2][2];
+		for (boolean openInView : new boolean[]{true, false}) {
+			for (boolean readOnly : new boolean[]{true, false}) {
+				for (int i = 0; i < WARMUP; i++) {
+					request(openInView, readOnly);
+				}
+				double hold = meanHoldMillis(() -> {
+					for (int i = 0; i < REQUESTS; i++) {
+						request(openInView, readOnly);
+					}
+				});
+				double throughput = throughput(openInView, readOnly);
+				holdMillis[openInView ? 1 : 0][readOnly ? 1 : 0] = hold;
+				reporter.publishEntry("open-in-view=" + openInView + ", read-only=" + readOnly,
+						String.format("%.3f ms held/req, %.0f req/s", hold, throughput));
+			}
+		}
+
+		// with open-in-view the connection is held through the render, so every request holds it at least that long;
+		// without it the render is outside the hold, and at least half of it must come off the mean hold time
+		for (int readOnly = 0; readOnly < 2; readOnly++) {
+			assertThat(holdMillis[1][readOnly]).isGreaterThanOrEqualTo(RENDER_MILLIS);
+			assertThat(holdMillis[1][readOnly] - holdMillis[0][readOnly]).isGreaterThan(RENDER_MILLIS / 2.0);
+		}
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+	// Helper methods
+
+	private void request(boolean openInView, boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(readOnly);
+		if (!openInView) {
+			render(transaction.execute(status -> teamRepository.findWithMembersById(TEAM).orElseThrow()));
+			return;
+		}
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			render(transaction.execute(status -> teamRepository.findWithMembersById(TEAM).orElseThrow()));
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			EntityManagerFactoryUtils.closeEntityManager(entityManager);
+		}
+	}
+
+	// stands in for the template: walks the roster, then the time Thymeleaf and the response write take
+	private static void render(Team team) {
+		int length = 0;
+		for (TeamMembership membership : team.getMemberships().values()) {
+			length += membership.getUser().getUsername().length();
+		}
+		assertThat(length).isPositive();
+		LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RENDER_MILLIS));
+	}
+
+	private double meanHoldMillis(Runnable requests) {
+		Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+		long count = usage.count();
+		double total = usage.totalTime(TimeUnit.MILLISECONDS);
+		requests.run();
+		return (usage.totalTime(TimeUnit.MILLISECONDS) - total) / (usage.count() - count);
+	}
+
+	private double throughput(boolean openInView, boolean readOnly) {
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		try {
+			List<CompletableFuture<Void>> requests = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int i = 0; i < REQUESTS; i++) {
+				requests.add(CompletableFuture.runAsync(() -> request(openInView, readOnly), clients));
+			}
+			CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+			return REQUESTS / ((System.nanoTime() - start) / 1_000_000_000.0);
+		} finally {
+			clients.shutdown();
+		}
+	}
+}
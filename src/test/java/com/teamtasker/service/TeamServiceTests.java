@@ -0,0 +1,65 @@
+package com.teamtasker.service;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.membership.MembershipIndex;
+import com.teamtasker.repository.TeamMembershipRepository;
+import com.teamtasker.repository.TeamRepository;
+import com.teamtasker.repository.TeamSearchRepository;
+import com.teamtasker.repository.TeamVersionRepository;
+import com.teamtasker.repository.UserRepository;
+import com.teamtasker.stats.StatisticsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TeamServiceTests {
+
+	private final TeamRepository teamRepository = mock(TeamRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final TeamService teamService = new TeamService(teamRepository, mock(UserRepository.class),
+			mock(TeamMembershipRepository.class), mock(TeamVersionRepository.class),
+			mock(TeamSearchRepository.class), mock(MembershipIndex.class), mock(StatisticsCache.class),
+			eventPublisher);
+
+	private final User owner = new User("Olive", "Owner", "owner@test.com", "owner", "x");
+	private final Team team = new Team("Alpha", "", owner);
+
+	@BeforeEach
+	void setUp() {
+		owner.setId(1);
+		team.setId(7);
+		when(teamRepository.findWithMembersById(7)).thenReturn(Optional.of(team));
+	}
+
+	@Test
+	void deactivatingTwicePublishesOnce() {
+		teamService.deactivateTeam(7, owner);
+		teamService.deactivateTeam(7, owner);
+
+		assertThat(team.getIsActive()).isFalse();
+		verify(teamRepository, times(1)).save(team);
+		verify(eventPublisher, times(1)).publishEvent(isA(TeamEvent.TeamDeactivated.class));
+	}
+
+	@Test
+	void reactivatingAnActiveTeamPublishesNothing() {
+		teamService.reactivateTeam(7, owner);
+
+		assertThat(team.getIsActive()).isTrue();
+		verify(teamRepository, never()).save(any());
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+}
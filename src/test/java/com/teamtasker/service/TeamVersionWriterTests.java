@@ -0,0 +1,63 @@
+package com.teamtasker.service;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.TeamVersionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class TeamVersionWriterTests {
+
+	private final TeamVersionRepository repository = mock(TeamVersionRepository.class);
+	private final TeamVersionWriter writer = new TeamVersionWriter(repository);
+
+	@Test
+	void rosterChangeBumpsOnlyTheTeam() {
+		writer.onTeamEvent(new TeamEvent.MemberAdded(7, 2, 1, Instant.now()));
+
+		verify(repository).bumpTeam(eq(7), any(LocalDateTime.class));
+		verify(repository, never()).bumpCatalog(any());
+	}
+
+	@Test
+	void teamChangeBumpsTeamAndCatalog() {
+		writer.onTeamEvent(new TeamEvent.TeamDeactivated(7, 1, Instant.now()));
+
+		verify(repository).bumpTeam(eq(7), any(LocalDateTime.class));
+		verify(repository).bumpCatalog(any(LocalDateTime.class));
+	}
+
+	@Test
+	void deletedTeamBumpsOnlyTheCatalog() {
+		writer.onTeamEvent(new TeamEvent.TeamDeleted(7, "Alpha", 1, Instant.now()));
+
+		verify(repository, never()).bumpTeam(anyInt(), any());
+		verify(repository).bumpCatalog(any(LocalDateTime.class));
+	}
+
+	@Test
+	void profileEditBumpsEveryTeamOfTheUser() {
+		writer.onUserEvent(new UserEvent.UserProfileUpdated(5, 5, Instant.now()));
+
+		verify(repository).bumpTeamsOfMember(eq(5), any(LocalDateTime.class));
+		verify(repository).bumpCatalog(any(LocalDateTime.class));
+	}
+
+	@Test
+	void roleChangeLeavesTeamsAlone() {
+		writer.onUserEvent(new UserEvent.UserRoleChanged(5, Role.USER, Role.MANAGER, 1, Instant.now()));
+
+		verifyNoInteractions(repository);
+	}
+}
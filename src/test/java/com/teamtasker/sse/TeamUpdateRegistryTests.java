@@ -0,0 +1,171 @@
+package com.teamtasker.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class TeamUpdateRegistryTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final Queue<Runnable> sendTasks = new ArrayDeque<>();
+	private TeamUpdateRegistry registry;
+
+	@AfterEach
+	void tearDown() {
+		if (registry != null) {
+			registry.close();
+		}
+	}
+
+	@Test
+	void burstIsCoalescedIntoOneMessageWithLatestChangePerSubject() {
+		CapturingEmitter emitter = new CapturingEmitter();
+		TeamStream stream = stream(emitter, 64);
+
+		stream.enqueue(new TeamEvent.MemberAdded(1, 5, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.ManagerPromoted(1, 5, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.MemberAdded(1, 6, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.TeamDeactivated(1, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.TeamReactivated(1, 9, Instant.now()));
+
+		assertThat(sendTasks).hasSize(1);
+		runSendTasks();
+
+		assertThat(emitter.sent).hasSize(1);
+		String message = emitter.sent.get(0);
+		assertThat(message).startsWith("event:" + TeamStream.UPDATE_EVENT)
+				.contains("ManagerPromoted", "TeamReactivated")
+				.doesNotContain("TeamDeactivated");
+		assertThat(message.split("\"type\"", -1)).hasSize(4);
+	}
+
+	@Test
+	void clientTooFarBehindIsToldToResync() {
+		CapturingEmitter emitter = new CapturingEmitter();
+		TeamStream stream = stream(emitter, 3);
+
+		for (int userId = 1; userId <= 3; userId++) {
+			assertThat(stream.enqueue(new TeamEvent.MemberAdded(1, userId, 9, Instant.now()))).isTrue();
+		}
+		assertThat(stream.enqueue(new TeamEvent.MemberAdded(1, 4, 9, Instant.now()))).isFalse();
+		runSendTasks();
+
+		assertThat(emitter.sent).singleElement().asString().startsWith("event:" + TeamStream.RESYNC_EVENT);
+	}
+
+	@Test
+	void deletedTeamEndsTheStream() {
+		CapturingEmitter emitter = new CapturingEmitter();
+		TeamStream stream = stream(emitter, 64);
+
+		stream.enqueue(new TeamEvent.MemberAdded(1, 5, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.TeamDeleted(1, "team", 9, Instant.now()));
+		runSendTasks();
+
+		assertThat(emitter.sent).singleElement().asString().startsWith("event:" + TeamStream.DELETED_EVENT);
+	}
+
+	@Test
+	void removedSubscriberIsCutOff() {
+		CapturingEmitter emitter = new CapturingEmitter();
+		TeamStream stream = stream(emitter, 64, 5, false);
+
+		stream.enqueue(new TeamEvent.TeamUpdated(1, "renamed", 9, Instant.now()));
+		stream.enqueue(new TeamEvent.MemberRemoved(1, 5, TeamRole.MEMBER, 9, Instant.now()));
+		stream.enqueue(new TeamEvent.MemberAdded(1, 6, 9, Instant.now()));
+		runSendTasks();
+
+		assertThat(emitter.sent).singleElement().asString().startsWith("event:" + TeamStream.REVOKED_EVENT);
+		assertThat(emitter.completed).isTrue();
+	}
+
+	@Test
+	void adminsAndPreviousOwnersKeepTheirStream() {
+		CapturingEmitter adminEmitter = new CapturingEmitter();
+		TeamStream adminStream = stream(adminEmitter, 64, 5, true);
+		CapturingEmitter ownerEmitter = new CapturingEmitter();
+		TeamStream ownerStream = stream(ownerEmitter, 64, 5, false);
+
+		adminStream.enqueue(new TeamEvent.MemberRemoved(1, 5, TeamRole.MANAGER, 9, Instant.now()));
+		ownerStream.enqueue(new TeamEvent.OwnershipTransferred(1, 5, 6, 5, Instant.now()));
+		runSendTasks();
+
+		assertThat(adminEmitter.sent).singleElement().asString().startsWith("event:" + TeamStream.UPDATE_EVENT);
+		assertThat(ownerEmitter.sent).singleElement().asString().startsWith("event:" + TeamStream.UPDATE_EVENT);
+		assertThat(adminEmitter.completed).isFalse();
+		assertThat(ownerEmitter.completed).isFalse();
+	}
+
+	@Test
+	void registryRoutesByTeamAndEnforcesConnectionLimit() {
+		TeamUpdateProperties properties = new TeamUpdateProperties();
+		properties.setMaxConnections(2);
+		registry = new TeamUpdateRegistry(properties, objectMapper, new SimpleMeterRegistry());
+
+		CapturingEmitter team1 = new CapturingEmitter();
+		CapturingEmitter team2 = new CapturingEmitter();
+		assertThat(registry.register(1, 7, false, team1)).isTrue();
+		assertThat(registry.register(2, 5, false, team2)).isTrue();
+		assertThat(registry.open(3, 5, false)).isNull();
+
+		registry.onEvents(List.of(new TeamEvent.MemberRemoved(1, 5, TeamRole.MEMBER, 9, Instant.now())));
+
+		await().atMost(5, TimeUnit.SECONDS).until(() -> team1.sent.size() == 1);
+		assertThat(team1.sent.get(0)).contains("MemberRemoved");
+		assertThat(team2.sent).isEmpty();
+		assertThat(registry.getConnectionCount()).isEqualTo(2);
+	}
+
+	//------------------------------------------------------------------------------------------------------------------
+
+	private TeamStream stream(SseEmitter emitter, int maxPending) {
+		return stream(emitter, maxPending, 7, false);
+	}
+
+	private TeamStream stream(SseEmitter emitter, int maxPending, Integer userId, boolean admin) {
+		return new TeamStream(1, userId, admin, emitter, maxPending, sendTasks::add, objectMapper, stream -> {
+		});
+	}
+
+	private void runSendTasks() {
+		Runnable task;
+		while ((task = sendTasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private static class CapturingEmitter extends SseEmitter {
+
+		final List<String> sent = new CopyOnWriteArrayList<>();
+		volatile boolean completed;
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			StringBuilder message = new StringBuilder();
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				message.append(part.getData());
+			}
+			sent.add(message.toString());
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.teamtasker.stats;
+
+import com.teamtasker.entity.Role;
+import com.teamtasker.entity.TeamRole;
+import com.teamtasker.event.TeamEvent;
+import com.teamtasker.event.UserEvent;
+import com.teamtasker.repository.StatisticsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatisticsCacheTests {
+
+	private final StatisticsRepository repository = mock(StatisticsRepository.class);
+	private final StatisticsCache cache = new StatisticsCache(repository, new SimpleMeterRegistry(), 100,
+			Duration.ofHours(1));
+
+	@BeforeEach
+	void setUp() {
+		when(repository.loadStatistics()).thenReturn(new Statistics(
+				Map.of(Role.ADMIN, 1L, Role.USER, 10L), 4, 1,
+				Map.of(TeamRole.OWNER, 5L, TeamRole.MANAGER, 2L, TeamRole.MEMBER, 20L)));
+		when(repository.loadTeamCounts(7)).thenReturn(new TeamCounts(1, 2, 3));
+	}
+
+	@Test
+	void loadsOnceThenServesFromMemory() {
+		cache.getStatistics();
+		cache.getStatistics();
+		cache.getTeamCounts(7);
+		cache.getTeamCounts(7);
+
+		verify(repository, times(1)).loadStatistics();
+		verify(repository, times(1)).loadTeamCounts(7);
+		assertThat(cache.getStatistics().usersByRole()).containsEntry(Role.MANAGER, 0L);
+	}
+
+	@Test
+	void registrationAndRoleChangeAdjustUserCounts() {
+		cache.getStatistics();
+
+		cache.onUserEvent(new UserEvent.UserRegistered(30, Role.USER, null, Instant.now()));
+		cache.onUserEvent(new UserEvent.UserRoleChanged(30, Role.USER, Role.MANAGER, 1, Instant.now()));
+
+		Statistics statistics = cache.getStatistics();
+		assertThat(statistics.usersByRole()).containsEntry(Role.USER, 10L).containsEntry(Role.MANAGER, 1L);
+		assertThat(statistics.totalUsers()).isEqualTo(12);
+		verify(repository, times(1)).loadStatistics();
+	}
+
+	@Test
+	void membershipChangesAdjustTeamAndUserCounts() {
+		cache.getStatistics();
+		cache.getTeamCounts(7);
+
+		cache.onTeamEvent(new TeamEvent.TeamCreated(50, "Alpha", 7, Instant.now()));
+		cache.onTeamEvent(new TeamEvent.MemberAdded(3, 7, 1, Instant.now()));
+		cache.onTeamEvent(new TeamEvent.ManagerPromoted(3, 7, 1, Instant.now()));
+		cache.onTeamEvent(new TeamEvent.TeamDeactivated(50, 7, Instant.now()));
+
+		Statistics statistics = cache.getStatistics();
+		assertThat(statistics.activeTeams()).isEqualTo(4);
+		assertThat(statistics.inactiveTeams()).isEqualTo(2);
+		assertThat(statistics.membershipsByRole()).containsEntry(TeamRole.OWNER, 6L)
+				.containsEntry(TeamRole.MANAGER, 3L).containsEntry(TeamRole.MEMBER, 20L);
+		assertThat(cache.getTeamCounts(7)).isEqualTo(new TeamCounts(2, 4, 5));
+
+		cache.onTeamEvent(new TeamEvent.MemberRemoved(3, 7, TeamRole.MANAGER, 1, Instant.now()));
+		assertThat(cache.getTeamCounts(7)).isEqualTo(new TeamCounts(2, 3, 4));
+		verify(repository, times(1)).loadStatistics();
+		verify(repository, times(1)).loadTeamCounts(7);
+	}
+
+	@Test
+	void cascadingDeletesReloadOnNextRead() {
+		cache.getStatistics();
+		cache.getTeamCounts(7);
+
+		cache.onTeamEvent(new TeamEvent.TeamDeleted(50, "Alpha", 7, Instant.now()));
+		cache.getStatistics();
+		cache.getTeamCounts(7);
+
+		verify(repository, times(2)).loadStatistics();
+		verify(repository, times(2)).loadTeamCounts(7);
+	}
+
+	@Test
+	void loadOverlappingAnEventIsNotKept() {
+		when(repository.loadStatistics()).thenAnswer(invocation -> {
+			cache.onUserEvent(new UserEvent.UserRegistered(31, Role.USER, null, Instant.now()));
+			return new Statistics(Map.of(Role.USER, 10L), 0, 0, Map.of());
+		});
+
+		cache.getStatistics();
+		cache.getStatistics();
+
+		verify(repository, times(2)).loadStatistics();
+	}
+
+	@Test
+	void reloadsOnceOlderThanMaxAge() {
+		StatisticsCache expiring = new StatisticsCache(repository, new SimpleMeterRegistry(), 100, Duration.ZERO);
+
+		expiring.getStatistics();
+		expiring.getStatistics();
+		expiring.getTeamCounts(7);
+		expiring.getTeamCounts(7);
+
+		verify(repository, times(2)).loadStatistics();
+		verify(repository, times(2)).loadTeamCounts(7);
+	}
+}
@@ -0,0 +1,80 @@
+package com.teamtasker.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTests {
+
+	private static final long WINDOW = 60_000_000_000L;
+
+	private final KeyHash keyHash = new KeyHash(42);
+	private final CountMinSketch sketch = new CountMinSketch(4096, WINDOW, 0);
+
+	@Test
+	void countsExactlyWhileTheSketchIsSparse() {
+		for (int i = 0; i < 2000; i++) {
+			sketch.increment(keyHash.hash("user" + i % 500), 0);
+		}
+
+		for (int i = 0; i < 500; i++) {
+			assertThat(sketch.estimate(keyHash.hash("user" + i), 0)).isEqualTo(4);
+		}
+	}
+
+	@Test
+	void tailStaysNearZeroWhenCountersSaturate() {
+		// ~250 attempts per counter - a plain count-min estimate would make every key look like an attacker
+		for (int i = 0; i < 1_000_000; i++) {
+			sketch.increment(keyHash.hash("tail" + i), 0);
+		}
+		for (int i = 0; i < 100; i++) {
+			sketch.increment(keyHash.hash("heavy"), 0);
+		}
+
+		assertThat(sketch.estimate(keyHash.hash("heavy"), 0)).isBetween(60, 140);
+		assertThat(sketch.increment(keyHash.hash("newcomer"), 0)).isLessThan(30);
+	}
+
+	@Test
+	void heavyKeyStandsOutOfTheTail() {
+		for (int i = 0; i < 20_000; i++) {
+			sketch.increment(keyHash.hash("tail" + i), 0);
+		}
+		for (int i = 0; i < 100; i++) {
+			sketch.increment(keyHash.hash("heavy"), 0);
+		}
+
+		assertThat(sketch.estimate(keyHash.hash("heavy"), 0)).isBetween(100, 110);
+		assertThat(sketch.estimate(keyHash.hash("tail7"), 0)).isLessThan(10);
+	}
+
+	@Test
+	void upperBoundNeverUndercounts() {
+		for (int i = 0; i < 1_000_000; i++) {
+			sketch.increment(keyHash.hash("tail" + i), 0);
+		}
+		for (int i = 0; i < 7; i++) {
+			sketch.increment(keyHash.hash("heavy"), 0);
+		}
+
+		assertThat(sketch.crowded()).isTrue();
+		assertThat(sketch.upperBound(keyHash.hash("heavy"), 0)).isGreaterThanOrEqualTo(7);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(sketch.upperBound(keyHash.hash("tail" + i), 0)).isPositive();
+		}
+	}
+
+	@Test
+	void slidesOverTwoWindows() {
+		long key = keyHash.hash("alice");
+		for (int i = 0; i < 3; i++) {
+			sketch.increment(key, 0);
+		}
+		sketch.increment(key, WINDOW);
+		assertThat(sketch.estimate(key, WINDOW)).isEqualTo(4);
+
+		assertThat(sketch.estimate(key, 2 * WINDOW)).isEqualTo(1);
+		assertThat(sketch.estimate(key, 5 * WINDOW)).isZero();
+	}
+}
@@ -0,0 +1,147 @@
+package com.teamtasker.throttle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.teamtasker.throttle.LoginThrottle.Decision.ALLOWED;
+import static com.teamtasker.throttle.LoginThrottle.Decision.IP_LIMITED;
+import static com.teamtasker.throttle.LoginThrottle.Decision.USERNAME_LIMITED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTests {
+
+	private static final long SEED = 42;
+
+	private final AtomicLong clock = new AtomicLong(1_000_000_000_000L);
+	private final LoginThrottleProperties properties = new LoginThrottleProperties();
+	private final LoginThrottle throttle;
+
+	LoginThrottleTests() {
+		properties.setUsernameBurst(5);
+		properties.setUsernameRefill(Duration.ofSeconds(20));
+		properties.setIpBurst(30);
+		properties.setIpRefill(Duration.ofSeconds(2));
+		throttle = new LoginThrottle(properties, clock::get, new KeyHash(SEED));
+	}
+
+	@Test
+	void usernameGetsItsBurstThenOnePerRefill() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(throttle.tryAcquire("10.0.0." + i, "alice")).isEqualTo(ALLOWED);
+		}
+		assertThat(throttle.tryAcquire("10.0.0.9", "alice")).isEqualTo(USERNAME_LIMITED);
+		assertThat(throttle.tryAcquire("10.0.0.9", "ALICE ")).isEqualTo(USERNAME_LIMITED);
+		assertThat(throttle.tryAcquire("10.0.0.9", "bob")).isEqualTo(ALLOWED);
+
+		clock.addAndGet(Duration.ofSeconds(20).toNanos());
+		assertThat(throttle.tryAcquire("10.0.0.9", "alice")).isEqualTo(ALLOWED);
+		assertThat(throttle.tryAcquire("10.0.0.9", "alice")).isEqualTo(USERNAME_LIMITED);
+	}
+
+	@Test
+	void addressIsLimitedAcrossUsernames() {
+		for (int i = 0; i < 30; i++) {
+			assertThat(throttle.tryAcquire("10.0.0.1", "user" + i)).isEqualTo(ALLOWED);
+		}
+		assertThat(throttle.tryAcquire("10.0.0.1", "someone")).isEqualTo(IP_LIMITED);
+		assertThat(throttle.tryAcquire("10.0.0.2", "someone")).isEqualTo(ALLOWED);
+	}
+
+	@Test
+	void oneOffKeysNeverTakeABucket() {
+		for (int i = 0; i < 1000; i++) {
+			throttle.tryAcquire("10.1." + i / 250 + "." + i % 250, "user" + i);
+		}
+
+		assertThat(throttle.trackedBuckets()).isZero();
+	}
+
+	@Test
+	void fullTableFallsBackToTheSketch() {
+		properties.setBuckets(2);
+		LoginThrottle tiny = new LoginThrottle(properties, clock::get, new KeyHash(SEED));
+		for (int i = 0; i < 5; i++) {
+			tiny.tryAcquire("10.0.0.1", "alice");
+			tiny.tryAcquire("10.0.0.1", "bob");
+		}
+		// both slots are held by buckets well into their burst - carol is judged by her sketch count against the burst
+		int allowed = 0;
+		while (tiny.tryAcquire("10.0.0.2", "carol") == ALLOWED) {
+			allowed++;
+		}
+		assertThat(allowed).isEqualTo(5);
+	}
+
+	@Test
+	void floodOfOneOffKeysDoesNotLoosenAHotUsername() {
+		// credential stuffing: every attempt a new username from a new address, ~30 attempts on every counter
+		LoginThrottle crowded = flooded(2_000_000);
+
+		for (String username : new String[]{"alice", "bob", "carol", "dave", "erin"}) {
+			assertThat(allowedOf(crowded, username)).as(username).isBetween(5, 5 + 4);
+		}
+	}
+
+	@Test
+	void moderateFloodNeitherLoosensNorLocksOut() {
+		// ~2 attempts per counter: the noise-corrected estimate is off by several attempts either way here
+		LoginThrottle crowded = flooded(150_000);
+
+		for (String username : new String[]{"alice", "bob", "carol", "dave", "erin"}) {
+			assertThat(allowedOf(crowded, username)).as(username).isBetween(5, 5 + 4);
+		}
+	}
+
+	@Test
+	void filterRefusesBeforeTheChain() throws Exception {
+		LoginThrottleFilter filter = new LoginThrottleFilter(throttle, properties, new SimpleMeterRegistry());
+		MockHttpServletResponse response = null;
+		MockFilterChain chain = null;
+		for (int i = 0; i < 6; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+			request.setParameter("username", "alice");
+			response = new MockHttpServletResponse();
+			chain = new MockFilterChain();
+			filter.doFilter(request, response, chain);
+		}
+
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("20");
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	void filterIgnoresTheLoginPage() throws Exception {
+		LoginThrottleFilter filter = new LoginThrottleFilter(throttle, properties, new SimpleMeterRegistry());
+		for (int i = 0; i < 50; i++) {
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(new MockHttpServletRequest("GET", "/auth/login"), new MockHttpServletResponse(), chain);
+			assertThat(chain.getRequest()).isNotNull();
+		}
+	}
+
+	private LoginThrottle flooded(int attempts) {
+		LoginThrottle crowded = new LoginThrottle(properties, clock::get, new KeyHash(SEED));
+		for (int i = 0; i < attempts; i++) {
+			crowded.tryAcquire("10." + (i >> 16) + "." + (i >> 8 & 255) + "." + (i & 255), "victim" + i);
+		}
+		return crowded;
+	}
+
+	// attempts on one username from a fresh address each time, so only the username limit applies
+	private static int allowedOf(LoginThrottle throttle, String username) {
+		int allowed = 0;
+		for (int i = 0; i < 100; i++) {
+			if (throttle.tryAcquire("172.16." + username.length() + "." + i, username) == ALLOWED) {
+				allowed++;
+			}
+		}
+		return allowed;
+	}
+}
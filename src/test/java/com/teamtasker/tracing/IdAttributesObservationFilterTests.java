@@ -0,0 +1,89 @@
+package com.teamtasker.tracing;
+
+import com.teamtasker.entity.User;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdAttributesObservationFilterTests {
+
+	private final List<Observation.Context> stopped = new ArrayList<>();
+	private Service service;
+
+	@BeforeEach
+	void setUp() {
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig()
+				.observationFilter(new IdAttributesObservationFilter())
+				.observationHandler(new ObservationHandler<>() {
+					@Override
+					public void onStop(Observation.Context context) {
+						stopped.add(context);
+					}
+
+					@Override
+					public boolean supportsContext(Observation.Context context) {
+						return true;
+					}
+				});
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+		factory.addAspect(new ObservedAspect(registry));
+		service = factory.getProxy();
+	}
+
+	@Test
+	void tagsTeamAndUserIds() {
+		User currUser = new User();
+		currUser.setId(7);
+
+		service.addMember(42, "alice", currUser);
+
+		assertThat(stopped).hasSize(1);
+		assertThat(stopped.get(0).getHighCardinalityKeyValues()).contains(
+				KeyValue.of(IdAttributesObservationFilter.TEAM_ID, "42"),
+				KeyValue.of(IdAttributesObservationFilter.USER_NAME, "alice"),
+				KeyValue.of(IdAttributesObservationFilter.CURRENT_USER_ID, "7"));
+	}
+
+	@Test
+	void idsNeverBecomeLowCardinalityTags() {
+		service.getUser(3);
+
+		assertThat(stopped.get(0).getHighCardinalityKeyValues())
+				.contains(KeyValue.of(IdAttributesObservationFilter.USER_ID, "3"));
+		assertThat(stopped.get(0).getLowCardinalityKeyValues())
+				.noneMatch(keyValue -> keyValue.getKey().endsWith(".id"));
+	}
+
+	@Test
+	void onlyListedParameterNamesAreTagged() {
+		service.findMembership(5, "ops");
+
+		assertThat(stopped.get(0).getHighCardinalityKeyValues()).isEmpty();
+	}
+
+	@Observed(name = "test.service")
+	static class Service {
+
+		public void addMember(Integer teamId, String username, User currUser) {
+		}
+
+		public void getUser(Integer userId) {
+		}
+
+		public void findMembership(Integer membershipTeamId, String teamUsername) {
+		}
+	}
+}
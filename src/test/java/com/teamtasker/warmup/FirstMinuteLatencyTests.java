@@ -0,0 +1,51 @@
+package com.teamtasker.warmup;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FirstMinuteLatencyTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final FirstMinuteLatency latency = new FirstMinuteLatency(meterRegistry, Duration.ofMillis(200), true);
+
+	@AfterEach
+	void close() {
+		latency.close();
+	}
+
+	@Test
+	void recordsNothingBeforeTheWindowOpens() {
+		request();
+
+		assertThat(meterRegistry.find("teamtasker.warmup.first.minute").timer()).isNull();
+	}
+
+	@Test
+	void recordsOnlyInsideTheWindow() throws Exception {
+		latency.open();
+		request();
+		request();
+
+		Thread.sleep(250);
+		request();
+
+		Timer timer = meterRegistry.get("teamtasker.warmup.first.minute").tag("warmup", "enabled").timer();
+		assertThat(timer.count()).isEqualTo(2);
+	}
+
+	private void request() {
+		ServerRequestObservationContext context = new ServerRequestObservationContext(
+				new MockHttpServletRequest("GET", "/teams"), new MockHttpServletResponse());
+		latency.onStart(context);
+		latency.onStop(context);
+	}
+}
@@ -0,0 +1,114 @@
+package com.teamtasker.warmup;
+
+import com.teamtasker.entity.Team;
+import com.teamtasker.entity.User;
+import com.teamtasker.fragment.TeamFragments;
+import com.teamtasker.service.TeamService;
+import com.teamtasker.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WarmupTests {
+
+	private final TeamService teamService = mock(TeamService.class);
+	private final UserService userService = mock(UserService.class);
+	private final TeamFragments teamFragments = mock(TeamFragments.class);
+	private final WarmupProperties properties = new WarmupProperties();
+	private final Warmup warmup = new Warmup(teamService, userService, teamFragments, new MockEnvironment(),
+			properties);
+	private final WarmupHealthIndicator health = new WarmupHealthIndicator(warmup);
+
+	@Test
+	void outOfServiceUntilFinished() {
+		assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+		assertThat(warmup.isFinished()).isFalse();
+	}
+
+	@Test
+	void runsEveryReadPathAgainstTheSeededTeams() {
+		User owner = new User("Ada", "Owner", "ada@test.com", "ada", "secret");
+		Team alpha = team(1, owner);
+		Team beta = team(2, owner);
+		when(teamService.getAllActiveTeams(any(Pageable.class))).thenReturn(page(alpha, beta));
+		when(teamService.getTeamById(1)).thenReturn(alpha);
+		when(teamService.getTeamById(2)).thenReturn(beta);
+		properties.setIterations(10);
+
+		warmup.run();
+
+		assertThat(warmup.getState()).isEqualTo(Warmup.State.DONE);
+		assertThat(warmup.getCompletedIterations()).isEqualTo(10);
+		assertThat(warmup.getTimings()).extracting(Warmup.PathTiming::path)
+				.containsExactly("team listing", "my teams", "team view", "user search");
+		verify(teamService, times(10)).getActiveTeamsByOwner(owner);
+		verify(teamService, times(5)).getTeamById(1);
+		verify(teamFragments, times(10)).renderUncached(any(Team.class));
+		verify(userService, times(10)).searchUsers(anyString(), any(Pageable.class));
+		assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(health.health().getDetails()).containsKey("paths");
+	}
+
+	@Test
+	void emptyDatabaseStillWarmsListingAndSearch() {
+		when(teamService.getAllActiveTeams(any(Pageable.class))).thenReturn(page());
+		when(userService.getAllUsers(any(Pageable.class))).thenReturn(Page.empty());
+		properties.setIterations(3);
+
+		warmup.run();
+
+		assertThat(warmup.getTimings()).extracting(Warmup.PathTiming::path)
+				.containsExactly("team listing", "user search");
+		verifyNoInteractions(teamFragments);
+	}
+
+	@Test
+	void failureStillReportsReady() {
+		when(teamService.getAllActiveTeams(any(Pageable.class))).thenReturn(page());
+		when(userService.getAllUsers(any(Pageable.class))).thenReturn(Page.empty());
+		when(teamService.getCatalogVersion()).thenThrow(new IllegalStateException("no database"));
+
+		warmup.run();
+
+		assertThat(warmup.getState()).isEqualTo(Warmup.State.FAILED);
+		assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(health.health().getDetails()).containsEntry("error", "java.lang.IllegalStateException: no database");
+	}
+
+	@Test
+	void disabledIsReadyRightAway() {
+		properties.setEnabled(false);
+
+		warmup.onApplicationReady();
+
+		assertThat(warmup.getState()).isEqualTo(Warmup.State.SKIPPED);
+		assertThat(warmup.finished()).isCompletedWithValue(Warmup.State.SKIPPED);
+		assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+		verifyNoInteractions(teamService, userService);
+	}
+
+	private static Team team(int id, User owner) {
+		Team team = new Team("Team " + id, null, owner);
+		team.setId(id);
+		return team;
+	}
+
+	private static Page<Team> page(Team... teams) {
+		return new PageImpl<>(List.of(teams));
+	}
+}